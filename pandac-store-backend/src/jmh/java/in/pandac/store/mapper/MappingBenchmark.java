@@ -0,0 +1,97 @@
+package in.pandac.store.mapper;
+
+import in.pandac.store.dto.AddressDto;
+import in.pandac.store.dto.CustomerDto;
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.entity.Address;
+import in.pandac.store.entity.Customer;
+import in.pandac.store.entity.Product;
+import in.pandac.store.entity.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.BeanUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the old reflective {@link BeanUtils#copyProperties} copies with the
+ * generated MapStruct mappers. Run with {@code ./gradlew jmh}; the gc profiler
+ * reports allocation per operation next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+
+    private final ProductMapper productMapper = new ProductMapperImpl();
+    private final CustomerMapper customerMapper = new CustomerMapperImpl();
+
+    private Product product;
+    private Customer customer;
+
+    @Setup
+    public void setUp() {
+        product = new Product();
+        product.setId(42L);
+        product.setName("Panda sticker");
+        product.setDescription("Weatherproof vinyl sticker");
+        product.setPrice(new BigDecimal("4.99"));
+        product.setPopularity(120);
+        product.setImageUrl("/images/panda.png");
+        product.setCreatedAt(Instant.now());
+
+        Role role = new Role();
+        role.setName("ROLE_USER");
+        Address address = new Address();
+        address.setStreet("1 Bamboo Lane");
+        address.setCity("Chengdu");
+        address.setState("SC");
+        address.setPostalCode("61000");
+        address.setCountry("CN");
+        customer = new Customer();
+        customer.setCustomerId(7L);
+        customer.setName("Pan Da");
+        customer.setEmail("panda@example.com");
+        customer.setMobileNumber("9876543210");
+        customer.setRoles(Set.of(role));
+        customer.setAddress(address);
+    }
+
+    @Benchmark
+    public ProductDto productBeanUtils() {
+        ProductDto productDto = new ProductDto();
+        BeanUtils.copyProperties(product, productDto);
+        productDto.setProductId(product.getId());
+        return productDto;
+    }
+
+    @Benchmark
+    public ProductDto productMapStruct() {
+        return productMapper.toDto(product);
+    }
+
+    @Benchmark
+    public CustomerDto customerBeanUtils() {
+        CustomerDto customerDto = new CustomerDto();
+        BeanUtils.copyProperties(customer, customerDto);
+        AddressDto addressDto = new AddressDto();
+        BeanUtils.copyProperties(customer.getAddress(), addressDto);
+        customerDto.setAddress(addressDto);
+        customerDto.setRoleNames(customer.getRoles().stream().map(Role::getName).collect(Collectors.toSet()));
+        return customerDto;
+    }
+
+    @Benchmark
+    public CustomerDto customerMapStruct() {
+        return customerMapper.toDto(customer);
+    }
+}
@@ -0,0 +1,101 @@
+package in.pandac.store.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.pandac.store.event.ProductChangedEvent;
+import in.pandac.store.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the full catalog already rendered to JSON (plain and gzipped) together
+ * with a strong ETag, so GET /api/v1/products and conditional requests are
+ * answered without running Jackson. The payload is dropped on every product
+ * change and rebuilt by the next reader.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogPayloadCache {
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Payload current;
+
+    public record Payload(long version, byte[] json, byte[] gzip, String etag) {
+
+        public String gzipEtag() {
+            // a different content-coding is a different representation, so it gets its own strong tag
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+
+    public Payload get() {
+        Payload payload = current;
+        if (payload != null) {
+            return payload;
+        }
+        synchronized (this) {
+            payload = current;
+            if (payload == null || payload.version() != version.get()) {
+                payload = render(version.get());
+                // only publish if no product changed while we were rendering
+                if (payload.version() == version.get()) {
+                    current = payload;
+                }
+            }
+            return payload;
+        }
+    }
+
+    // Runs after ProductCacheInvalidationListener has patched the "products" cache
+    @Order(10)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        version.incrementAndGet();
+        current = null;
+    }
+
+    private Payload render(long renderVersion) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(productService.getProducts());
+            String etag = "\"" + HexFormat.of().formatHex(sha256(json), 0, 16) + "\"";
+            log.debug("Rendered catalog payload version {} ({} bytes)", renderVersion, json.length);
+            return new Payload(renderVersion, json, gzip(json), etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render product catalog", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
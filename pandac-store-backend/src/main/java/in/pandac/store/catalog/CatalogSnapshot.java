@@ -0,0 +1,195 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.dto.ProductPageDto;
+import in.pandac.store.dto.ProductSort;
+import in.pandac.store.util.ProductCursor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, columnar view of the whole catalog. Row {@code i} is described by
+ * {@code ids[i]}, {@code priceCents[i]}, {@code popularity[i]} and
+ * {@code products[i]}; the two index arrays hold row numbers in the keyset
+ * orders used by the paginated listing, so a page is located by binary search
+ * and read sequentially without touching the database.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final ProductDto[] products;
+    private final long[] ids;
+    private final long[] priceCents;
+    private final int[] popularity;
+    // row numbers ordered by (popularity DESC, id DESC)
+    private final int[] byPopularity;
+    // row numbers ordered by (price ASC, id ASC)
+    private final int[] byPrice;
+
+    private CatalogSnapshot(long version, List<ProductDto> catalog) {
+        int size = catalog.size();
+        this.version = version;
+        this.products = catalog.toArray(new ProductDto[0]);
+        this.ids = new long[size];
+        this.priceCents = new long[size];
+        this.popularity = new int[size];
+        for (int row = 0; row < size; row++) {
+            ProductDto product = products[row];
+            ids[row] = product.getProductId();
+            priceCents[row] = toCents(product.getPrice());
+            popularity[row] = product.getPopularity() != null ? product.getPopularity() : 0;
+        }
+        this.byPopularity = sortedRows(size, Comparator.<Integer>comparingInt(row -> popularity[row])
+                .thenComparingLong(row -> ids[row]).reversed());
+        this.byPrice = sortedRows(size, Comparator.<Integer>comparingLong(row -> priceCents[row])
+                .thenComparingLong(row -> ids[row]));
+    }
+
+    public static CatalogSnapshot of(long version, List<ProductDto> catalog) {
+        return new CatalogSnapshot(version, catalog);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Answers one keyset page of the listing.
+     *
+     * @param after    the cursor of the previous page, or {@code null} for the first page
+     * @param minCents inclusive lower price bound in cents
+     * @param maxCents inclusive upper price bound in cents
+     */
+    public ProductPageDto page(ProductSort sort, ProductCursor after, int size, long minCents, long maxCents) {
+        // positions [from, to) of byPrice hold exactly the rows inside the price bounds
+        int from = firstPriceAfter(minCents, Long.MIN_VALUE);
+        int to = firstPriceAfter(maxCents, Long.MAX_VALUE);
+        int[] rows;
+        if (sort == ProductSort.PRICE) {
+            int start = after == null ? from : Math.max(from, firstPriceAfter(toCents(after.key()), after.id()));
+            start = Math.min(start, to);
+            rows = Arrays.copyOfRange(byPrice, start, Math.min(start + size + 1, to));
+        } else {
+            int start = after == null ? 0 : firstPopularityAfter(after.key().intValueExact(), after.id());
+            int matching = Math.max(0, to - from);
+            // walking byPopularity reads about (size + 1) * total / matching rows before the page is full;
+            // a narrow price range is cheaper to read off byPrice and rank by popularity
+            rows = matching == ids.length || (long) (size + 1) * ids.length <= (long) matching * matching
+                    ? scanByPopularity(start, size + 1, minCents, maxCents)
+                    : topByPopularity(from, to, after, size + 1);
+        }
+
+        boolean hasMore = rows.length > size;
+        int count = Math.min(rows.length, size);
+        List<ProductDto> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(products[rows[i]]);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            int lastRow = rows[count - 1];
+            BigDecimal key = sort == ProductSort.POPULARITY
+                    ? BigDecimal.valueOf(popularity[lastRow]) : BigDecimal.valueOf(priceCents[lastRow], 2);
+            nextCursor = ProductCursor.of(sort, key, ids[lastRow]).encode();
+        }
+        return new ProductPageDto(List.copyOf(items), nextCursor, hasMore);
+    }
+
+    // up to limit rows of byPopularity from position start that fall inside the price bounds
+    private int[] scanByPopularity(int start, int limit, long minCents, long maxCents) {
+        int[] rows = new int[limit];
+        int count = 0;
+        for (int position = start; position < byPopularity.length && count < limit; position++) {
+            int row = byPopularity[position];
+            if (priceCents[row] >= minCents && priceCents[row] <= maxCents) {
+                rows[count++] = row;
+            }
+        }
+        return count == limit ? rows : Arrays.copyOf(rows, count);
+    }
+
+    // the first limit rows in (popularity DESC, id DESC) order among byPrice positions [from, to) past the cursor
+    private int[] topByPopularity(int from, int to, ProductCursor after, int limit) {
+        int afterPopularity = after == null ? Integer.MAX_VALUE : after.key().intValueExact();
+        long afterId = after == null ? Long.MAX_VALUE : after.id();
+        // head is the lowest ranked row kept so far
+        PriorityQueue<Integer> kept = new PriorityQueue<>(limit + 1, this::comparePopularity);
+        for (int position = from; position < to; position++) {
+            int row = byPrice[position];
+            boolean pastCursor = after == null || popularity[row] < afterPopularity
+                    || (popularity[row] == afterPopularity && ids[row] < afterId);
+            if (!pastCursor) {
+                continue;
+            }
+            if (kept.size() < limit) {
+                kept.add(row);
+            } else if (comparePopularity(row, kept.peek()) > 0) {
+                kept.poll();
+                kept.add(row);
+            }
+        }
+        int[] rows = new int[kept.size()];
+        for (int i = rows.length - 1; i >= 0; i--) {
+            rows[i] = kept.poll();
+        }
+        return rows;
+    }
+
+    // positive if row a ranks before row b in (popularity DESC, id DESC) order
+    private int comparePopularity(int a, int b) {
+        int order = Integer.compare(popularity[a], popularity[b]);
+        return order != 0 ? order : Long.compare(ids[a], ids[b]);
+    }
+
+    // first position in byPopularity strictly after (pop, id) in (popularity DESC, id DESC) order
+    private int firstPopularityAfter(int pop, long id) {
+        int low = 0;
+        int high = byPopularity.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int row = byPopularity[mid];
+            if (popularity[row] > pop || (popularity[row] == pop && ids[row] >= id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // first position in byPrice strictly after (cents, id) in (price ASC, id ASC) order
+    private int firstPriceAfter(long cents, long id) {
+        int low = 0;
+        int high = byPrice.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int row = byPrice[mid];
+            if (priceCents[row] < cents || (priceCents[row] == cents && ids[row] <= id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    private static int[] sortedRows(int size, Comparator<Integer> comparator) {
+        // boxing is confined to the (off-thread) build; queries only read the primitive arrays
+        return IntStream.range(0, size).boxed().sorted(comparator).mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,93 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.event.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the current {@link CatalogSnapshot}. Product changes schedule a rebuild
+ * on a dedicated thread; bursts of changes collapse into one rebuild. The new
+ * snapshot is published with a single volatile write, so readers never block.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogSnapshotHolder {
+
+    private final ProductCatalogLoader productCatalogLoader;
+    private final CacheManager cacheManager;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final AtomicLong versions = new AtomicLong();
+
+    private volatile CatalogSnapshot snapshot;
+
+    /**
+     * @return the latest snapshot, or {@code null} until the first build has finished
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * @return the version of the latest snapshot, {@code 0} until the first build has finished;
+     * part of the {@code productPages} cache key, so a page answered from an older snapshot
+     * is never served once a newer one is published
+     */
+    public long version() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? current.version() : 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    private void rebuild() {
+        try {
+            CatalogSnapshot next = CatalogSnapshot.of(versions.incrementAndGet(), productCatalogLoader.loadCatalog());
+            snapshot = next;
+            // pages of the previous snapshot are keyed by its version and can no longer be hit
+            Cache pages = cacheManager.getCache("productPages");
+            if (pages != null) {
+                pages.clear();
+            }
+            log.debug("Published catalog snapshot version {} with {} products", next.version(), next.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild catalog snapshot, keeping previous one", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,136 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.dto.DiscountDto;
+import in.pandac.store.event.DiscountChangedEvent;
+import in.pandac.store.repository.DiscountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The whole {@code discounts} table in memory, so checkout validation and
+ * price calculation never touch the database. The map is immutable and
+ * replaced with one volatile write: discount changes copy and patch it,
+ * a periodic reload picks up changes made by other instances.
+ * <p>
+ * Keys are upper-cased like the case-insensitive collation of the column,
+ * so lookups match what {@code findById} matched.
+ * <p>
+ * Being an exact copy of the table, the map is also the negative-lookup
+ * filter for the public validate endpoint: guessed codes are rejected here
+ * with no false positives. Lookups are counted per outcome in the
+ * {@code discount.code.lookups} meter so guessing traffic is visible.
+ */
+@Slf4j
+@Component
+public class DiscountCodeCache {
+
+    // the width of discounts.code; anything longer cannot exist
+    private static final int MAX_CODE_LENGTH = 255;
+
+    private final DiscountRepository discountRepository;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter malformed;
+
+    private final Object lock = new Object();
+    // bumped by every patch; a reload that raced with one is discarded
+    private long changes;
+    private volatile Map<String, DiscountDto> discounts;
+
+    public DiscountCodeCache(DiscountRepository discountRepository, MeterRegistry meterRegistry) {
+        this.discountRepository = discountRepository;
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.malformed = lookupCounter(meterRegistry, "malformed");
+        Gauge.builder("discount.codes", this, cache -> cache.discounts != null ? cache.discounts.size() : 0)
+                .description("Discount codes held in memory")
+                .register(meterRegistry);
+    }
+
+    public Optional<DiscountDto> get(String code) {
+        if (code == null || code.isBlank() || code.length() > MAX_CODE_LENGTH) {
+            malformed.increment();
+            return Optional.empty();
+        }
+        DiscountDto discount = current().get(key(code));
+        (discount != null ? hits : misses).increment();
+        return Optional.ofNullable(discount);
+    }
+
+    public Collection<DiscountDto> all() {
+        return current().values();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.discount-cache.reconcile-interval-ms:60000}",
+            initialDelayString = "${app.discount-cache.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDiscountChanged(DiscountChangedEvent event) {
+        synchronized (lock) {
+            Map<String, DiscountDto> next = new LinkedHashMap<>(current());
+            if (event.type() == DiscountChangedEvent.ChangeType.DELETED) {
+                next.remove(key(event.code()));
+            } else {
+                next.put(key(event.code()), event.discount());
+            }
+            discounts = Collections.unmodifiableMap(next);
+            changes++;
+        }
+    }
+
+    private Map<String, DiscountDto> current() {
+        Map<String, DiscountDto> current = discounts;
+        return current != null ? current : reload();
+    }
+
+    private Map<String, DiscountDto> reload() {
+        long seen;
+        synchronized (lock) {
+            seen = changes;
+        }
+        Map<String, DiscountDto> loaded = new LinkedHashMap<>();
+        discountRepository.findAll().forEach(discount -> loaded.put(key(discount.getCode()),
+                new DiscountDto(discount.getCode(), discount.getDiscount(), discount.getType())));
+        Map<String, DiscountDto> next = Collections.unmodifiableMap(loaded);
+        synchronized (lock) {
+            if (changes == seen || discounts == null) {
+                discounts = next;
+                log.debug("Loaded {} discount codes", next.size());
+            }
+            return discounts;
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("discount.code.lookups")
+                .description("Discount code lookups by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String key(String code) {
+        return code.toUpperCase(Locale.ROOT);
+    }
+}
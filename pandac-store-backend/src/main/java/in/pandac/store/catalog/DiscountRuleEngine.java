@@ -0,0 +1,64 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.event.DiscountRuleChangedEvent;
+import in.pandac.store.repository.DiscountRuleRepository;
+import in.pandac.store.util.CartQuote;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Owns the current {@link DiscountRules}. Every rule change recompiles the
+ * whole set from the database after its commit, a periodic recompile picks up
+ * changes made on other instances. The compiled rules are published with one
+ * volatile write, so cart evaluation never blocks and never queries.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DiscountRuleEngine {
+
+    private final DiscountRuleRepository discountRuleRepository;
+
+    private volatile DiscountRules rules;
+
+    public DiscountRules.Evaluation evaluate(List<CartQuote.Line> lines, String code) {
+        return current().evaluate(lines, code, Instant.now());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        recompile();
+    }
+
+    @Scheduled(fixedDelayString = "${app.discount-cache.reconcile-interval-ms:60000}",
+            initialDelayString = "${app.discount-cache.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        recompile();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDiscountRuleChanged(DiscountRuleChangedEvent event) {
+        recompile();
+    }
+
+    private DiscountRules current() {
+        DiscountRules current = rules;
+        return current != null ? current : recompile();
+    }
+
+    // serialized, so the last compile to finish always read the latest committed rules
+    private synchronized DiscountRules recompile() {
+        DiscountRules next = DiscountRules.compile(discountRuleRepository.findActiveWithProducts());
+        rules = next;
+        log.debug("Compiled {} active discount rules", next.size());
+        return next;
+    }
+}
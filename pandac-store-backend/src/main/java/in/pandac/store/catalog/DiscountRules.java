@@ -0,0 +1,205 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.entity.DiscountRule;
+import in.pandac.store.entity.DiscountRuleType;
+import in.pandac.store.util.CartQuote;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, compiled form of the active discount rules. Rules are sorted by
+ * priority once and afterwards referred to by their position in that order,
+ * so a cart gathers its candidate rules from the product index into a bit set
+ * and walks them in priority order without sorting or touching rules scoped
+ * to other products. All amounts are {@code long} cents.
+ */
+public final class DiscountRules {
+
+    public static final DiscountRules EMPTY = new DiscountRules(new Rule[0]);
+
+    private static final int[] NONE = new int[0];
+
+    // in evaluation order: priority, then rule id
+    private final Rule[] rules;
+    // positions of the cart-wide rules; a scoped rule whose products are all gone sits in no index
+    private final int[] cartWide;
+    private final Map<Long, int[]> byProduct;
+
+    private DiscountRules(Rule[] rules) {
+        this.rules = rules;
+        Map<Long, List<Integer>> index = new HashMap<>();
+        List<Integer> wide = new ArrayList<>();
+        for (int position = 0; position < rules.length; position++) {
+            if (rules[position].cartWide()) {
+                wide.add(position);
+            }
+            for (Long productId : rules[position].productIds()) {
+                index.computeIfAbsent(productId, id -> new ArrayList<>()).add(position);
+            }
+        }
+        this.cartWide = toArray(wide);
+        Map<Long, int[]> compiled = new HashMap<>(index.size() * 2);
+        index.forEach((productId, positions) -> compiled.put(productId, toArray(positions)));
+        this.byProduct = Map.copyOf(compiled);
+    }
+
+    /**
+     * Compiles the given rules; inactive ones are left out.
+     */
+    public static DiscountRules compile(Collection<DiscountRule> discountRules) {
+        Rule[] compiled = discountRules.stream()
+                .filter(DiscountRule::isActive)
+                .map(DiscountRules::toRule)
+                .sorted(Comparator.comparingInt(Rule::priority).thenComparingLong(Rule::ruleId))
+                .toArray(Rule[]::new);
+        return compiled.length == 0 ? EMPTY : new DiscountRules(compiled);
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    /**
+     * Applies the rules relevant to the cart in priority order. A rule needs
+     * its code (if it has one), its time window and its minimum cart value to
+     * be met; a non-stackable rule is skipped once another rule has applied
+     * and ends the evaluation when it applies itself. The total never exceeds
+     * the subtotal.
+     *
+     * @param code the code the customer entered, may be {@code null}
+     */
+    public Evaluation evaluate(List<CartQuote.Line> lines, String code, Instant now) {
+        long subtotalCents = 0;
+        BitSet candidates = new BitSet(rules.length);
+        for (int position : cartWide) {
+            candidates.set(position);
+        }
+        for (CartQuote.Line line : lines) {
+            subtotalCents = Math.addExact(subtotalCents, Math.multiplyExact(line.unitCents(), line.quantity()));
+            for (int position : byProduct.getOrDefault(line.productId(), NONE)) {
+                candidates.set(position);
+            }
+        }
+
+        String key = code != null && !code.isBlank() ? code.toUpperCase(Locale.ROOT) : null;
+        List<Applied> applied = new ArrayList<>();
+        long discountCents = 0;
+        boolean codeApplied = false;
+        boolean exclusive = false;
+        for (int position = candidates.nextSetBit(0); position >= 0;
+             position = candidates.nextSetBit(position + 1)) {
+            Rule rule = rules[position];
+            if ((rule.code() != null && !rule.code().equals(key)) || !rule.isLive(now)
+                    || subtotalCents < rule.minCartCents() || (!rule.stackable() && !applied.isEmpty())) {
+                continue;
+            }
+            long amount = Math.min(rule.discountCents(lines), subtotalCents - discountCents);
+            if (amount <= 0) {
+                continue;
+            }
+            applied.add(new Applied(rule.ruleId(), rule.name(), amount));
+            discountCents += amount;
+            codeApplied |= rule.code() != null;
+            if (!rule.stackable()) {
+                exclusive = true;
+                break;
+            }
+        }
+        return new Evaluation(List.copyOf(applied), discountCents, codeApplied, exclusive);
+    }
+
+    /**
+     * @param codeApplied whether a rule applied because of the entered code
+     * @param exclusive   whether a non-stackable rule applied, so nothing else may be added
+     */
+    public record Evaluation(List<Applied> applied, long discountCents, boolean codeApplied, boolean exclusive) {
+    }
+
+    public record Applied(long ruleId, String name, long discountCents) {
+    }
+
+    private record Rule(long ruleId, String name, String code, DiscountRuleType type, int percent,
+                        long amountCents, int buyQuantity, int getQuantity, long minCartCents,
+                        int priority, boolean stackable, Instant startsAt, Instant endsAt,
+                        boolean cartWide, Set<Long> productIds) {
+
+        boolean isLive(Instant now) {
+            return (startsAt == null || !now.isBefore(startsAt)) && (endsAt == null || now.isBefore(endsAt));
+        }
+
+        boolean applies(CartQuote.Line line) {
+            return cartWide || productIds.contains(line.productId());
+        }
+
+        long discountCents(List<CartQuote.Line> lines) {
+            return switch (type) {
+                case PERCENTAGE -> (scopedCents(lines) * percent + 50) / 100;
+                case FIXED -> scopedCents(lines) >= amountCents ? amountCents : 0;
+                case BUY_X_GET_Y -> freeUnitCents(lines);
+            };
+        }
+
+        private long scopedCents(List<CartQuote.Line> lines) {
+            long cents = 0;
+            for (CartQuote.Line line : lines) {
+                if (applies(line)) {
+                    cents = Math.addExact(cents, Math.multiplyExact(line.unitCents(), line.quantity()));
+                }
+            }
+            return cents;
+        }
+
+        // every complete group of buy + get scoped units makes its get cheapest units free
+        private long freeUnitCents(List<CartQuote.Line> lines) {
+            if (buyQuantity <= 0 || getQuantity <= 0) {
+                return 0;
+            }
+            List<CartQuote.Line> scoped = lines.stream().filter(this::applies)
+                    .sorted(Comparator.comparingLong(CartQuote.Line::unitCents))
+                    .toList();
+            long units = scoped.stream().mapToLong(CartQuote.Line::quantity).sum();
+            long free = units / (buyQuantity + getQuantity) * getQuantity;
+            long cents = 0;
+            for (CartQuote.Line line : scoped) {
+                if (free == 0) {
+                    break;
+                }
+                long taken = Math.min(free, line.quantity());
+                cents = Math.addExact(cents, Math.multiplyExact(line.unitCents(), taken));
+                free -= taken;
+            }
+            return cents;
+        }
+    }
+
+    private static Rule toRule(DiscountRule rule) {
+        return new Rule(rule.getRuleId(), rule.getName(),
+                rule.getCode() != null ? rule.getCode().toUpperCase(Locale.ROOT) : null,
+                rule.getType(),
+                rule.getPercent() != null ? rule.getPercent() : 0,
+                cents(rule.getAmount()),
+                rule.getBuyQuantity() != null ? rule.getBuyQuantity() : 0,
+                rule.getGetQuantity() != null ? rule.getGetQuantity() : 0,
+                cents(rule.getMinCartValue()),
+                rule.getPriority(), rule.isStackable(), rule.getStartsAt(), rule.getEndsAt(),
+                rule.isCartWide(), Set.copyOf(rule.getProductIds()));
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount != null ? CatalogSnapshot.toCents(amount) : 0;
+    }
+
+    private static int[] toArray(List<Integer> positions) {
+        return positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,72 @@
+package in.pandac.store.catalog;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.entity.Product;
+import in.pandac.store.event.ProductChangedEvent;
+import in.pandac.store.mapper.ProductMapper;
+import in.pandac.store.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-id product cache. Multi-gets load every missing id with a single
+ * {@code findAllById} IN-query; product change events keep entries coherent.
+ */
+@Component
+public class ProductByIdCache {
+
+    private final LoadingCache<Long, ProductDto> cache;
+
+    public ProductByIdCache(ProductRepository productRepository, ProductMapper productMapper) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(30, TimeUnit.MINUTES)
+                .maximumSize(10_000)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public ProductDto load(Long productId) {
+                        return productRepository.findById(productId).map(productMapper::toDto).orElse(null);
+                    }
+
+                    @Override
+                    public Map<Long, ProductDto> loadAll(Set<? extends Long> productIds) {
+                        Map<Long, ProductDto> loaded = new HashMap<>(productIds.size());
+                        for (Product product : productRepository.findAllById(productIds)) {
+                            loaded.put(product.getId(), productMapper.toDto(product));
+                        }
+                        return loaded;
+                    }
+                });
+    }
+
+    public Optional<ProductDto> get(Long productId) {
+        return Optional.ofNullable(cache.get(productId));
+    }
+
+    /**
+     * @return the cached or freshly loaded products keyed by id; unknown ids are absent
+     */
+    public Map<Long, ProductDto> getAll(Collection<Long> productIds) {
+        return cache.getAll(productIds);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.ChangeType.RELOADED) {
+            cache.invalidateAll();
+        } else if (event.type() == ProductChangedEvent.ChangeType.DELETED) {
+            cache.invalidate(event.productId());
+        } else {
+            cache.put(event.productId(), event.product());
+        }
+    }
+}
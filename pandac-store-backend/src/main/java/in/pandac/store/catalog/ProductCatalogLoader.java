@@ -0,0 +1,25 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.mapper.ProductMapper;
+import in.pandac.store.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Loads the full product catalog from the database. Used both by the
+ * service on a cold cache and by the "products" cache for background refreshes.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCatalogLoader {
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+
+    public List<ProductDto> loadCatalog() {
+        return productRepository.findAll().stream().map(productMapper::toDto).toList();
+    }
+}
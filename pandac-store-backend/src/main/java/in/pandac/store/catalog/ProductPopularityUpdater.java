@@ -0,0 +1,36 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.event.OrderChangedEvent.ChangeType;
+import in.pandac.store.event.OrderOutboxEvent;
+import in.pandac.store.event.OrderOutboxListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Counts units ordered into {@code products.popularity}. Relative UPDATEs in
+ * the relay's transaction; a failed delivery rolls them back with the event's
+ * savepoint, so a retried event does not count its order twice. The catalog
+ * snapshot and caches pick the new values up on their next reload rather than
+ * being invalidated per order.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductPopularityUpdater implements OrderOutboxListener {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void onOrderEvent(OrderOutboxEvent event) {
+        if (event.type() != ChangeType.CREATED || event.quantities().isEmpty()) {
+            return;
+        }
+        List<Object[]> increments = event.quantities().entrySet().stream()
+                .map(line -> new Object[]{line.getValue(), line.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate("UPDATE products SET popularity = popularity + ? WHERE product_id = ?",
+                increments);
+    }
+}
@@ -0,0 +1,172 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process inverted index over product name and description.
+ * <p>
+ * Every token is indexed under its edge n-grams (prefixes), so the last word
+ * of a query can be matched while the user is still typing. A posting carries
+ * a weight: name hits outrank description hits and whole-word hits outrank
+ * prefix hits. Final scores are scaled by product popularity.
+ * <p>
+ * Readers never lock; writers (startup build and product change events) are
+ * serialized and replace one product's postings at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final int MIN_GRAM = 2;
+    private static final int MAX_GRAM = 20;
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_FACTOR = 0.5f;
+
+    private final ProductCatalogLoader productCatalogLoader;
+
+    // gram -> (product id -> weight)
+    private final Map<String, Map<Long, Float>> postings = new ConcurrentHashMap<>();
+    // product id -> indexed product and the grams it was indexed under, for removal
+    private final Map<Long, IndexedProduct> products = new ConcurrentHashMap<>();
+
+    private record IndexedProduct(ProductDto product, Set<String> grams) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        postings.clear();
+        products.clear();
+        List<ProductDto> catalog = productCatalogLoader.loadCatalog();
+        catalog.forEach(this::index);
+        log.info("Built product search index: {} products, {} grams", products.size(), postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.ChangeType.RELOADED) {
+            build();
+            return;
+        }
+        remove(event.productId());
+        if (event.type() != ProductChangedEvent.ChangeType.DELETED) {
+            index(event.product());
+        }
+    }
+
+    /**
+     * Returns the best matching products for a free-text query. Every query
+     * token must match (as a word or word prefix) in the name or description.
+     */
+    public List<ProductDto> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<Map<Long, Float>> lists = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            if (token.length() < MIN_GRAM) {
+                continue;
+            }
+            Map<Long, Float> list = postings.get(gramOf(token));
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        if (lists.isEmpty()) {
+            return List.of();
+        }
+        // intersect starting from the rarest gram to keep the candidate set small
+        lists.sort(Comparator.comparingInt(Map::size));
+        Map<Long, Float> scores = new HashMap<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !scores.isEmpty(); i++) {
+            Map<Long, Float> list = lists.get(i);
+            scores.entrySet().removeIf(entry -> !list.containsKey(entry.getKey()));
+            scores.replaceAll((id, score) -> score + list.getOrDefault(id, 0f));
+        }
+
+        List<ScoredProduct> ranked = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> {
+            IndexedProduct indexed = products.get(id);
+            if (indexed != null) {
+                int popularity = indexed.product().getPopularity() != null ? indexed.product().getPopularity() : 0;
+                ranked.add(new ScoredProduct(indexed.product(), score * (1.0 + Math.log1p(Math.max(popularity, 0)))));
+            }
+        });
+        ranked.sort(Comparator.comparingDouble(ScoredProduct::score).reversed()
+                .thenComparing(scored -> scored.product().getProductId()));
+        return ranked.stream().limit(limit).map(ScoredProduct::product).toList();
+    }
+
+    private record ScoredProduct(ProductDto product, double score) {
+    }
+
+    private void index(ProductDto product) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, product.getName(), NAME_WEIGHT);
+        addField(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+        weights.forEach((gram, weight) ->
+                postings.computeIfAbsent(gram, key -> new ConcurrentHashMap<>()).put(product.getProductId(), weight));
+        products.put(product.getProductId(), new IndexedProduct(product, Set.copyOf(weights.keySet())));
+    }
+
+    private void remove(Long productId) {
+        IndexedProduct indexed = products.remove(productId);
+        if (indexed == null) {
+            return;
+        }
+        for (String gram : indexed.grams()) {
+            postings.computeIfPresent(gram, (key, list) -> {
+                list.remove(productId);
+                return list.isEmpty() ? null : list;
+            });
+        }
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float fieldWeight) {
+        for (String token : new HashSet<>(tokenize(text))) {
+            int maxLength = Math.min(token.length(), MAX_GRAM);
+            for (int length = MIN_GRAM; length <= maxLength; length++) {
+                float weight = length == token.length() ? fieldWeight : fieldWeight * PREFIX_FACTOR;
+                weights.merge(token.substring(0, length), weight, Float::max);
+            }
+        }
+    }
+
+    private static String gramOf(String token) {
+        return token.length() > MAX_GRAM ? token.substring(0, MAX_GRAM) : token;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
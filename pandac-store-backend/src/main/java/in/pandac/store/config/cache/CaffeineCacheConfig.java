@@ -1,6 +1,8 @@
 package in.pandac.store.config.cache;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import in.pandac.store.catalog.ProductCatalogLoader;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.support.SimpleCacheManager;
@@ -14,11 +16,21 @@ import java.util.concurrent.TimeUnit;
 public class CaffeineCacheConfig {
 
     @Bean
-    public CacheManager caffeineCacheManager() {
+    public CacheManager caffeineCacheManager(ProductCatalogLoader productCatalogLoader) {
+        // Refresh-ahead: after 5 minutes the next read still gets the cached catalog
+        // while a single background reload runs; writes patch it via ProductCacheInvalidationListener
         CaffeineCache productsCache = new CaffeineCache("products",
                 Caffeine.newBuilder()
+                        .refreshAfterWrite(5, TimeUnit.MINUTES)
                         .expireAfterWrite(30, TimeUnit.MINUTES)
                         .maximumSize(1000)
+                        .buildAsync((CacheLoader<Object, Object>) key -> productCatalogLoader.loadCatalog()),
+                false);
+
+        CaffeineCache productPagesCache = new CaffeineCache("productPages",
+                Caffeine.newBuilder()
+                        .expireAfterWrite(5, TimeUnit.MINUTES)
+                        .maximumSize(5000)
                         .build());
 
         CaffeineCache rolesCache = new CaffeineCache("roles",
@@ -28,7 +40,7 @@ public class CaffeineCacheConfig {
                         .build());
 
         SimpleCacheManager manager = new SimpleCacheManager();
-        manager.setCaches(Arrays.asList(productsCache, rolesCache));
+        manager.setCaches(Arrays.asList(productsCache, productPagesCache, rolesCache));
         return manager;
 
 
@@ -0,0 +1,73 @@
+package in.pandac.store.config.cache;
+
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the product caches coherent with catalog writes. The full catalog is
+ * patched in place (copy-on-write) so readers never see a cold cache after an
+ * admin edit; keyset pages are simply dropped because cursors shift.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCacheInvalidationListener {
+
+    private final CacheManager cacheManager;
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        patchCatalog(event);
+        Cache pages = cacheManager.getCache("productPages");
+        if (pages != null) {
+            pages.clear();
+        }
+    }
+
+    // the patch runs inside the cache's per-key compute, so concurrent writes apply one after another
+    @SuppressWarnings("unchecked")
+    private void patchCatalog(ProductChangedEvent event) {
+        Cache products = cacheManager.getCache("products");
+        if (products == null) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.ChangeType.RELOADED) {
+            products.evict(SimpleKey.EMPTY);
+            return;
+        }
+        // nothing loaded yet means the next read loads a fresh catalog, so only present entries are patched
+        ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) products.getNativeCache()).asMap()
+                .computeIfPresent(SimpleKey.EMPTY, (key, cached) -> patch((List<ProductDto>) cached, event));
+        log.debug("Patched cached catalog after {} of product {}", event.type(), event.productId());
+    }
+
+    private static List<ProductDto> patch(List<ProductDto> current, ProductChangedEvent event) {
+        List<ProductDto> patched = new ArrayList<>(current.size() + 1);
+        boolean replaced = false;
+        for (ProductDto productDto : current) {
+            if (!productDto.getProductId().equals(event.productId())) {
+                patched.add(productDto);
+            } else if (event.type() == ProductChangedEvent.ChangeType.UPDATED) {
+                patched.add(event.product());
+                replaced = true;
+            }
+        }
+        if (event.type() == ProductChangedEvent.ChangeType.CREATED
+                || (event.type() == ProductChangedEvent.ChangeType.UPDATED && !replaced)) {
+            patched.add(event.product());
+        }
+        return List.copyOf(patched);
+    }
+}
@@ -15,4 +15,19 @@ public class ApplicationConstants {
 
     public static final String  OPEN_MESSAGE = "OPEN";
     public static final String  CLOSED_MESSAGE = "CLOSED";
+
+    public static final int PRODUCT_PAGE_DEFAULT_SIZE = 20;
+    public static final int PRODUCT_PAGE_MAX_SIZE = 100;
+    public static final int PRODUCT_SEARCH_DEFAULT_LIMIT = 10;
+    public static final int PRODUCT_SEARCH_MAX_LIMIT = 50;
+    public static final int PRODUCT_BATCH_MAX_SIZE = 100;
+    public static final int ORDER_PAGE_MAX_SIZE = 100;
+    public static final int ORDER_STATUS_BULK_MAX_SIZE = 10_000;
+    public static final int ORDER_STATUS_BULK_CHUNK_SIZE = 500;
+    public static final int SALES_REPORT_MAX_HOURLY_DAYS = 93;
+    public static final int SALES_REPORT_MAX_DAILY_DAYS = 3660;
+    public static final int SALES_REPORT_MAX_PRODUCTS = 100;
+    public static final int SALES_ROLLUP_MAX_RECONCILE_DAYS = 366;
+
+    public static final int CART_QUOTE_MAX_LINES = 100;
 }
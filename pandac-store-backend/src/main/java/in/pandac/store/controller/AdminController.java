@@ -3,13 +3,27 @@ package in.pandac.store.controller;
 import in.pandac.store.constants.ApplicationConstants;
 import in.pandac.store.dto.ResponseDto;
 import in.pandac.store.dto.ContactResponseDto;
+import in.pandac.store.dto.OrderPageDto;
 import in.pandac.store.dto.OrderResponseDto;
+import in.pandac.store.dto.OrderStatusBulkRequestDto;
+import in.pandac.store.dto.OrderStatusBulkResultDto;
+import in.pandac.store.dto.ProductImportFormat;
+import in.pandac.store.dto.ProductImportResultDto;
+import in.pandac.store.dto.StockUpdateRequestDto;
+import in.pandac.store.event.OrderEventStream;
+import in.pandac.store.inventory.InventoryLedger;
 import in.pandac.store.service.ContactService;
+import in.pandac.store.service.OrderArchiveService;
 import in.pandac.store.service.OrderService;
+import in.pandac.store.service.ProductImportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -19,28 +33,96 @@ public class AdminController {
 
     private final OrderService orderService;
     private final ContactService contactService;
+    private final OrderEventStream orderEventStream;
+    private final InventoryLedger inventoryLedger;
+    private final OrderArchiveService orderArchiveService;
+    private final ProductImportService productImportService;
 
     @GetMapping("/orders")
     public ResponseEntity<List<OrderResponseDto>> getAllPendingOrders() {
         return ResponseEntity.ok().body(orderService.getAllPendingOrders());
     }
 
+    // Keyset-paginated pending queue, oldest first; clients opt in by passing a page size
+    @GetMapping(value = "/orders", params = "size")
+    public ResponseEntity<OrderPageDto> getPendingOrderPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam("size") int size) {
+        return ResponseEntity.ok().body(orderService.getPendingOrderPage(cursor, size));
+    }
+
+    // Live order-created / order-status-changed events; replaces polling the queue
+    @GetMapping(value = "/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return orderEventStream.subscribe(lastEventId);
+    }
+
+    // Confirm or cancel many orders in one call; each id reports UPDATED, CONFLICT or NOT_FOUND
+    @PatchMapping("/orders/status")
+    public ResponseEntity<OrderStatusBulkResultDto> updateOrderStatuses(
+            @RequestBody OrderStatusBulkRequestDto request) {
+        List<Long> orderIds = request.orderIds();
+        if (orderIds == null || orderIds.isEmpty()
+                || orderIds.size() > ApplicationConstants.ORDER_STATUS_BULK_MAX_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(orderService.updateOrderStatuses(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // version is optional; when given, the change only applies if nobody changed the order since
     @PatchMapping("/orders/{orderId}/confirm")
-    public ResponseEntity<ResponseDto> confirmOrder(@PathVariable Long orderId) {
-        orderService.updateOrderStatus(orderId, ApplicationConstants.ORDER_STATUS_CONFIRMED);
+    public ResponseEntity<ResponseDto> confirmOrder(@PathVariable Long orderId,
+            @RequestParam(value = "version", required = false) Long version) {
+        orderService.updateOrderStatus(orderId, ApplicationConstants.ORDER_STATUS_CONFIRMED, version);
         return ResponseEntity.ok(
                 new ResponseDto("200", "Order #" + orderId + " has been approved.")
         );
     }
 
     @PatchMapping("/orders/{orderId}/cancel")
-    public ResponseEntity<ResponseDto> cancelOrder(@PathVariable Long orderId) {
-        orderService.updateOrderStatus(orderId, ApplicationConstants.ORDER_STATUS_CANCELLED);
+    public ResponseEntity<ResponseDto> cancelOrder(@PathVariable Long orderId,
+            @RequestParam(value = "version", required = false) Long version) {
+        orderService.updateOrderStatus(orderId, ApplicationConstants.ORDER_STATUS_CANCELLED, version);
         return ResponseEntity.ok(
                 new ResponseDto("200", "Order #" + orderId + " has been cancelled.")
         );
     }
 
+    // Runs the closed-order archiver now instead of waiting for its nightly schedule
+    @PostMapping("/orders/archive")
+    public ResponseEntity<ResponseDto> archiveClosedOrders() {
+        int archived = orderArchiveService.archiveClosedOrders();
+        return ResponseEntity.ok(
+                new ResponseDto("200", archived + " closed orders have been archived.")
+        );
+    }
+
+    @PutMapping("/inventory/{productId}")
+    public ResponseEntity<ResponseDto> updateStock(@PathVariable Long productId,
+            @RequestBody StockUpdateRequestDto request) {
+        if (request.stock() != null && request.stock() < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        inventoryLedger.setStock(productId, request.stock());
+        return ResponseEntity.ok(
+                new ResponseDto("200", "Stock of product #" + productId + " has been updated.")
+        );
+    }
+
+    // Bulk catalog load; a malformed header is answered with 400 and the reason by GlobalExceptionHandler
+    @PostMapping(value = "/products/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ProductImportResultDto> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        ProductImportFormat format = contentType.toLowerCase().startsWith("text/csv")
+                ? ProductImportFormat.CSV : ProductImportFormat.NDJSON;
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
     @GetMapping("/messages")
     public ResponseEntity<List<ContactResponseDto>> getAllOpenMessages() {
         return ResponseEntity.ok(contactService.getAllOpenMessages());
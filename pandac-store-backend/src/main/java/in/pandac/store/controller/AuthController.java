@@ -3,15 +3,13 @@ package in.pandac.store.controller;
 import in.pandac.store.dto.LoginRequestDto;
 import in.pandac.store.dto.LoginResponseDto;
 import in.pandac.store.dto.RegisterRequestDto;
-import in.pandac.store.dto.AddressDto;
-import in.pandac.store.dto.UserDto;
 import in.pandac.store.entity.Customer;
+import in.pandac.store.mapper.CustomerMapper;
 import in.pandac.store.repository.CustomerRepository;
 import in.pandac.store.repository.RoleRepository;
 import in.pandac.store.util.JwtUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.BeanUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -45,6 +43,7 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final CompromisedPasswordChecker compromisedPasswordChecker;
     private final JwtUtil jwtUtil;
+    private final CustomerMapper customerMapper;
 
     @PostMapping("/login")
     public ResponseEntity<LoginResponseDto> apiLogin(@RequestBody
@@ -53,16 +52,10 @@ public class AuthController {
             Authentication authentication = authenticationManager.authenticate(new
                     UsernamePasswordAuthenticationToken(loginRequestDto.username(),
                     loginRequestDto.password()));
-            var userDto = new UserDto();
             var loggedInUser = (Customer) authentication.getPrincipal();
-            BeanUtils.copyProperties(loggedInUser, userDto);
+            var userDto = customerMapper.toUserDto(loggedInUser);
             userDto.setRoles(authentication.getAuthorities().stream().map(
                     GrantedAuthority::getAuthority).collect(Collectors.joining(",")));
-            if (loggedInUser.getAddress() != null) {
-                AddressDto addressDto = new AddressDto();
-                BeanUtils.copyProperties(loggedInUser.getAddress(), addressDto);
-                userDto.setAddress(addressDto);
-            }
             String jwtToken = jwtUtil.generateJwtToken(authentication);
             return ResponseEntity.status(HttpStatus.OK)
                     .body(new LoginResponseDto(HttpStatus.OK.getReasonPhrase(),
@@ -103,8 +96,7 @@ public class AuthController {
 
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
         }
-        Customer customer = new Customer();
-        BeanUtils.copyProperties(registerRequestDto, customer);
+        Customer customer = customerMapper.toEntity(registerRequestDto);
         customer.setPasswordHash(passwordEncoder.encode(registerRequestDto.getPassword()));
         roleRepository.findByName("ROLE_USER").ifPresent(role -> customer.setRoles(Set.of(role)));
         customerRepository.save(customer);
@@ -1,9 +1,12 @@
 package in.pandac.store.controller;
 
+import in.pandac.store.dto.CartQuoteDto;
+import in.pandac.store.dto.CartQuoteRequestDto;
 import in.pandac.store.dto.DiscountDto;
 import in.pandac.store.dto.CreateDiscountRequestDto;
 import in.pandac.store.dto.UpdateDiscountRequestDto;
 import in.pandac.store.dto.DiscountCalculationRequestDto;
+import in.pandac.store.service.CartQuoteService;
 import in.pandac.store.service.DiscountService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,10 +22,12 @@ import java.util.Optional;
 public class DiscountController {
 
     private final DiscountService discountService;
+    private final CartQuoteService cartQuoteService;
 
     @Autowired
-    public DiscountController(DiscountService discountService) {
+    public DiscountController(DiscountService discountService, CartQuoteService cartQuoteService) {
         this.discountService = discountService;
+        this.cartQuoteService = cartQuoteService;
     }
 
     // Create a new discount
@@ -81,4 +86,11 @@ public class DiscountController {
         double finalPrice = discountService.calculateFinalPrice(originalPrice, discountDto);
         return new ResponseEntity<>(finalPrice, HttpStatus.OK);
     }
+
+    // Price a whole cart with an optional discount code; a quote signed for a logged-in customer
+    // can be passed once to that customer's order creation
+    @PostMapping("/quote")
+    public ResponseEntity<CartQuoteDto> quoteCart(@RequestBody CartQuoteRequestDto request) {
+        return new ResponseEntity<>(cartQuoteService.quote(request), HttpStatus.OK);
+    }
 }
@@ -0,0 +1,51 @@
+package in.pandac.store.controller;
+
+import in.pandac.store.dto.DiscountRuleDto;
+import in.pandac.store.service.DiscountRuleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Promotion rules applied to cart quotes; changes take effect as soon as they are committed
+@RestController
+@RequestMapping("/api/v1/admin/discount-rules")
+@RequiredArgsConstructor
+public class DiscountRuleController {
+
+    private final DiscountRuleService discountRuleService;
+
+    @GetMapping
+    public ResponseEntity<List<DiscountRuleDto>> getRules() {
+        return ResponseEntity.ok(discountRuleService.getRules());
+    }
+
+    // invalid rules are answered with 400 and the reason by GlobalExceptionHandler
+    @PostMapping
+    public ResponseEntity<DiscountRuleDto> createRule(@RequestBody DiscountRuleDto rule) {
+        return new ResponseEntity<>(discountRuleService.createRule(rule), HttpStatus.CREATED);
+    }
+
+    @PutMapping("/{ruleId}")
+    public ResponseEntity<DiscountRuleDto> updateRule(@PathVariable Long ruleId, @RequestBody DiscountRuleDto rule) {
+        return discountRuleService.updateRule(ruleId, rule)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{ruleId}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long ruleId) {
+        return discountRuleService.deleteRule(ruleId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
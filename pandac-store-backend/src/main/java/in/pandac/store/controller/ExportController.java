@@ -0,0 +1,61 @@
+package in.pandac.store.controller;
+
+import in.pandac.store.dto.ExportFormat;
+import in.pandac.store.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/v1/admin/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    // only exports get this long; other async requests keep the default timeout
+    @Value("${app.export.timeout-ms:600000}")
+    private long timeoutMs;
+
+    @GetMapping("/products")
+    public WebAsyncTask<Void> exportProducts(
+            @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) {
+        return stream("products", format, response, out -> exportService.exportProducts(out, format));
+    }
+
+    @GetMapping("/orders")
+    public WebAsyncTask<Void> exportOrders(
+            @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) {
+        return stream("orders", format, response, out -> exportService.exportOrders(out, format));
+    }
+
+    @GetMapping("/customers")
+    public WebAsyncTask<Void> exportCustomers(
+            @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) {
+        return stream("customers", format, response, out -> exportService.exportCustomers(out, format));
+    }
+
+    private WebAsyncTask<Void> stream(String name, ExportFormat format, HttpServletResponse response,
+                                      StreamingResponseBody body) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + "." + format.extension()).build();
+        response.setContentType(format.mediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        return new WebAsyncTask<>(timeoutMs, () -> {
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package in.pandac.store.controller;
+
+import in.pandac.store.dto.StockReservationDto;
+import in.pandac.store.dto.StockReservationRequestDto;
+import in.pandac.store.inventory.InventoryLedger;
+import in.pandac.store.inventory.Reservation;
+import in.pandac.store.service.ProfileService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/inventory")
+@RequiredArgsConstructor
+public class InventoryController {
+
+    private final InventoryLedger inventoryLedger;
+    private final ProfileService profileService;
+
+    // Holds stock while the customer pays; pass the id as reservationId when placing the order.
+    // Invalid requests are answered with 400 and the reason by GlobalExceptionHandler
+    @PostMapping("/reservations")
+    public ResponseEntity<StockReservationDto> reserveStock(@RequestBody StockReservationRequestDto request) {
+        if (request.items() == null || request.items().isEmpty() || request.items().stream().anyMatch(
+                item -> item.productId() == null || item.quantity() == null || item.quantity() <= 0)) {
+            throw new IllegalArgumentException("Every reserved item needs a product id and a positive quantity");
+        }
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        request.items().forEach(item -> quantities.merge(item.productId(), item.quantity(), Integer::sum));
+        Reservation reservation = inventoryLedger.reserve(
+                profileService.getAuthenticatedCustomer().getCustomerId(), quantities);
+        return ResponseEntity.ok(reservation == null ? new StockReservationDto(null, null)
+                : new StockReservationDto(reservation.id(), reservation.expiresAt()));
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<Void> releaseStock(@PathVariable String reservationId) {
+        return inventoryLedger.release(profileService.getAuthenticatedCustomer().getCustomerId(), reservationId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -1,9 +1,14 @@
 package in.pandac.store.controller;
 
+import in.pandac.store.dto.OrderPageDto;
 import in.pandac.store.dto.OrderRequestDto;
 import in.pandac.store.dto.OrderResponseDto;
+import in.pandac.store.dto.OrderTicketDto;
+import in.pandac.store.service.IdempotencyService;
+import in.pandac.store.service.OrderIngestionService;
 import in.pandac.store.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,11 +20,24 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final OrderIngestionService orderIngestionService;
 
     @PostMapping
-    public ResponseEntity<String> createOrder(@RequestBody OrderRequestDto requestDto) {
-        orderService.createOrder(requestDto);
-        return ResponseEntity.ok("Order created successfully!");
+    public ResponseEntity<?> createOrder(@RequestBody OrderRequestDto requestDto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (orderIngestionService.isEnabled()) {
+            // write-behind mode: acknowledge with a provisional id, the order is committed shortly after
+            OrderTicketDto ticket = idempotencyService.execute("orders", idempotencyKey, requestDto,
+                    OrderTicketDto.class, () -> orderIngestionService.submit(requestDto));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ticket);
+        }
+        // a retried request with the same key gets the first response instead of a second order
+        String message = idempotencyService.execute("orders", idempotencyKey, requestDto, String.class, () -> {
+            orderService.createOrder(requestDto);
+            return "Order created successfully!";
+        });
+        return ResponseEntity.ok(message);
     }
 
     @GetMapping
@@ -27,4 +45,27 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getCustomerOrders());
     }
 
+    @GetMapping("/ingestion/{provisionalId}")
+    public ResponseEntity<OrderTicketDto> getIngestionStatus(@PathVariable String provisionalId) {
+        return orderIngestionService.getTicket(provisionalId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Keyset-paginated history, newest first; clients opt in by passing a page size
+    @GetMapping(params = "size")
+    public ResponseEntity<OrderPageDto> loadCustomerOrderPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam("size") int size) {
+        return ResponseEntity.ok(orderService.getCustomerOrderPage(cursor, size));
+    }
+
+    // Closed orders moved to the archive tables, newest first
+    @GetMapping("/archive")
+    public ResponseEntity<OrderPageDto> loadArchivedOrderPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getArchivedOrderPage(cursor, size));
+    }
+
 }
@@ -2,11 +2,13 @@ package in.pandac.store.controller;
 
 import in.pandac.store.dto.PaymentIntentRequestDto;
 import in.pandac.store.dto.PaymentIntentResponseDto;
+import in.pandac.store.service.IdempotencyService;
 import in.pandac.store.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -16,12 +18,15 @@ import org.springframework.web.bind.annotation.RestController;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/create-payment-intent")
     public ResponseEntity<PaymentIntentResponseDto> createPaymentIntent(
-            @RequestBody PaymentIntentRequestDto paymentRequest) {
-        PaymentIntentResponseDto response =
-                paymentService.createPaymentIntent(paymentRequest);
+            @RequestBody PaymentIntentRequestDto paymentRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        PaymentIntentResponseDto response = idempotencyService.execute("payment-intents", idempotencyKey,
+                paymentRequest, PaymentIntentResponseDto.class,
+                () -> paymentService.createPaymentIntent(paymentRequest, idempotencyKey));
         return ResponseEntity.ok(response);
     }
 
@@ -1,10 +1,18 @@
 package in.pandac.store.controller;
 
+import in.pandac.store.catalog.CatalogPayloadCache;
+import in.pandac.store.constants.ApplicationConstants;
 import in.pandac.store.dto.ErrorResponseDto;
+import in.pandac.store.dto.ProductBatchRequestDto;
 import in.pandac.store.dto.ProductDto;
+import in.pandac.store.dto.ProductPageDto;
+import in.pandac.store.dto.ProductSort;
 import in.pandac.store.exception.FileUploadException;
+import in.pandac.store.exception.InvalidCursorException;
+import in.pandac.store.exception.ResourceInUseException;
 import in.pandac.store.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -21,11 +30,63 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogPayloadCache catalogPayloadCache;
 
+    // Serves the pre-rendered catalog bytes; a matching If-None-Match short-circuits to 304
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getProducts() {
-        List<ProductDto> productList = productService.getProducts();
-        return ResponseEntity.ok().body(productList);
+    public ResponseEntity<byte[]> getProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        CatalogPayloadCache.Payload payload = catalogPayloadCache.get();
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? payload.gzipEtag() : payload.etag();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+        }
+        return response.body(payload.json());
+    }
+
+    // Keyset-paginated listing; clients opt in by passing a sort key
+    @GetMapping(params = "sort")
+    public ResponseEntity<ProductPageDto> getProductPage(
+            @RequestParam("sort") ProductSort sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + ApplicationConstants.PRODUCT_PAGE_DEFAULT_SIZE) int size,
+            @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+            @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice) {
+        ProductPageDto page = productService.getProductPage(sort, cursor, size, minPrice, maxPrice);
+        return ResponseEntity.ok().body(page);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductDto>> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "" + ApplicationConstants.PRODUCT_SEARCH_DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(productService.searchProducts(query, limit));
+    }
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<ProductDto> getProductById(@PathVariable("productId") Long productId) {
+        return productService.getProductById(productId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductDto>> getProductsByIds(@RequestBody ProductBatchRequestDto batchRequest) {
+        List<Long> productIds = batchRequest.productIds();
+        if (productIds == null || productIds.size() > ApplicationConstants.PRODUCT_BATCH_MAX_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsByIds(productIds));
     }
 
     @PostMapping
@@ -65,6 +126,24 @@ public class ProductController {
         return new ResponseEntity<>(errorResponseDto, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidCursorException(InvalidCursorException exception,
+                                                                         WebRequest webRequest) {
+        ErrorResponseDto errorResponseDto = new ErrorResponseDto(
+                webRequest.getDescription(false), HttpStatus.BAD_REQUEST,
+                exception.getMessage(), LocalDateTime.now());
+        return new ResponseEntity<>(errorResponseDto, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ResourceInUseException.class)
+    public ResponseEntity<ErrorResponseDto> handleResourceInUseException(ResourceInUseException exception,
+                                                                         WebRequest webRequest) {
+        ErrorResponseDto errorResponseDto = new ErrorResponseDto(
+                webRequest.getDescription(false), HttpStatus.CONFLICT,
+                exception.getMessage(), LocalDateTime.now());
+        return new ResponseEntity<>(errorResponseDto, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDto> handleGlobalException(Exception exception,
                                                                   WebRequest webRequest) {
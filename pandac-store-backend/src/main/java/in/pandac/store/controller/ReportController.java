@@ -0,0 +1,74 @@
+package in.pandac.store.controller;
+
+import in.pandac.store.dto.ProductSalesDto;
+import in.pandac.store.dto.ResponseDto;
+import in.pandac.store.dto.SalesBucketDto;
+import in.pandac.store.service.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Sales dashboards; from and to are inclusive ISO dates
+@RestController
+@RequestMapping("/api/v1/admin/reports/sales")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final SalesReportService salesReportService;
+
+    @GetMapping("/hourly")
+    public ResponseEntity<List<SalesBucketDto>> getHourlySales(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(salesReportService.getHourlySales(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/daily")
+    public ResponseEntity<List<SalesBucketDto>> getDailySales(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(salesReportService.getDailySales(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/products")
+    public ResponseEntity<List<ProductSalesDto>> getTopProducts(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(salesReportService.getTopProducts(from, to, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Rebuilds the rollups of a past range on demand, e.g. after a manual data fix
+    @PostMapping("/reconcile")
+    public ResponseEntity<ResponseDto> reconcile(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            salesReportService.reconcile(from, to);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(new ResponseDto("200", "Sales rollups from " + from + " to " + to
+                + " have been rebuilt."));
+    }
+}
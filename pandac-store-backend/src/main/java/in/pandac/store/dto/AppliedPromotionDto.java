@@ -0,0 +1,6 @@
+package in.pandac.store.dto;
+
+import java.math.BigDecimal;
+
+public record AppliedPromotionDto(Long ruleId, String name, BigDecimal discount) {
+}
@@ -0,0 +1,17 @@
+package in.pandac.store.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A priced cart. Pass {@code quoteToken} with the order to have it created at exactly these prices.
+ *
+ * @param discountCode the applied code, {@code null} if none was given or it is not valid
+ * @param promotions   the promotion rules that applied, in the order they were applied
+ * @param discount     promotions and discount code together
+ */
+public record CartQuoteDto(List<CartQuoteLineDto> lines, BigDecimal subtotal, String discountCode,
+                           List<AppliedPromotionDto> promotions, BigDecimal discount, BigDecimal total,
+                           String quoteToken, Instant expiresAt) {
+}
@@ -0,0 +1,4 @@
+package in.pandac.store.dto;
+
+public record CartQuoteItemDto(Long productId, Integer quantity) {
+}
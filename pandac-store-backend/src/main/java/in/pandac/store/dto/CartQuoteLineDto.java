@@ -0,0 +1,7 @@
+package in.pandac.store.dto;
+
+import java.math.BigDecimal;
+
+public record CartQuoteLineDto(Long productId, String productName, int quantity,
+                               BigDecimal unitPrice, BigDecimal lineTotal) {
+}
@@ -0,0 +1,9 @@
+package in.pandac.store.dto;
+
+import java.util.List;
+
+/**
+ * @param discountCode optional code to apply to the whole cart
+ */
+public record CartQuoteRequestDto(List<CartQuoteItemDto> items, String discountCode) {
+}
@@ -0,0 +1,27 @@
+package in.pandac.store.dto;
+
+import in.pandac.store.entity.DiscountRuleType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * @param code        code the customer has to enter, {@code null} for an automatic promotion
+ * @param percent     percentage off the scoped lines, for {@code PERCENTAGE}
+ * @param amount      amount off the scoped lines, for {@code FIXED}
+ * @param buyQuantity units to buy per free group, for {@code BUY_X_GET_Y}
+ * @param getQuantity units free per group, the cheapest scoped units, for {@code BUY_X_GET_Y}
+ * @param productIds  products the rule applies to, empty for the whole cart
+ * @param cartWide    whether the rule applies to the whole cart; derived from {@code productIds} when
+ *                    omitted. A scoped rule whose products were all deleted reports {@code false}
+ *                    with no products and applies to nothing
+ * @param priority    rules run in ascending priority, defaults to 0
+ * @param stackable   {@code false} if the rule only applies on its own, defaults to {@code true}
+ */
+public record DiscountRuleDto(Long ruleId, String name, String code, DiscountRuleType type,
+                              Integer percent, BigDecimal amount, Integer buyQuantity, Integer getQuantity,
+                              BigDecimal minCartValue, Set<Long> productIds, Integer priority,
+                              Boolean stackable, Boolean active, Instant startsAt, Instant endsAt,
+                              Boolean cartWide) {
+}
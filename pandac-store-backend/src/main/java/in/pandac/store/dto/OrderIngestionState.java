@@ -0,0 +1,5 @@
+package in.pandac.store.dto;
+
+public enum OrderIngestionState {
+    QUEUED, PERSISTED, FAILED
+}
@@ -0,0 +1,6 @@
+package in.pandac.store.dto;
+
+import java.util.List;
+
+public record OrderPageDto(List<OrderResponseDto> items, String nextCursor, boolean hasMore) {
+}
@@ -5,8 +5,14 @@ import in.pandac.store.entity.DiscountType;
 import java.math.BigDecimal;
 import java.util.List;
 
+/**
+ * @param reservationId stock reservation taken at checkout, optional
+ * @param quoteToken    signed cart quote from {@code POST /api/v1/discount/quote}, optional; when present
+ *                      the order is priced from the quote instead of the client's prices
+ */
 public record OrderRequestDto(BigDecimal totalPrice,
                               String paymentId, String paymentStatus,
                               BigDecimal discount, String discountCode,
-                              List<OrderItemDto> items) {
+                              List<OrderItemDto> items, String reservationId,
+                              String quoteToken) {
 }
@@ -0,0 +1,11 @@
+package in.pandac.store.dto;
+
+import java.util.List;
+
+/**
+ * @param orderIds       orders to move
+ * @param status         target status, CONFIRMED or CANCELLED
+ * @param expectedStatus status an order must still have to be moved; defaults to CREATED
+ */
+public record OrderStatusBulkRequestDto(List<Long> orderIds, String status, String expectedStatus) {
+}
@@ -0,0 +1,8 @@
+package in.pandac.store.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record OrderStatusBulkResultDto(int requested, int updated, Instant updatedAt,
+                                       List<OrderStatusResultDto> results) {
+}
@@ -0,0 +1,8 @@
+package in.pandac.store.dto;
+
+public enum OrderStatusOutcome {
+    UPDATED,
+    // the order exists but no longer has the expected status
+    CONFLICT,
+    NOT_FOUND
+}
@@ -0,0 +1,7 @@
+package in.pandac.store.dto;
+
+/**
+ * @param currentStatus the order status after the request, {@code null} if the order does not exist
+ */
+public record OrderStatusResultDto(Long orderId, OrderStatusOutcome outcome, String currentStatus) {
+}
@@ -0,0 +1,11 @@
+package in.pandac.store.dto;
+
+/**
+ * Acknowledgement and status of an order accepted by the ingestion queue.
+ *
+ * @param provisionalId id to poll the status with
+ * @param orderId       the real order id, once the order has been written
+ * @param message       failure reason for {@link OrderIngestionState#FAILED}
+ */
+public record OrderTicketDto(String provisionalId, OrderIngestionState state, Long orderId, String message) {
+}
@@ -0,0 +1,7 @@
+package in.pandac.store.dto;
+
+import java.util.List;
+
+public record ProductImportResultDto(long totalRows, long imported, long failed,
+                                     List<ProductImportErrorDto> errors) {
+}
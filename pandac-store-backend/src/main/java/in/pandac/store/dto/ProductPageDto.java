@@ -0,0 +1,6 @@
+package in.pandac.store.dto;
+
+import java.util.List;
+
+public record ProductPageDto(List<ProductDto> items, String nextCursor, boolean hasMore) {
+}
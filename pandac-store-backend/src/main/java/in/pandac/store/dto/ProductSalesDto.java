@@ -0,0 +1,6 @@
+package in.pandac.store.dto;
+
+import java.math.BigDecimal;
+
+public record ProductSalesDto(Long productId, String productName, long unitsSold, BigDecimal netRevenue) {
+}
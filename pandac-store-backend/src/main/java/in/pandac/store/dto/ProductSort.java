@@ -0,0 +1,9 @@
+package in.pandac.store.dto;
+
+/**
+ * Sort orders supported by the paginated product listing. Each order is a
+ * stable keyset on (sort column, product id) so pages never skip or repeat rows.
+ */
+public enum ProductSort {
+    POPULARITY, PRICE
+}
@@ -0,0 +1,8 @@
+package in.pandac.store.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record SalesBucketDto(LocalDateTime bucketStart, long ordersPlaced, long ordersCancelled,
+                             BigDecimal grossRevenue, BigDecimal netRevenue) {
+}
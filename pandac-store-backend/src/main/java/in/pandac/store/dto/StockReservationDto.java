@@ -0,0 +1,9 @@
+package in.pandac.store.dto;
+
+import java.time.Instant;
+
+/**
+ * @param reservationId {@code null} when none of the products is stock-tracked
+ */
+public record StockReservationDto(String reservationId, Instant expiresAt) {
+}
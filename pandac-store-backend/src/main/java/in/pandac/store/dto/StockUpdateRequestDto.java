@@ -0,0 +1,7 @@
+package in.pandac.store.dto;
+
+/**
+ * @param stock units on hand, {@code null} to stop tracking stock for the product
+ */
+public record StockUpdateRequestDto(Integer stock) {
+}
@@ -0,0 +1,41 @@
+package in.pandac.store.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A closed order moved out of {@code orders} by the archiver. Rows are written
+ * with INSERT ... SELECT only, so the mapping is read-only.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "orders_archive")
+public class ArchivedOrder {
+
+    @Id
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalPrice;
+
+    @Column(name = "order_status", nullable = false, length = 50)
+    private String orderStatus;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
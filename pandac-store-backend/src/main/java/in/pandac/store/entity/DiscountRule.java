@@ -0,0 +1,71 @@
+package in.pandac.store.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "discount_rules")
+public class DiscountRule extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rule_id", nullable = false)
+    private Long ruleId;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    // null for automatic promotions
+    @Column(name = "code")
+    private String code;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private DiscountRuleType type;
+
+    @Column(name = "percent")
+    private Integer percent;
+
+    @Column(name = "amount", precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "buy_quantity")
+    private Integer buyQuantity;
+
+    @Column(name = "get_quantity")
+    private Integer getQuantity;
+
+    @Column(name = "min_cart_value", precision = 10, scale = 2)
+    private BigDecimal minCartValue;
+
+    @Column(name = "priority", nullable = false)
+    private int priority;
+
+    @Column(name = "stackable", nullable = false)
+    private boolean stackable = true;
+
+    @Column(name = "active", nullable = false)
+    private boolean active = true;
+
+    @Column(name = "starts_at")
+    private Instant startsAt;
+
+    @Column(name = "ends_at")
+    private Instant endsAt;
+
+    // set for rules on the whole cart; otherwise only productIds count, even once they are all deleted
+    @Column(name = "cart_wide", nullable = false)
+    private boolean cartWide;
+
+    @ElementCollection
+    @CollectionTable(name = "discount_rule_products", joinColumns = @JoinColumn(name = "rule_id"))
+    @Column(name = "product_id")
+    private Set<Long> productIds = new HashSet<>();
+}
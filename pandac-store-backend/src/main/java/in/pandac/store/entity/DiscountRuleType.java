@@ -0,0 +1,5 @@
+package in.pandac.store.entity;
+
+public enum DiscountRuleType {
+    PERCENTAGE, FIXED, BUY_X_GET_Y
+}
@@ -15,8 +15,12 @@ import java.util.List;
 @Entity
 @Table(name = "orders")
 public class Order extends BaseEntity {
+    // Pooled table ids instead of IDENTITY so Hibernate can batch order inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_id_generator")
+    @TableGenerator(name = "order_id_generator", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "orders", allocationSize = 50)
     @Column(name = "order_id", nullable = false)
     private Long orderId;
 
@@ -53,4 +57,9 @@ public class Order extends BaseEntity {
     @Column(name = "order_status", nullable = false, length = 50)
     private String orderStatus;
 
+    // Bumped by every status transition; see OrderRepository.transitionOrderStatus
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 }
\ No newline at end of file
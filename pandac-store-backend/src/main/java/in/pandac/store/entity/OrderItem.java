@@ -12,8 +12,12 @@ import java.math.BigDecimal;
 @Entity
 @Table(name = "order_items")
 public class OrderItem extends BaseEntity {
+    // Pooled table ids instead of IDENTITY so Hibernate can batch order item inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_id_generator")
+    @TableGenerator(name = "order_item_id_generator", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "order_items", allocationSize = 50)
     @Column(name = "order_item_id", nullable = false)
     private Long orderItemId;
 
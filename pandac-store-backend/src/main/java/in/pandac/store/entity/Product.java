@@ -11,8 +11,12 @@ import java.math.BigDecimal;
 @Entity
 @Table(name = "PRODUCTS")
 public class Product extends BaseEntity {
+    // Pooled table ids instead of IDENTITY so Hibernate can batch product inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_id_generator")
+    @TableGenerator(name = "product_id_generator", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "products", allocationSize = 50)
     @Column(name = "PRODUCT_ID", nullable = false)
     private Long id;
 
@@ -31,4 +35,8 @@ public class Product extends BaseEntity {
     @Column(name = "IMAGE_URL", length = 500)
     private String imageUrl;
 
+    // Read-only here: the inventory ledger is the only writer, with relative UPDATEs
+    @Column(name = "STOCK", insertable = false, updatable = false)
+    private Integer stock;
+
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package in.pandac.store.event;
+
+import in.pandac.store.dto.DiscountDto;
+
+/**
+ * Published by the discount service after every discount mutation so that
+ * the in-memory discount table can be patched without a reload.
+ *
+ * @param type     what happened to the discount
+ * @param code     code of the affected discount
+ * @param discount the discount after the change, {@code null} for deletes
+ */
+public record DiscountChangedEvent(ChangeType type, String code, DiscountDto discount) {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static DiscountChangedEvent created(DiscountDto discount) {
+        return new DiscountChangedEvent(ChangeType.CREATED, discount.code(), discount);
+    }
+
+    public static DiscountChangedEvent updated(DiscountDto discount) {
+        return new DiscountChangedEvent(ChangeType.UPDATED, discount.code(), discount);
+    }
+
+    public static DiscountChangedEvent deleted(String code) {
+        return new DiscountChangedEvent(ChangeType.DELETED, code, null);
+    }
+}
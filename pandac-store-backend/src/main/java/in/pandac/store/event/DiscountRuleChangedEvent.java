@@ -0,0 +1,10 @@
+package in.pandac.store.event;
+
+/**
+ * Published by the discount rule service after every rule mutation so that
+ * the compiled rules are rebuilt once the change is committed.
+ *
+ * @param ruleId id of the created, updated or deleted rule
+ */
+public record DiscountRuleChangedEvent(Long ruleId) {
+}
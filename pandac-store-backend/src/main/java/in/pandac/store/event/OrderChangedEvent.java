@@ -0,0 +1,31 @@
+package in.pandac.store.event;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Published by the order service when an order is placed or its status
+ * changes, so that live views such as the admin order stream can react
+ * without polling.
+ *
+ * @param type        what happened to the order
+ * @param orderId     id of the affected order
+ * @param orderStatus the order status after the change
+ * @param totalPrice  order total, {@code null} for status changes
+ * @param occurredAt  when the change was made
+ */
+public record OrderChangedEvent(ChangeType type, Long orderId, String orderStatus,
+                                BigDecimal totalPrice, Instant occurredAt) {
+
+    public enum ChangeType {
+        CREATED, STATUS_CHANGED
+    }
+
+    public static OrderChangedEvent created(Long orderId, String orderStatus, BigDecimal totalPrice) {
+        return new OrderChangedEvent(ChangeType.CREATED, orderId, orderStatus, totalPrice, Instant.now());
+    }
+
+    public static OrderChangedEvent statusChanged(Long orderId, String orderStatus) {
+        return new OrderChangedEvent(ChangeType.STATUS_CHANGED, orderId, orderStatus, null, Instant.now());
+    }
+}
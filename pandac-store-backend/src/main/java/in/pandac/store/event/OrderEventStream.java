@@ -0,0 +1,176 @@
+package in.pandac.store.event;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans committed {@link OrderChangedEvent}s out to admin consoles as
+ * Server-Sent Events.
+ * <p>
+ * Every subscriber owns a queue drained by its own virtual thread, so a slow
+ * or stalled browser tab never holds up the committing thread or the other
+ * tabs, and an idle connection costs one parked virtual thread. The last
+ * {@value #REPLAY_CAPACITY} events are kept so a reconnecting client can
+ * resume from its {@code Last-Event-ID}. Event ids are
+ * {@code <instance>-<sequence>}; an id from another instance or one that has
+ * already left the replay buffer gets a {@code reset} event, telling the
+ * client to reload the order queue.
+ * <p>
+ * Subscriber queues hold at most {@value #REPLAY_CAPACITY} events. A client
+ * that falls that far behind is disconnected rather than buffered without
+ * bound; it reconnects with its {@code Last-Event-ID} and resumes from the
+ * replay buffer, or gets a {@code reset}.
+ */
+@Slf4j
+@Component
+public class OrderEventStream {
+
+    static final int REPLAY_CAPACITY = 1000;
+    // EventSource reconnects by itself when the stream times out, resuming via Last-Event-ID
+    private static final long STREAM_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long HEARTBEAT_SECONDS = 25;
+
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+    private final ArrayDeque<StreamedEvent> replay = new ArrayDeque<>(REPLAY_CAPACITY);
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private long sequence;
+
+    private record StreamedEvent(long sequence, String name, OrderChangedEvent payload) {
+    }
+
+    /**
+     * Opens a stream, first replaying what the client missed after {@code lastEventId}.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter);
+        // Replay and registration happen under the publish lock so no event falls in between
+        synchronized (replay) {
+            long resumeAfter = resumePoint(lastEventId);
+            if (resumeAfter < 0) {
+                subscriber.queue.add(new StreamedEvent(sequence, "reset", null));
+            } else {
+                replay.stream().filter(event -> event.sequence() > resumeAfter).forEach(subscriber.queue::add);
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.start();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        String name = "order-" + event.type().name().toLowerCase(Locale.ROOT).replace('_', '-');
+        synchronized (replay) {
+            StreamedEvent streamed = new StreamedEvent(++sequence, name, event);
+            if (replay.size() == REPLAY_CAPACITY) {
+                replay.removeFirst();
+            }
+            replay.addLast(streamed);
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.queue.offer(streamed)) {
+                    subscriber.overflow();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the sequence to resume after, or -1 when the client has to start over
+     */
+    private long resumePoint(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return sequence;
+        }
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(instanceId)) {
+            return -1;
+        }
+        try {
+            long lastSequence = Long.parseLong(lastEventId.substring(dash + 1));
+            long oldestReplayable = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence();
+            return lastSequence > sequence || lastSequence + 1 < oldestReplayable ? -1 : lastSequence;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        new ArrayList<>(subscribers).forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamedEvent> queue = new LinkedBlockingQueue<>(REPLAY_CAPACITY);
+        private volatile Thread worker;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void start() {
+            worker = Thread.ofVirtual().name("order-stream-" + instanceId).start(this);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    StreamedEvent event = queue.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                    if (event == null) {
+                        // keeps proxies from closing an idle connection
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        SseEmitter.SseEventBuilder message = SseEmitter.event()
+                                .id(instanceId + "-" + event.sequence())
+                                .name(event.name());
+                        emitter.send(event.payload() != null
+                                ? message.data(event.payload(), MediaType.APPLICATION_JSON)
+                                : message.data(""));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // client went away or the emitter already completed
+                log.debug("Order stream subscriber disconnected: {}", e.getMessage());
+                emitter.completeWithError(e);
+            } finally {
+                subscribers.remove(this);
+            }
+        }
+
+        // the client stopped keeping up; dropping events silently would leave its queue view wrong
+        void overflow() {
+            log.warn("Order stream subscriber fell {} events behind, disconnecting it", REPLAY_CAPACITY);
+            close();
+            emitter.complete();
+        }
+
+        void close() {
+            subscribers.remove(this);
+            Thread thread = worker;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+}
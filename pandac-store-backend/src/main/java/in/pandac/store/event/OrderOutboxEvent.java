@@ -0,0 +1,28 @@
+package in.pandac.store.event;
+
+import in.pandac.store.event.OrderChangedEvent.ChangeType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * An order domain event as stored in the outbox and delivered to
+ * {@link OrderOutboxListener}s. Unlike {@link OrderChangedEvent}, which feeds
+ * live views straight after commit, these are delivered at least once, in
+ * order per order id, by the {@link OrderOutboxRelay}.
+ *
+ * @param quantities units per product id for CREATED events, empty otherwise
+ */
+public record OrderOutboxEvent(ChangeType type, Long orderId, String orderStatus, BigDecimal totalPrice,
+                               Map<Long, Integer> quantities, Instant occurredAt) {
+
+    public static OrderOutboxEvent created(Long orderId, String orderStatus, BigDecimal totalPrice,
+                                           Map<Long, Integer> quantities) {
+        return new OrderOutboxEvent(ChangeType.CREATED, orderId, orderStatus, totalPrice, quantities, Instant.now());
+    }
+
+    public static OrderOutboxEvent statusChanged(Long orderId, String orderStatus) {
+        return new OrderOutboxEvent(ChangeType.STATUS_CHANGED, orderId, orderStatus, null, Map.of(), Instant.now());
+    }
+}
@@ -0,0 +1,13 @@
+package in.pandac.store.event;
+
+/**
+ * Downstream reaction to order events, called by the {@link OrderOutboxRelay}
+ * inside its batch transaction, in a savepoint per event. Database writes made
+ * through that transaction are rolled back with the savepoint when any listener
+ * throws, so they apply exactly once; anything outside the database is still
+ * delivered at least once and must tolerate seeing the same event twice.
+ */
+public interface OrderOutboxListener {
+
+    void onOrderEvent(OrderOutboxEvent event);
+}
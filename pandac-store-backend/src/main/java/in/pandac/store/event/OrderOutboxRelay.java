@@ -0,0 +1,134 @@
+package in.pandac.store.event;
+
+import in.pandac.store.repository.OrderOutboxRepository;
+import in.pandac.store.repository.OrderOutboxRepository.OutboxRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drains the order outbox into the {@link OrderOutboxListener}s, off the
+ * request path. Each batch is one transaction: claim up to {@code batchSize}
+ * due rows with FOR UPDATE SKIP LOCKED, dispatch them in id order, delete the
+ * delivered ones. Every event's listeners run in a savepoint, so a failing
+ * listener also undoes what the others wrote for that event, and a delivered
+ * event's writes commit together with the deletion of its row: within this
+ * database each event takes effect exactly once.
+ * <p>
+ * Ordering per order survives several replicas: an order whose oldest pending
+ * event is held by someone else (another replica, or a retry waiting for its
+ * backoff) is skipped for the whole batch, and a failed event holds back the
+ * later events of its order until it is delivered or given up on.
+ */
+@Slf4j
+@Component
+public class OrderOutboxRelay {
+
+    private static final int MAX_ATTEMPTS = 10;
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final OrderOutboxRepository outboxRepository;
+    private final List<OrderOutboxListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate savepointTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+
+    public OrderOutboxRelay(OrderOutboxRepository outboxRepository, List<OrderOutboxListener> listeners,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.max-batches-per-poll:20}") int maxBatchesPerPoll) {
+        this.outboxRepository = outboxRepository;
+        this.listeners = listeners;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void poll() {
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            int claimed = transactionTemplate.execute(tx -> relayBatch());
+            if (claimed < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxRow> rows = outboxRepository.claim(batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Set<Long> halted = heldElsewhere(rows);
+        List<Long> delivered = new ArrayList<>(rows.size());
+        for (OutboxRow row : rows) {
+            if (halted.contains(row.aggregateId())) {
+                continue;
+            }
+            try {
+                OrderOutboxEvent event = outboxRepository.readPayload(row);
+                savepointTemplate.executeWithoutResult(savepoint -> {
+                    for (OrderOutboxListener listener : listeners) {
+                        listener.onOrderEvent(event);
+                    }
+                });
+                delivered.add(row.id());
+            } catch (RuntimeException e) {
+                halted.add(row.aggregateId());
+                retryLater(row, e);
+            }
+        }
+        outboxRepository.delete(delivered);
+        return rows.size();
+    }
+
+    private Set<Long> heldElsewhere(List<OutboxRow> rows) {
+        Map<Long, Long> firstClaimed = new HashMap<>();
+        List<Long> claimedIds = new ArrayList<>(rows.size());
+        for (OutboxRow row : rows) {
+            firstClaimed.putIfAbsent(row.aggregateId(), row.id());
+            claimedIds.add(row.id());
+        }
+        Set<Long> halted = new HashSet<>();
+        outboxRepository.findOldestUnclaimed(firstClaimed.keySet(), claimedIds).forEach((aggregateId, oldestId) -> {
+            if (oldestId < firstClaimed.get(aggregateId)) {
+                halted.add(aggregateId);
+            }
+        });
+        return halted;
+    }
+
+    private void retryLater(OutboxRow row, RuntimeException e) {
+        int attempts = row.attempts() + 1;
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+        if (attempts >= MAX_ATTEMPTS) {
+            log.error("Giving up on outbox event {} of order {} after {} attempts", row.id(), row.aggregateId(),
+                    attempts, e);
+            outboxRepository.markFailed(row.id(), attempts, "FAILED", error, Duration.ZERO);
+            return;
+        }
+        Duration backoff = Duration.ofSeconds(1L << Math.min(attempts, 16));
+        log.warn("Outbox event {} of order {} failed (attempt {}), retrying in {}", row.id(), row.aggregateId(),
+                attempts, backoff, e);
+        outboxRepository.markFailed(row.id(), attempts, "PENDING", error,
+                backoff.compareTo(MAX_BACKOFF) < 0 ? backoff : MAX_BACKOFF);
+    }
+}
@@ -0,0 +1,36 @@
+package in.pandac.store.event;
+
+import in.pandac.store.dto.ProductDto;
+
+/**
+ * Published by the product service after every catalog mutation so that
+ * in-memory views of the catalog can be patched instead of rebuilt.
+ *
+ * @param type      what happened to the product
+ * @param productId id of the affected product, {@code null} for reloads
+ * @param product   the product state after the change, {@code null} for deletes and reloads
+ */
+public record ProductChangedEvent(ChangeType type, Long productId, ProductDto product) {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED,
+        // many products changed at once (bulk import); views should rebuild from the database
+        RELOADED
+    }
+
+    public static ProductChangedEvent created(ProductDto product) {
+        return new ProductChangedEvent(ChangeType.CREATED, product.getProductId(), product);
+    }
+
+    public static ProductChangedEvent updated(ProductDto product) {
+        return new ProductChangedEvent(ChangeType.UPDATED, product.getProductId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(ChangeType.DELETED, productId, null);
+    }
+
+    public static ProductChangedEvent reloaded() {
+        return new ProductChangedEvent(ChangeType.RELOADED, null, null);
+    }
+}
@@ -0,0 +1,31 @@
+package in.pandac.store.event;
+
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.event.OrderChangedEvent.ChangeType;
+import in.pandac.store.repository.SalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the sales rollups current from the order outbox. The upserts on the
+ * shared hourly and daily rows run in the relay's transaction after the order
+ * has committed, so checkouts and cancellations never wait on each other for
+ * a rollup row.
+ */
+@Component
+@RequiredArgsConstructor
+public class SalesRollupUpdater implements OrderOutboxListener {
+
+    private final SalesRollupRepository salesRollupRepository;
+
+    @Override
+    public void onOrderEvent(OrderOutboxEvent event) {
+        if (event.type() == ChangeType.CREATED) {
+            salesRollupRepository.addPlacedOrders(List.of(event.orderId()));
+        } else if (ApplicationConstants.ORDER_STATUS_CANCELLED.equals(event.orderStatus())) {
+            salesRollupRepository.addCancelledOrders(List.of(event.orderId()));
+        }
+    }
+}
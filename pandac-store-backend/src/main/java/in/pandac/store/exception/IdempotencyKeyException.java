@@ -0,0 +1,19 @@
+package in.pandac.store.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * An {@code Idempotency-Key} could not be honoured: it was reused for a
+ * different request, or the first request with it is still running.
+ */
+@Getter
+public class IdempotencyKeyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyKeyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
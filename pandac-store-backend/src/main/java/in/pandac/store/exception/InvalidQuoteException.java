@@ -0,0 +1,12 @@
+package in.pandac.store.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidQuoteException extends RuntimeException {
+
+    public InvalidQuoteException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package in.pandac.store.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS)
+public class OrderQueueFullException extends RuntimeException {
+
+    public OrderQueueFullException() {
+        super("Too many orders are waiting to be processed, please retry shortly");
+    }
+}
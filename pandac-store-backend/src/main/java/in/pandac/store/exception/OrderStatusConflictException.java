@@ -0,0 +1,27 @@
+package in.pandac.store.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A status change lost against the order's current state: the transition is not
+ * allowed from it, or the order changed since the caller read it.
+ */
+@Getter
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class OrderStatusConflictException extends RuntimeException {
+
+    private final Long orderId;
+    private final String currentStatus;
+    private final Long currentVersion;
+
+    public OrderStatusConflictException(Long orderId, String requestedStatus, String currentStatus,
+                                        Long currentVersion) {
+        super(String.format("Order #%s cannot move to %s: it is %s at version %s",
+                orderId, requestedStatus, currentStatus, currentVersion));
+        this.orderId = orderId;
+        this.currentStatus = currentStatus;
+        this.currentVersion = currentVersion;
+    }
+}
@@ -0,0 +1,12 @@
+package in.pandac.store.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ReservationLimitException extends RuntimeException {
+
+    public ReservationLimitException(int maxUnits) {
+        super(String.format("A customer can hold at most %d units at a time", maxUnits));
+    }
+}
@@ -0,0 +1,14 @@
+package in.pandac.store.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ResourceInUseException extends RuntimeException {
+
+    public ResourceInUseException(String resourceName, String fieldName, String fieldValue) {
+        super(String.format("%s with the given input data %s : '%s' is still referenced by orders",
+                resourceName, fieldName, fieldValue));
+    }
+
+}
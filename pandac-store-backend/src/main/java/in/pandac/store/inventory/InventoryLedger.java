@@ -0,0 +1,416 @@
+package in.pandac.store.inventory;
+
+import in.pandac.store.event.ProductChangedEvent;
+import in.pandac.store.exception.InsufficientStockException;
+import in.pandac.store.exception.ReservationLimitException;
+import in.pandac.store.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory stock ledger. Buyers of the same product never wait on a row lock:
+ * a reservation is a compare-and-set on the product's available counter, and
+ * sold units are collected in a {@link LongAdder} that a background flush
+ * writes to {@code products.stock} as one JDBC batch of relative UPDATEs.
+ * <p>
+ * Per product: {@code available = stock in DB - sold but not yet flushed - held}.
+ * Reservations that are neither confirmed nor released within their TTL give
+ * their units back, so abandoned checkouts do not lock stock away. A reservation
+ * belongs to the customer who took it, and one customer can only hold a
+ * limited number of units at a time.
+ * <p>
+ * The ledger assumes it is the only writer of {@code products.stock}, i.e. a
+ * single application instance.
+ */
+@Slf4j
+@Component
+public class InventoryLedger {
+
+    private static final long UNTRACKED = Long.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTransaction;
+    private final Duration reservationTtl;
+    private final int maxHeldPerCustomer;
+    private final ConcurrentHashMap<Long, SkuState> skus = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Reservation> reservations = new ConcurrentHashMap<>();
+    // units held by the open reservations of each customer
+    private final ConcurrentHashMap<Long, Integer> heldByCustomer = new ConcurrentHashMap<>();
+
+    // one per product for the ledger's lifetime, so a reservation never decrements a stale copy
+    private static final class SkuState {
+        final AtomicLong available;
+        final LongAdder unflushed = new LongAdder();
+        // last stock value written to the database; only written under the ledger lock
+        volatile long databaseStock;
+
+        SkuState(long databaseStock) {
+            this.databaseStock = databaseStock;
+            this.available = new AtomicLong(databaseStock);
+        }
+
+        boolean tracked() {
+            return databaseStock != UNTRACKED;
+        }
+    }
+
+    public InventoryLedger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           @Value("${app.inventory.reservation-ttl:PT15M}") Duration reservationTtl,
+                           @Value("${app.inventory.max-held-per-customer:50}") int maxHeldPerCustomer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reservationTtl = reservationTtl;
+        this.maxHeldPerCustomer = maxHeldPerCustomer;
+    }
+
+    /**
+     * Holds stock for every stock-tracked product in {@code quantities}, all or nothing.
+     *
+     * @param customerId the customer the reservation belongs to
+     * @return the reservation, or {@code null} when none of the products is stock-tracked
+     * @throws InsufficientStockException naming the first product that is short
+     * @throws ReservationLimitException  if the customer would hold more units than allowed
+     */
+    public Reservation reserve(Long customerId, Map<Long, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for product " + productId);
+            }
+        });
+        Map<Long, Integer> held = hold(quantities);
+        if (held.isEmpty()) {
+            return null;
+        }
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), customerId, Map.copyOf(held),
+                Instant.now().plus(reservationTtl));
+        try {
+            claimAllowance(reservation);
+        } catch (RuntimeException e) {
+            giveBack(held);
+            throw e;
+        }
+        reservations.put(reservation.id(), reservation);
+        return reservation;
+    }
+
+    /**
+     * Takes over an earlier checkout reservation of the same customer if it still
+     * holds exactly these quantities, refreshing its TTL; otherwise releases it and
+     * reserves anew. Another customer's reservation id is ignored.
+     */
+    public Reservation reserveOrRenew(Long customerId, String reservationId, Map<Long, Integer> quantities) {
+        if (reservationId != null) {
+            Reservation existing = reservations.get(reservationId);
+            if (existing != null && existing.customerId().equals(customerId)) {
+                Reservation renewed = existing.withExpiry(Instant.now().plus(reservationTtl));
+                if (existing.quantities().equals(trackedOnly(quantities))
+                        && reservations.replace(reservationId, existing, renewed)) {
+                    return renewed;
+                }
+                release(existing);
+            }
+        }
+        return reserve(customerId, quantities);
+    }
+
+    /**
+     * Confirms {@code reservation} when the current transaction commits and
+     * releases it when it rolls back.
+     *
+     * @see #confirmOnCommit(Reservation)
+     */
+    public void settleWithTransaction(Reservation reservation) {
+        if (reservation == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            confirm(reservation);
+            return;
+        }
+        confirmOnCommit(reservation);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(reservation);
+                }
+            }
+        });
+    }
+
+    /**
+     * Confirms {@code reservation} with the current transaction. Its units are
+     * taken just before the commit, so a reservation that expired in the meantime
+     * and can no longer be covered fails the transaction with
+     * {@link InsufficientStockException} instead of overselling. On rollback the
+     * reservation is held again, for the caller to retry or release.
+     */
+    public void confirmOnCommit(Reservation reservation) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean taken;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                take(reservation);
+                taken = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!taken) {
+                    return;
+                }
+                if (status == STATUS_COMMITTED) {
+                    sell(reservation);
+                } else {
+                    restore(reservation);
+                }
+            }
+        });
+    }
+
+    /**
+     * Turns held units into sold units, to be written by the next flush.
+     *
+     * @throws InsufficientStockException if the reservation expired and its units are gone
+     */
+    public void confirm(Reservation reservation) {
+        take(reservation);
+        sell(reservation);
+    }
+
+    public void release(Reservation reservation) {
+        if (reservations.remove(reservation.id(), reservation)) {
+            returnAllowance(reservation);
+            giveBack(reservation.quantities());
+        }
+    }
+
+    /**
+     * Releases a reservation of {@code customerId}.
+     *
+     * @return {@code false} if there is no such reservation, or it belongs to another customer
+     */
+    public boolean release(Long customerId, String reservationId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null || !reservation.customerId().equals(customerId)) {
+            return false;
+        }
+        release(reservation);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.expiry-interval-ms:5000}")
+    public void expireReservations() {
+        Instant now = Instant.now();
+        reservations.values().stream()
+                .filter(reservation -> reservation.expiresAt().isBefore(now))
+                .forEach(this::release);
+    }
+
+    /**
+     * Writes all sold units to the database as one batch of
+     * {@code stock = stock - ?} updates, in its own transaction so a failed
+     * batch leaves no row written and every amount can be retried.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.flush-interval-ms:200}")
+    public synchronized void flush() {
+        List<Long> productIds = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        skus.forEach((productId, sku) -> {
+            if (!sku.tracked()) {
+                return;
+            }
+            long sold = sku.unflushed.sumThenReset();
+            if (sold > 0) {
+                productIds.add(productId);
+                updates.add(new Object[]{sold, productId});
+            }
+        });
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            flushTransaction.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(
+                    "UPDATE products SET stock = stock - ? WHERE product_id = ? AND stock IS NOT NULL", updates));
+            for (int i = 0; i < productIds.size(); i++) {
+                SkuState sku = skus.get(productIds.get(i));
+                if (sku != null) {
+                    sku.databaseStock -= (long) updates.get(i)[0];
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Stock flush of {} products failed, will retry", updates.size(), e);
+            for (int i = 0; i < productIds.size(); i++) {
+                SkuState sku = skus.get(productIds.get(i));
+                if (sku != null) {
+                    sku.unflushed.add((long) updates.get(i)[0]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the stock of a product, or stops tracking it when {@code stock} is {@code null}.
+     * Sold units not yet flushed are written first so the new figure is not reduced by them again.
+     * The product's counters are adjusted in place, so reservations taken concurrently keep their units.
+     *
+     * @throws ResourceNotFoundException if the product does not exist
+     */
+    public synchronized void setStock(Long productId, Integer stock) {
+        flush();
+        if (jdbcTemplate.update("UPDATE products SET stock = ? WHERE product_id = ?", stock, productId) == 0) {
+            throw new ResourceNotFoundException("Product", "ProductID", String.valueOf(productId));
+        }
+        skus.compute(productId, (id, sku) -> {
+            if (sku == null) {
+                return new SkuState(stock == null ? UNTRACKED : stock);
+            }
+            if (stock == null) {
+                sku.databaseStock = UNTRACKED;
+                sku.unflushed.reset();
+                return sku;
+            }
+            if (sku.tracked()) {
+                // units held, or sold since the flush above, stay taken: only the difference moves
+                sku.available.addAndGet(stock - sku.databaseStock);
+            } else {
+                long held = reservations.values().stream()
+                        .mapToLong(reservation -> reservation.quantities().getOrDefault(id, 0))
+                        .sum();
+                sku.unflushed.reset();
+                sku.available.set(stock - held);
+            }
+            sku.databaseStock = stock;
+            return sku;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.ChangeType.DELETED) {
+            skus.remove(event.productId());
+        }
+    }
+
+    private SkuState sku(Long productId) {
+        return skus.computeIfAbsent(productId, id -> {
+            List<Integer> stock = jdbcTemplate.query("SELECT stock FROM products WHERE product_id = ?",
+                    (rs, row) -> (Integer) rs.getObject(1), id);
+            return new SkuState(stock.isEmpty() || stock.get(0) == null ? UNTRACKED : stock.get(0));
+        });
+    }
+
+    /**
+     * Takes the units of every stock-tracked product with a compare-and-set on
+     * its available counter, all or nothing.
+     *
+     * @return the units taken per product
+     */
+    private Map<Long, Integer> hold(Map<Long, Integer> quantities) {
+        Map<Long, Integer> held = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                SkuState sku = sku(line.getKey());
+                if (!sku.tracked()) {
+                    continue;
+                }
+                int quantity = line.getValue();
+                long current;
+                do {
+                    current = sku.available.get();
+                    if (current < quantity) {
+                        throw new InsufficientStockException(line.getKey());
+                    }
+                } while (!sku.available.compareAndSet(current, current - quantity));
+                held.put(line.getKey(), quantity);
+            }
+        } catch (RuntimeException e) {
+            giveBack(held);
+            throw e;
+        }
+        return held;
+    }
+
+    // takes the reservation out of the expiry sweep; if it already expired its units went back, so hold them again
+    private void take(Reservation reservation) {
+        if (reservations.remove(reservation.id(), reservation)) {
+            returnAllowance(reservation);
+        } else {
+            hold(reservation.quantities());
+        }
+    }
+
+    private void sell(Reservation reservation) {
+        reservation.quantities().forEach((productId, quantity) -> {
+            SkuState sku = sku(productId);
+            // skipped if tracking was switched off in the meantime
+            if (sku.tracked()) {
+                sku.unflushed.add(quantity);
+            }
+        });
+    }
+
+    // a transaction that took the reservation rolled back: the units are still taken, hold them as before
+    private void restore(Reservation reservation) {
+        heldByCustomer.merge(reservation.customerId(), reservation.units(), Integer::sum);
+        reservations.put(reservation.id(), reservation);
+    }
+
+    private void claimAllowance(Reservation reservation) {
+        heldByCustomer.compute(reservation.customerId(), (customerId, held) -> {
+            int total = (held == null ? 0 : held) + reservation.units();
+            if (total > maxHeldPerCustomer) {
+                throw new ReservationLimitException(maxHeldPerCustomer);
+            }
+            return total;
+        });
+    }
+
+    private void returnAllowance(Reservation reservation) {
+        heldByCustomer.computeIfPresent(reservation.customerId(), (customerId, held) -> {
+            int remaining = held - reservation.units();
+            return remaining > 0 ? remaining : null;
+        });
+    }
+
+    private Map<Long, Integer> trackedOnly(Map<Long, Integer> quantities) {
+        Map<Long, Integer> tracked = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (sku(productId).tracked()) {
+                tracked.put(productId, quantity);
+            }
+        });
+        return tracked;
+    }
+
+    private void giveBack(Map<Long, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            SkuState sku = skus.get(productId);
+            if (sku != null) {
+                sku.available.addAndGet(quantity);
+            }
+        });
+    }
+}
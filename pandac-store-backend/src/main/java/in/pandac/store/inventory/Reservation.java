@@ -0,0 +1,22 @@
+package in.pandac.store.inventory;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Stock held for one checkout until it is confirmed by an order, released,
+ * or it expires.
+ *
+ * @param customerId the customer who took the reservation; only they can use or release it
+ * @param quantities units held per product id; only stock-tracked products appear
+ */
+public record Reservation(String id, Long customerId, Map<Long, Integer> quantities, Instant expiresAt) {
+
+    Reservation withExpiry(Instant newExpiry) {
+        return new Reservation(id, customerId, quantities, newExpiry);
+    }
+
+    int units() {
+        return quantities.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,12 @@
+package in.pandac.store.mapper;
+
+import in.pandac.store.dto.ContactRequestDto;
+import in.pandac.store.entity.Contact;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MapperConfiguration.class)
+public interface ContactMapper {
+
+    // Status is set by the service
+    Contact toEntity(ContactRequestDto contactRequestDto);
+}
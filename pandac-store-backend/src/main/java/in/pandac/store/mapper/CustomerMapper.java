@@ -0,0 +1,50 @@
+package in.pandac.store.mapper;
+
+import in.pandac.store.dto.AddressDto;
+import in.pandac.store.dto.CreateCustomerRequestDto;
+import in.pandac.store.dto.CustomerDto;
+import in.pandac.store.dto.ProfileRequestDto;
+import in.pandac.store.dto.ProfileResponseDto;
+import in.pandac.store.dto.RegisterRequestDto;
+import in.pandac.store.dto.UserDto;
+import in.pandac.store.entity.Address;
+import in.pandac.store.entity.Customer;
+import in.pandac.store.entity.Role;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Mapper(config = MapperConfiguration.class)
+public interface CustomerMapper {
+
+    // Only role names are exposed, never the Role entities themselves
+    @Mapping(target = "roleNames", source = "roles")
+    CustomerDto toDto(Customer customer);
+
+    AddressDto toDto(Address address);
+
+    @Mapping(target = "emailUpdated", ignore = true)
+    ProfileResponseDto toProfileResponseDto(Customer customer);
+
+    // Roles are filled in from the authentication; userId is not part of the login payload
+    @Mapping(target = "userId", ignore = true)
+    @Mapping(target = "roles", ignore = true)
+    UserDto toUserDto(Customer customer);
+
+    // Password hash, roles and address are set by the caller
+    Customer toEntity(CreateCustomerRequestDto createCustomerRequestDto);
+
+    Customer toEntity(RegisterRequestDto registerRequestDto);
+
+    void updateFromProfile(ProfileRequestDto profileRequestDto, @MappingTarget Customer customer);
+
+    default Set<String> toRoleNames(Set<Role> roles) {
+        if (roles == null) {
+            return null;
+        }
+        return roles.stream().map(Role::getName).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,15 @@
+package in.pandac.store.mapper;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Shared settings for the MapStruct mappers. Implementations are generated at
+ * compile time as plain getter/setter code and registered as Spring beans.
+ * Audit columns and ids are owned by JPA, so unmapped targets are not reported.
+ */
+@MapperConfig(componentModel = MappingConstants.ComponentModel.SPRING,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface MapperConfiguration {
+}
@@ -0,0 +1,12 @@
+package in.pandac.store.mapper;
+
+import in.pandac.store.dto.OrderRequestDto;
+import in.pandac.store.entity.Order;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MapperConfiguration.class)
+public interface OrderMapper {
+
+    // Customer, items and status are set by the service
+    Order toEntity(OrderRequestDto orderRequestDto);
+}
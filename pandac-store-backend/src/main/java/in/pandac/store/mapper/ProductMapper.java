@@ -0,0 +1,20 @@
+package in.pandac.store.mapper;
+
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.entity.Product;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+@Mapper(config = MapperConfiguration.class)
+public interface ProductMapper {
+
+    @Mapping(target = "productId", source = "id")
+    ProductDto toDto(Product product);
+
+    @Mapping(target = "createdAt", ignore = true)
+    Product toEntity(ProductDto productDto);
+
+    @Mapping(target = "createdAt", ignore = true)
+    void updateEntity(ProductDto productDto, @MappingTarget Product product);
+}
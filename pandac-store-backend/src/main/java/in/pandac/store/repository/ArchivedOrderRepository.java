@@ -0,0 +1,75 @@
+package in.pandac.store.repository;
+
+import in.pandac.store.entity.ArchivedOrder;
+import in.pandac.store.repository.projection.OrderItemView;
+import in.pandac.store.repository.projection.OrderSummaryView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+  /*
+   * Archived history, read with the same keyset and projections as the live
+   * order history (see OrderRepository).
+   */
+  @Query("SELECT new in.pandac.store.repository.projection.OrderSummaryView("
+          + "o.orderId, o.orderStatus, o.totalPrice, o.createdAt) "
+          + "FROM ArchivedOrder o WHERE o.customerId = :customerId ORDER BY o.createdAt DESC, o.orderId DESC")
+  List<OrderSummaryView> findCustomerOrderPage(@Param("customerId") Long customerId, Limit limit);
+
+  @Query("SELECT new in.pandac.store.repository.projection.OrderSummaryView("
+          + "o.orderId, o.orderStatus, o.totalPrice, o.createdAt) "
+          + "FROM ArchivedOrder o WHERE o.customerId = :customerId "
+          + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.orderId < :orderId)) "
+          + "ORDER BY o.createdAt DESC, o.orderId DESC")
+  List<OrderSummaryView> findCustomerOrderPageAfter(@Param("customerId") Long customerId,
+          @Param("createdAt") Instant createdAt, @Param("orderId") Long orderId, Limit limit);
+
+  @Query("SELECT new in.pandac.store.repository.projection.OrderItemView("
+          + "i.orderId, p.name, i.quantity, i.price, p.imageUrl) "
+          + "FROM ArchivedOrderItem i LEFT JOIN Product p ON p.id = i.productId "
+          + "WHERE i.orderId IN :orderIds ORDER BY i.orderItemId")
+  List<OrderItemView> findOrderItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+  /*
+   * Archival moves one chunk per transaction: lock the oldest closed orders of
+   * one status along idx_orders_status_created, copy them and their items with
+   * INSERT ... SELECT, then delete the originals. SKIP LOCKED leaves orders that
+   * are being changed right now to a later run instead of waiting on them.
+   */
+  @Query(value = "SELECT order_id FROM orders WHERE order_status = :orderStatus AND created_at < :cutoff "
+          + "ORDER BY created_at, order_id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+  List<Long> lockArchivableOrderIds(@Param("orderStatus") String orderStatus, @Param("cutoff") Instant cutoff,
+          @Param("batchSize") int batchSize);
+
+  @Modifying
+  @Query(value = "INSERT INTO orders_archive (order_id, customer_id, total_price, discount, discount_code, "
+          + "payment_id, payment_status, order_status, version, created_at, created_by, updated_at, updated_by, "
+          + "archived_at) "
+          + "SELECT order_id, customer_id, total_price, discount, discount_code, payment_id, payment_status, "
+          + "order_status, version, created_at, created_by, updated_at, updated_by, :archivedAt "
+          + "FROM orders WHERE order_id IN (:orderIds)", nativeQuery = true)
+  int copyOrders(@Param("orderIds") Collection<Long> orderIds, @Param("archivedAt") Instant archivedAt);
+
+  @Modifying
+  @Query(value = "INSERT INTO order_items_archive (order_item_id, order_id, product_id, quantity, price, "
+          + "created_at, created_by, updated_at, updated_by) "
+          + "SELECT order_item_id, order_id, product_id, quantity, price, created_at, created_by, "
+          + "updated_at, updated_by FROM order_items WHERE order_id IN (:orderIds)", nativeQuery = true)
+  int copyOrderItems(@Param("orderIds") Collection<Long> orderIds);
+
+  @Modifying
+  @Query(value = "DELETE FROM order_items WHERE order_id IN (:orderIds)", nativeQuery = true)
+  int deleteOrderItems(@Param("orderIds") Collection<Long> orderIds);
+
+  @Modifying
+  @Query(value = "DELETE FROM orders WHERE order_id IN (:orderIds)", nativeQuery = true)
+  int deleteOrders(@Param("orderIds") Collection<Long> orderIds);
+}
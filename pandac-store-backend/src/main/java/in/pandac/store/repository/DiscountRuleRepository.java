@@ -0,0 +1,19 @@
+package in.pandac.store.repository;
+
+import in.pandac.store.entity.DiscountRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DiscountRuleRepository extends JpaRepository<DiscountRule, Long> {
+
+    // product scopes are fetched in the same query, the rule engine reads all of them
+    @Query("SELECT DISTINCT r FROM DiscountRule r LEFT JOIN FETCH r.productIds ORDER BY r.ruleId")
+    List<DiscountRule> findAllWithProducts();
+
+    @Query("SELECT DISTINCT r FROM DiscountRule r LEFT JOIN FETCH r.productIds WHERE r.active = true")
+    List<DiscountRule> findActiveWithProducts();
+}
@@ -0,0 +1,47 @@
+package in.pandac.store.repository;
+
+import in.pandac.store.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+  /**
+   * Claims a key for the calling request.
+   *
+   * @return 1 if the claim was inserted, 0 if the key already exists
+   */
+  @Modifying
+  @Query(value = "INSERT IGNORE INTO idempotency_keys (record_key, request_hash, status, created_at) "
+          + "VALUES (:recordKey, :requestHash, 'PENDING', CURRENT_TIMESTAMP)", nativeQuery = true)
+  int claim(@Param("recordKey") String recordKey, @Param("requestHash") String requestHash);
+
+  /**
+   * Takes over a PENDING claim whose lease ran out: its owner died or could
+   * not record its outcome.
+   *
+   * @return 1 if the claim now belongs to the caller, 0 if it is completed or still leased
+   */
+  @Modifying
+  @Query(value = "UPDATE idempotency_keys SET request_hash = :requestHash, created_at = CURRENT_TIMESTAMP "
+          + "WHERE record_key = :recordKey AND status = 'PENDING' AND created_at < :leaseExpiredBefore",
+          nativeQuery = true)
+  int takeOver(@Param("recordKey") String recordKey, @Param("requestHash") String requestHash,
+          @Param("leaseExpiredBefore") Instant leaseExpiredBefore);
+
+  @Modifying
+  @Query(value = "UPDATE idempotency_keys SET status = 'COMPLETED', response_body = :responseBody "
+          + "WHERE record_key = :recordKey", nativeQuery = true)
+  int complete(@Param("recordKey") String recordKey, @Param("responseBody") String responseBody);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :completedBefore "
+          + "OR (r.status = 'PENDING' AND r.createdAt < :pendingBefore)")
+  int purge(@Param("completedBefore") Instant completedBefore, @Param("pendingBefore") Instant pendingBefore);
+}
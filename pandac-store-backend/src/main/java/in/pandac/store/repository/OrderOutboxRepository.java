@@ -0,0 +1,102 @@
+package in.pandac.store.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.pandac.store.event.OrderOutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The order_outbox table (V13). Appends must run inside the transaction that
+ * changes the orders; the relay claims rows with FOR UPDATE SKIP LOCKED so
+ * several replicas can drain the table side by side.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderOutboxRepository {
+
+    public record OutboxRow(long id, long aggregateId, String payload, int attempts) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void append(List<OrderOutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = events.stream().map(event -> new MapSqlParameterSource()
+                .addValue("aggregateId", event.orderId())
+                .addValue("eventType", event.type().name())
+                .addValue("payload", toJson(event))).toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO order_outbox (aggregate_id, event_type, payload) "
+                + "VALUES (:aggregateId, :eventType, :payload)", batch);
+    }
+
+    // database time throughout, so replicas with skewed clocks agree on what is due
+    public List<OutboxRow> claim(int batchSize) {
+        return jdbcTemplate.query("SELECT id, aggregate_id, payload, attempts FROM order_outbox "
+                        + "WHERE status = 'PENDING' AND available_at <= CURRENT_TIMESTAMP(3) ORDER BY id "
+                        + "LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+                Map.of("batchSize", batchSize),
+                (rs, rowNum) -> new OutboxRow(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getInt(4)));
+    }
+
+    /**
+     * @return per aggregate, the oldest pending row outside {@code claimedIds}:
+     * rows held by another replica or waiting for a retry
+     */
+    public Map<Long, Long> findOldestUnclaimed(Collection<Long> aggregateIds, Collection<Long> claimedIds) {
+        Map<Long, Long> oldest = new HashMap<>();
+        jdbcTemplate.query("SELECT aggregate_id, MIN(id) FROM order_outbox WHERE status = 'PENDING' "
+                        + "AND aggregate_id IN (:aggregateIds) AND id NOT IN (:claimedIds) GROUP BY aggregate_id",
+                Map.of("aggregateIds", aggregateIds, "claimedIds", claimedIds),
+                rs -> {
+                    oldest.put(rs.getLong(1), rs.getLong(2));
+                });
+        return oldest;
+    }
+
+    public void delete(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM order_outbox WHERE id IN (:ids)", Map.of("ids", ids));
+        }
+    }
+
+    public void markFailed(long id, int attempts, String status, String error, Duration retryAfter) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("attempts", attempts)
+                .addValue("status", status)
+                .addValue("error", error)
+                .addValue("retryAfterMillis", retryAfter.toMillis());
+        jdbcTemplate.update("UPDATE order_outbox SET attempts = :attempts, status = :status, last_error = :error, "
+                + "available_at = TIMESTAMPADD(MICROSECOND, :retryAfterMillis * 1000, CURRENT_TIMESTAMP(3)) "
+                + "WHERE id = :id", params);
+    }
+
+    public OrderOutboxEvent readPayload(OutboxRow row) {
+        try {
+            return objectMapper.readValue(row.payload(), OrderOutboxEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload in row " + row.id(), e);
+        }
+    }
+
+    private String toJson(OrderOutboxEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order event cannot be serialized", e);
+        }
+    }
+}
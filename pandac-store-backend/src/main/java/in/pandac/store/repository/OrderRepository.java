@@ -2,12 +2,18 @@ package in.pandac.store.repository;
 
 import in.pandac.store.entity.Customer;
 import in.pandac.store.entity.Order;
+import in.pandac.store.repository.projection.OrderItemView;
+import in.pandac.store.repository.projection.OrderStatusView;
+import in.pandac.store.repository.projection.OrderSummaryView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -22,19 +28,105 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
   @Query("SELECT o FROM Order o WHERE o.customer=:customer ORDER BY o.createdAt DESC")
   List<Order> findOrdersByCustomer(@Param("customer") Customer customer);
 
+  // orders on a partitioned database have no foreign keys (V11, V16), so deletes check these first
+  @Query("SELECT COUNT(oi) > 0 FROM OrderItem oi WHERE oi.product.id = :productId")
+  boolean existsItemWithProduct(@Param("productId") Long productId);
+
+  boolean existsByCustomerCustomerId(Long customerId);
+
   @Query("SELECT o FROM Order o WHERE o.orderStatus=?1")
   List<Order> findOrdersByStatus(String orderStatus);
 
-  @Query(value = "SELECT * FROM orders o WHERE o.customer_id=:customerId ORDER BY o.created_at DESC"
-  , nativeQuery = true)
-  List<Order> findOrdersByCustomerWithNativeQuery(@Param("customerId") Long customerId);
+  /*
+   * Order history and the admin queue are read as two flat projections - the
+   * headers and every item of those orders joined with its product - so a page
+   * costs two statements however many orders and items it contains.
+   */
+  @Query("SELECT new in.pandac.store.repository.projection.OrderSummaryView("
+          + "o.orderId, o.orderStatus, o.totalPrice, o.createdAt) "
+          + "FROM Order o WHERE o.customer.customerId = :customerId ORDER BY o.createdAt DESC, o.orderId DESC")
+  List<OrderSummaryView> findOrderSummariesByCustomer(@Param("customerId") Long customerId);
+
+  @Query("SELECT new in.pandac.store.repository.projection.OrderItemView("
+          + "o.orderId, p.name, oi.quantity, oi.price, p.imageUrl) "
+          + "FROM OrderItem oi JOIN oi.order o JOIN oi.product p "
+          + "WHERE o.customer.customerId = :customerId ORDER BY oi.orderItemId")
+  List<OrderItemView> findOrderItemsByCustomer(@Param("customerId") Long customerId);
+
+  @Query("SELECT new in.pandac.store.repository.projection.OrderSummaryView("
+          + "o.orderId, o.orderStatus, o.totalPrice, o.createdAt) "
+          + "FROM Order o WHERE o.orderStatus = :orderStatus ORDER BY o.createdAt, o.orderId")
+  List<OrderSummaryView> findOrderSummariesByStatus(@Param("orderStatus") String orderStatus);
+
+  @Query("SELECT new in.pandac.store.repository.projection.OrderItemView("
+          + "o.orderId, p.name, oi.quantity, oi.price, p.imageUrl) "
+          + "FROM OrderItem oi JOIN oi.order o JOIN oi.product p "
+          + "WHERE o.orderStatus = :orderStatus ORDER BY oi.orderItemId")
+  List<OrderItemView> findOrderItemsByStatus(@Param("orderStatus") String orderStatus);
+
+  /*
+   * Keyset pages: newest first for a customer's history, oldest first for the
+   * admin queue. Each seeks past the (createdAt, orderId) of the previous page
+   * along idx_orders_customer_created / idx_orders_status_created.
+   */
+  @Query("SELECT new in.pandac.store.repository.projection.OrderSummaryView("
+          + "o.orderId, o.orderStatus, o.totalPrice, o.createdAt) "
+          + "FROM Order o WHERE o.customer.customerId = :customerId ORDER BY o.createdAt DESC, o.orderId DESC")
+  List<OrderSummaryView> findCustomerOrderPage(@Param("customerId") Long customerId, Limit limit);
 
-  @Query(value = "SELECT * FROM orders o WHERE o.order_status=?1", nativeQuery = true)
-  List<Order> findOrdersByStatusWithNativeQuery(String orderStatus);
+  @Query("SELECT new in.pandac.store.repository.projection.OrderSummaryView("
+          + "o.orderId, o.orderStatus, o.totalPrice, o.createdAt) "
+          + "FROM Order o WHERE o.customer.customerId = :customerId "
+          + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.orderId < :orderId)) "
+          + "ORDER BY o.createdAt DESC, o.orderId DESC")
+  List<OrderSummaryView> findCustomerOrderPageAfter(@Param("customerId") Long customerId,
+          @Param("createdAt") Instant createdAt, @Param("orderId") Long orderId, Limit limit);
+
+  @Query("SELECT new in.pandac.store.repository.projection.OrderSummaryView("
+          + "o.orderId, o.orderStatus, o.totalPrice, o.createdAt) "
+          + "FROM Order o WHERE o.orderStatus = :orderStatus ORDER BY o.createdAt, o.orderId")
+  List<OrderSummaryView> findStatusOrderPage(@Param("orderStatus") String orderStatus, Limit limit);
+
+  @Query("SELECT new in.pandac.store.repository.projection.OrderSummaryView("
+          + "o.orderId, o.orderStatus, o.totalPrice, o.createdAt) "
+          + "FROM Order o WHERE o.orderStatus = :orderStatus "
+          + "AND (o.createdAt > :createdAt OR (o.createdAt = :createdAt AND o.orderId > :orderId)) "
+          + "ORDER BY o.createdAt, o.orderId")
+  List<OrderSummaryView> findStatusOrderPageAfter(@Param("orderStatus") String orderStatus,
+          @Param("createdAt") Instant createdAt, @Param("orderId") Long orderId, Limit limit);
+
+  @Query("SELECT new in.pandac.store.repository.projection.OrderItemView("
+          + "o.orderId, p.name, oi.quantity, oi.price, p.imageUrl) "
+          + "FROM OrderItem oi JOIN oi.order o JOIN oi.product p "
+          + "WHERE o.orderId IN :orderIds ORDER BY oi.orderItemId")
+  List<OrderItemView> findOrderItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+  /*
+   * Status transitions are conditional single-statement UPDATEs: the WHERE clause
+   * carries the allowed source statuses (and optionally the version the caller
+   * saw), and every change bumps the version. No row is locked beyond the
+   * statement itself; a count of 0 means the caller lost a race or asked for an
+   * illegal transition.
+   */
+  @Query("SELECT new in.pandac.store.repository.projection.OrderStatusView(o.orderId, o.orderStatus, o.version) "
+          + "FROM Order o WHERE o.orderId IN :orderIds")
+  List<OrderStatusView> findOrderStatuses(@Param("orderIds") Collection<Long> orderIds);
 
   @Transactional
   @Modifying
-  @Query("UPDATE Order o SET o.orderStatus=:orderStatus,o.updatedAt=CURRENT_TIMESTAMP,o.updatedBy=:updatedBy WHERE o.orderId=:orderId")
-  int updateOrderStatus(@Param("orderId") Long orderId, @Param("orderStatus") String orderStatus,
+  @Query("UPDATE Order o SET o.orderStatus=:orderStatus,o.version=o.version+1,"
+          + "o.updatedAt=:updatedAt,o.updatedBy=:updatedBy "
+          + "WHERE o.orderId=:orderId AND o.orderStatus IN :fromStatuses "
+          + "AND (:expectedVersion IS NULL OR o.version=:expectedVersion)")
+  int transitionOrderStatus(@Param("orderId") Long orderId, @Param("orderStatus") String orderStatus,
+          @Param("fromStatuses") Collection<String> fromStatuses, @Param("expectedVersion") Long expectedVersion,
+          @Param("updatedAt") Instant updatedAt, @Param("updatedBy") String updatedBy);
+
+  @Modifying
+  @Query("UPDATE Order o SET o.orderStatus=:orderStatus,o.version=o.version+1,"
+          + "o.updatedAt=:updatedAt,o.updatedBy=:updatedBy "
+          + "WHERE o.orderId IN :orderIds AND o.orderStatus=:expectedStatus")
+  int transitionOrderStatuses(@Param("orderIds") Collection<Long> orderIds, @Param("orderStatus") String orderStatus,
+          @Param("expectedStatus") String expectedStatus, @Param("updatedAt") Instant updatedAt,
           @Param("updatedBy") String updatedBy);
 }
\ No newline at end of file
@@ -1,7 +1,39 @@
 package in.pandac.store.repository;
 
 import in.pandac.store.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
-  }
\ No newline at end of file
+
+  /**
+   * Keyset page ordered by popularity (highest first), seeking past the (popularity, id) of the last row seen.
+   */
+  @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice "
+          + "AND (p.popularity < :popularity OR (p.popularity = :popularity AND p.id < :id)) "
+          + "ORDER BY p.popularity DESC, p.id DESC")
+  List<Product> findPageByPopularity(@Param("popularity") Integer popularity, @Param("id") Long id,
+          @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice, Limit limit);
+
+  /**
+   * Keyset page ordered by price (lowest first), seeking past the (price, id) of the last row seen.
+   */
+  @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice "
+          + "AND (p.price > :price OR (p.price = :price AND p.id > :id)) "
+          + "ORDER BY p.price ASC, p.id ASC")
+  List<Product> findPageByPrice(@Param("price") BigDecimal price, @Param("id") Long id,
+          @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice, Limit limit);
+
+  /**
+   * @return the ids among {@code ids} that exist, answered from the primary key index without loading rows
+   */
+  @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+  Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+  }
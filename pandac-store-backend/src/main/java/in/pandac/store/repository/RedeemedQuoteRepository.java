@@ -0,0 +1,34 @@
+package in.pandac.store.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * The redeemed_quotes table (V17). Redeem inside the transaction that writes
+ * the order: a concurrent redeem of the same token waits on the row lock and
+ * sees it taken once the first order commits.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RedeemedQuoteRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * @return true if the token was not redeemed before
+     */
+    public boolean redeem(String tokenHash) {
+        return jdbcTemplate.update("INSERT IGNORE INTO redeemed_quotes (token_hash) VALUES (:tokenHash)",
+                Map.of("tokenHash", tokenHash)) == 1;
+    }
+
+    public int purgeRedeemedBefore(Instant redeemedBefore) {
+        return jdbcTemplate.update("DELETE FROM redeemed_quotes WHERE redeemed_at < :redeemedBefore",
+                Map.of("redeemedBefore", Timestamp.from(redeemedBefore)));
+    }
+}
@@ -0,0 +1,175 @@
+package in.pandac.store.repository;
+
+import in.pandac.store.dto.ProductSalesDto;
+import in.pandac.store.dto.SalesBucketDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and maintains the sales rollup tables (V12). Every write is a set-based
+ * INSERT ... SELECT over the order rows themselves, live and archived, so the
+ * incremental path and the reconciliation aggregate exactly the same way. The
+ * incremental writes are driven by the order outbox ({@code SalesRollupUpdater}),
+ * after the orders have committed, and may find an order already archived.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SalesRollupRepository {
+
+    private static final String HOUR_BUCKET = "DATE_FORMAT(created_at, '%Y-%m-%d %H:00:00')";
+    private static final String DAY_BUCKET = "DATE(created_at)";
+
+    private static final String ORDER_UPSERT = " ON DUPLICATE KEY UPDATE "
+            + "orders_placed = orders_placed + VALUES(orders_placed), "
+            + "orders_cancelled = orders_cancelled + VALUES(orders_cancelled), "
+            + "gross_revenue = gross_revenue + VALUES(gross_revenue), "
+            + "cancelled_revenue = cancelled_revenue + VALUES(cancelled_revenue)";
+    private static final String PRODUCT_UPSERT = " ON DUPLICATE KEY UPDATE "
+            + "units_sold = units_sold + VALUES(units_sold), "
+            + "units_cancelled = units_cancelled + VALUES(units_cancelled), "
+            + "gross_revenue = gross_revenue + VALUES(gross_revenue), "
+            + "cancelled_revenue = cancelled_revenue + VALUES(cancelled_revenue)";
+
+    // live and archived orders together, for reconciliation
+    private static final String ALL_ORDERS = "(SELECT created_at, order_status, total_price FROM orders "
+            + "WHERE created_at >= :from AND created_at < :to "
+            + "UNION ALL SELECT created_at, order_status, total_price FROM orders_archive "
+            + "WHERE created_at >= :from AND created_at < :to) o";
+    private static final String ALL_ORDER_ITEMS = "(SELECT o.created_at, o.order_status, oi.product_id, "
+            + "oi.quantity, oi.price FROM orders o JOIN order_items oi ON oi.order_id = o.order_id "
+            + "WHERE o.created_at >= :from AND o.created_at < :to "
+            + "UNION ALL SELECT o.created_at, o.order_status, oi.product_id, oi.quantity, oi.price "
+            + "FROM orders_archive o JOIN order_items_archive oi ON oi.order_id = o.order_id "
+            + "WHERE o.created_at >= :from AND o.created_at < :to) s";
+
+    // the given orders, live or already archived, for the incremental path
+    private static final String ORDERS_BY_ID = "(SELECT created_at, total_price FROM orders "
+            + "WHERE order_id IN (:orderIds) "
+            + "UNION ALL SELECT created_at, total_price FROM orders_archive WHERE order_id IN (:orderIds)) o";
+    private static final String ORDER_ITEMS_BY_ID = "(SELECT o.created_at, oi.product_id, oi.quantity, oi.price "
+            + "FROM orders o JOIN order_items oi ON oi.order_id = o.order_id WHERE o.order_id IN (:orderIds) "
+            + "UNION ALL SELECT o.created_at, oi.product_id, oi.quantity, oi.price "
+            + "FROM orders_archive o JOIN order_items_archive oi ON oi.order_id = o.order_id "
+            + "WHERE o.order_id IN (:orderIds)) s";
+
+    private static final String ORDER_TOTALS = "COUNT(*), SUM(order_status = 'CANCELLED'), SUM(total_price), "
+            + "SUM(CASE WHEN order_status = 'CANCELLED' THEN total_price ELSE 0 END)";
+    private static final String PRODUCT_TOTALS = "SUM(quantity), "
+            + "SUM(CASE WHEN order_status = 'CANCELLED' THEN quantity ELSE 0 END), SUM(quantity * price), "
+            + "SUM(CASE WHEN order_status = 'CANCELLED' THEN quantity * price ELSE 0 END)";
+
+    private static final RowMapper<SalesBucketDto> BUCKET_ROW = (rs, rowNum) -> new SalesBucketDto(
+            rs.getObject(1, LocalDateTime.class), rs.getLong(2), rs.getLong(3),
+            rs.getBigDecimal(4), rs.getBigDecimal(5));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Counts newly placed orders into the bucket of their creation time.
+     */
+    public void addPlacedOrders(Collection<Long> orderIds) {
+        addOrders(orderIds, "COUNT(*), 0, SUM(total_price), 0", "SUM(quantity), 0, SUM(quantity * price), 0");
+    }
+
+    /**
+     * Moves just-cancelled orders from gross to cancelled in the bucket they were placed in.
+     */
+    public void addCancelledOrders(Collection<Long> orderIds) {
+        addOrders(orderIds, "0, COUNT(*), 0, SUM(total_price)", "0, SUM(quantity), 0, SUM(quantity * price)");
+    }
+
+    private void addOrders(Collection<Long> orderIds, String orderColumns, String productColumns) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        Map<String, Object> params = Map.of("orderIds", orderIds);
+        jdbcTemplate.update("INSERT INTO sales_hourly (bucket_start, orders_placed, orders_cancelled, "
+                + "gross_revenue, cancelled_revenue) SELECT " + HOUR_BUCKET + ", " + orderColumns
+                + " FROM " + ORDERS_BY_ID + " GROUP BY " + HOUR_BUCKET + ORDER_UPSERT, params);
+        jdbcTemplate.update("INSERT INTO sales_daily (bucket_date, orders_placed, orders_cancelled, "
+                + "gross_revenue, cancelled_revenue) SELECT " + DAY_BUCKET + ", " + orderColumns
+                + " FROM " + ORDERS_BY_ID + " GROUP BY " + DAY_BUCKET + ORDER_UPSERT, params);
+        jdbcTemplate.update("INSERT INTO product_sales_daily (bucket_date, product_id, units_sold, "
+                + "units_cancelled, gross_revenue, cancelled_revenue) "
+                + "SELECT " + DAY_BUCKET + ", product_id, " + productColumns
+                + " FROM " + ORDER_ITEMS_BY_ID + " GROUP BY " + DAY_BUCKET + ", product_id" + PRODUCT_UPSERT,
+                params);
+    }
+
+    /**
+     * Share-locks the live orders placed in [from, to), so none of them can change
+     * status or be archived until the transaction ends, then checks that the
+     * outbox holds no undelivered event for them. Only then does a rebuild agree
+     * with the incremental path: an event still pending would be counted again
+     * when the relay delivers it. Events the relay is delivering right now are
+     * still visible and count as pending. Must run in the rebuild's transaction.
+     *
+     * @return {@code true} if [from, to) can be rebuilt
+     */
+    public boolean lockSettledRange(LocalDate from, LocalDate to) {
+        Map<String, Object> params = Map.of("from", from.atStartOfDay(), "to", to.atStartOfDay());
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE created_at >= :from AND created_at < :to "
+                + "FOR SHARE", params, Long.class);
+        Boolean pending = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM order_outbox e "
+                + "JOIN (SELECT order_id FROM orders WHERE created_at >= :from AND created_at < :to "
+                + "UNION ALL SELECT order_id FROM orders_archive WHERE created_at >= :from AND created_at < :to) o "
+                + "ON o.order_id = e.aggregate_id WHERE e.status = 'PENDING')", params, Boolean.class);
+        return !Boolean.TRUE.equals(pending);
+    }
+
+    /**
+     * Rebuilds every bucket in [from, to) from the live and archived orders.
+     * Callers keep the range short: the buckets stay locked until the transaction ends.
+     */
+    public void rebuild(LocalDate from, LocalDate to) {
+        Map<String, Object> params = Map.of("from", from.atStartOfDay(), "to", to.atStartOfDay(),
+                "fromDate", from, "toDate", to);
+        jdbcTemplate.update("DELETE FROM sales_hourly WHERE bucket_start >= :from AND bucket_start < :to", params);
+        jdbcTemplate.update("INSERT INTO sales_hourly (bucket_start, orders_placed, orders_cancelled, "
+                + "gross_revenue, cancelled_revenue) SELECT " + HOUR_BUCKET + ", " + ORDER_TOTALS
+                + " FROM " + ALL_ORDERS + " GROUP BY " + HOUR_BUCKET, params);
+        jdbcTemplate.update("DELETE FROM sales_daily WHERE bucket_date >= :fromDate AND bucket_date < :toDate",
+                params);
+        jdbcTemplate.update("INSERT INTO sales_daily (bucket_date, orders_placed, orders_cancelled, "
+                + "gross_revenue, cancelled_revenue) SELECT " + DAY_BUCKET + ", " + ORDER_TOTALS
+                + " FROM " + ALL_ORDERS + " GROUP BY " + DAY_BUCKET, params);
+        jdbcTemplate.update("DELETE FROM product_sales_daily WHERE bucket_date >= :fromDate AND bucket_date < :toDate",
+                params);
+        jdbcTemplate.update("INSERT INTO product_sales_daily (bucket_date, product_id, units_sold, "
+                + "units_cancelled, gross_revenue, cancelled_revenue) SELECT " + DAY_BUCKET + ", product_id, "
+                + PRODUCT_TOTALS + " FROM " + ALL_ORDER_ITEMS + " GROUP BY " + DAY_BUCKET + ", product_id", params);
+    }
+
+    public List<SalesBucketDto> findHourly(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("SELECT bucket_start, orders_placed, orders_cancelled, gross_revenue, "
+                        + "gross_revenue - cancelled_revenue FROM sales_hourly "
+                        + "WHERE bucket_start >= :from AND bucket_start < :to ORDER BY bucket_start",
+                Map.of("from", from, "to", to), BUCKET_ROW);
+    }
+
+    public List<SalesBucketDto> findDaily(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT TIMESTAMP(bucket_date), orders_placed, orders_cancelled, gross_revenue, "
+                        + "gross_revenue - cancelled_revenue FROM sales_daily "
+                        + "WHERE bucket_date >= :from AND bucket_date < :to ORDER BY bucket_date",
+                Map.of("from", from, "to", to), BUCKET_ROW);
+    }
+
+    public List<ProductSalesDto> findTopProducts(LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query("SELECT s.product_id, p.name, SUM(s.units_sold - s.units_cancelled), "
+                        + "SUM(s.gross_revenue - s.cancelled_revenue) AS net_revenue "
+                        + "FROM product_sales_daily s LEFT JOIN products p ON p.product_id = s.product_id "
+                        + "WHERE s.bucket_date >= :from AND s.bucket_date < :to "
+                        + "GROUP BY s.product_id, p.name ORDER BY net_revenue DESC, s.product_id LIMIT :limit",
+                Map.of("from", from, "to", to, "limit", limit),
+                (rs, rowNum) -> new ProductSalesDto(rs.getLong(1), rs.getString(2), rs.getLong(3),
+                        rs.getBigDecimal(4)));
+    }
+}
@@ -0,0 +1,10 @@
+package in.pandac.store.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * One order line joined with the product columns shown next to it.
+ */
+public record OrderItemView(Long orderId, String productName, Integer quantity,
+                            BigDecimal price, String imageUrl) {
+}
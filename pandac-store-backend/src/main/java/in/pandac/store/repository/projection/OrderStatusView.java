@@ -0,0 +1,4 @@
+package in.pandac.store.repository.projection;
+
+public record OrderStatusView(Long orderId, String orderStatus, Long version) {
+}
@@ -0,0 +1,12 @@
+package in.pandac.store.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Order header columns needed by the order history and admin queue,
+ * selected with a JPQL constructor expression instead of a full entity.
+ */
+public record OrderSummaryView(Long orderId, String orderStatus,
+                               BigDecimal totalPrice, Instant createdAt) {
+}
@@ -0,0 +1,15 @@
+package in.pandac.store.service;
+
+import in.pandac.store.dto.CartQuoteDto;
+import in.pandac.store.dto.CartQuoteRequestDto;
+
+public interface CartQuoteService {
+
+    /**
+     * Prices a whole cart, with an optional discount code, and signs the result.
+     *
+     * @throws IllegalArgumentException if the cart is empty, too large or has a non-positive quantity
+     * @throws in.pandac.store.exception.ResourceNotFoundException if a product does not exist
+     */
+    CartQuoteDto quote(CartQuoteRequestDto request);
+}
@@ -0,0 +1,25 @@
+package in.pandac.store.service;
+
+import in.pandac.store.dto.DiscountRuleDto;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface DiscountRuleService {
+
+    List<DiscountRuleDto> getRules();
+
+    /**
+     * @throws IllegalArgumentException if the rule is incomplete for its type, scopes unknown products
+     *                                  or uses the code of a discount
+     */
+    DiscountRuleDto createRule(DiscountRuleDto rule);
+
+    /**
+     * @throws IllegalArgumentException if the rule is incomplete for its type, scopes unknown products
+     *                                  or uses the code of a discount
+     */
+    Optional<DiscountRuleDto> updateRule(Long ruleId, DiscountRuleDto rule);
+
+    boolean deleteRule(Long ruleId);
+}
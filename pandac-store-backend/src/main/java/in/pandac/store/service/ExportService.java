@@ -0,0 +1,33 @@
+package in.pandac.store.service;
+
+import in.pandac.store.dto.ExportFormat;
+
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    /**
+     * Streams every product to the given output, one row per product.
+     *
+     * @param out    the response stream
+     * @param format CSV (with header row) or NDJSON
+     */
+    void exportProducts(OutputStream out, ExportFormat format);
+
+    /**
+     * Streams every order line to the given output, one row per order item
+     * carrying its order's columns.
+     *
+     * @param out    the response stream
+     * @param format CSV (with header row) or NDJSON
+     */
+    void exportOrders(OutputStream out, ExportFormat format);
+
+    /**
+     * Streams every customer with their address, without credentials.
+     *
+     * @param out    the response stream
+     * @param format CSV (with header row) or NDJSON
+     */
+    void exportCustomers(OutputStream out, ExportFormat format);
+}
@@ -0,0 +1,17 @@
+package in.pandac.store.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs {@code action} at most once per key. Repeats of a finished request get
+     * the stored response; repeats that arrive while it is still running wait
+     * for it instead of running the action again.
+     *
+     * @param scope          the operation the key belongs to, e.g. "orders"
+     * @param idempotencyKey client-supplied key, {@code null} to run without deduplication
+     * @param request        request body, fingerprinted to detect a key reused for another request
+     */
+    <T> T execute(String scope, String idempotencyKey, Object request, Class<T> responseType, Supplier<T> action);
+}
@@ -0,0 +1,11 @@
+package in.pandac.store.service;
+
+public interface OrderArchiveService {
+
+    /**
+     * Moves closed orders older than the configured retention into the archive tables.
+     *
+     * @return number of orders archived, or 0 if another run is already in progress
+     */
+    int archiveClosedOrders();
+}
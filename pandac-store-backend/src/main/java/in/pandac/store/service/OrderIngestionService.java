@@ -0,0 +1,26 @@
+package in.pandac.store.service;
+
+import in.pandac.store.dto.OrderRequestDto;
+import in.pandac.store.dto.OrderTicketDto;
+
+import java.util.Optional;
+
+public interface OrderIngestionService {
+
+    /**
+     * @return whether orders are currently taken through the write-behind queue
+     */
+    boolean isEnabled();
+
+    /**
+     * Validates the order and queues it for a group-committed write.
+     *
+     * @throws in.pandac.store.exception.OrderQueueFullException when the queue is full
+     */
+    OrderTicketDto submit(OrderRequestDto orderRequest);
+
+    /**
+     * @return the ticket of a queued order placed by the current customer
+     */
+    Optional<OrderTicketDto> getTicket(String provisionalId);
+}
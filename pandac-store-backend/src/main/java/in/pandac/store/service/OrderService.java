@@ -1,7 +1,10 @@
 package in.pandac.store.service;
 
+import in.pandac.store.dto.OrderPageDto;
 import in.pandac.store.dto.OrderRequestDto;
 import in.pandac.store.dto.OrderResponseDto;
+import in.pandac.store.dto.OrderStatusBulkRequestDto;
+import in.pandac.store.dto.OrderStatusBulkResultDto;
 
 import java.util.List;
 
@@ -13,5 +16,20 @@ public interface OrderService {
 
     List<OrderResponseDto> getAllPendingOrders();
 
-    void updateOrderStatus(Long orderId, String orderStatus);
+    OrderPageDto getCustomerOrderPage(String cursor, int size);
+
+    OrderPageDto getArchivedOrderPage(String cursor, int size);
+
+    OrderPageDto getPendingOrderPage(String cursor, int size);
+
+    /**
+     * Moves one order along the status state machine.
+     *
+     * @param expectedVersion version the caller last saw, or {@code null} to only check the transition
+     * @throws in.pandac.store.exception.OrderStatusConflictException if the transition is not allowed
+     *                                                                 or the version no longer matches
+     */
+    void updateOrderStatus(Long orderId, String orderStatus, Long expectedVersion);
+
+    OrderStatusBulkResultDto updateOrderStatuses(OrderStatusBulkRequestDto request);
 }
@@ -6,5 +6,9 @@ import in.pandac.store.dto.PaymentIntentResponseDto;
 
 public interface PaymentService {
 
-    PaymentIntentResponseDto createPaymentIntent(PaymentIntentRequestDto requestDto);
+    /**
+     * @param idempotencyKey forwarded to Stripe so a retried call never creates a second intent;
+     *                       may be {@code null}
+     */
+    PaymentIntentResponseDto createPaymentIntent(PaymentIntentRequestDto requestDto, String idempotencyKey);
 }
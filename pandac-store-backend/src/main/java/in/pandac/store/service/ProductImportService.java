@@ -0,0 +1,19 @@
+package in.pandac.store.service;
+
+import in.pandac.store.dto.ProductImportFormat;
+import in.pandac.store.dto.ProductImportResultDto;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    /**
+     * Streams products from the given input and inserts them in JDBC batches,
+     * committing one transaction per chunk. Invalid rows are skipped and reported.
+     *
+     * @param input  the CSV (with header row) or NDJSON document
+     * @param format the format of the input
+     * @return row counts and per-row errors
+     */
+    ProductImportResultDto importProducts(InputStream input, ProductImportFormat format);
+}
@@ -2,14 +2,27 @@ package in.pandac.store.service;
 
 
 import in.pandac.store.dto.ProductDto;
+import in.pandac.store.dto.ProductPageDto;
+import in.pandac.store.dto.ProductSort;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 public interface ProductService {
 
     List<ProductDto> getProducts();
 
+    ProductPageDto getProductPage(ProductSort sort, String cursor, int size,
+                                  BigDecimal minPrice, BigDecimal maxPrice);
+
+    Optional<ProductDto> getProductById(Long productId);
+
+    List<ProductDto> getProductsByIds(List<Long> productIds);
+
+    List<ProductDto> searchProducts(String query, int limit);
+
     ProductDto createProduct(ProductDto productDto, MultipartFile imageFile);
 
     String saveImage(MultipartFile imageFile);
@@ -0,0 +1,27 @@
+package in.pandac.store.service;
+
+import in.pandac.store.dto.ProductSalesDto;
+import in.pandac.store.dto.SalesBucketDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Admin sales reports, answered from the rollup tables. Date ranges are inclusive.
+ */
+public interface SalesReportService {
+
+    List<SalesBucketDto> getHourlySales(LocalDate from, LocalDate to);
+
+    List<SalesBucketDto> getDailySales(LocalDate from, LocalDate to);
+
+    List<ProductSalesDto> getTopProducts(LocalDate from, LocalDate to, int limit);
+
+    /**
+     * Recomputes the rollups of the given days from the order tables, one day per transaction.
+     * Days with order events still waiting in the outbox are skipped and logged.
+     *
+     * @throws IllegalArgumentException if the range is reversed or longer than a year
+     */
+    void reconcile(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,159 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.catalog.CatalogSnapshot;
+import in.pandac.store.catalog.DiscountCodeCache;
+import in.pandac.store.catalog.DiscountRuleEngine;
+import in.pandac.store.catalog.DiscountRules;
+import in.pandac.store.catalog.ProductByIdCache;
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.dto.AppliedPromotionDto;
+import in.pandac.store.dto.CartQuoteDto;
+import in.pandac.store.dto.CartQuoteItemDto;
+import in.pandac.store.dto.CartQuoteLineDto;
+import in.pandac.store.dto.CartQuoteRequestDto;
+import in.pandac.store.dto.DiscountDto;
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.entity.DiscountType;
+import in.pandac.store.exception.ResourceNotFoundException;
+import in.pandac.store.repository.RedeemedQuoteRepository;
+import in.pandac.store.service.CartQuoteService;
+import in.pandac.store.util.CartQuote;
+import in.pandac.store.util.QuoteTokenUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices carts from the product and discount caches in one pass. All
+ * arithmetic is on {@code long} cents; amounts only become decimals in the
+ * response. Promotion rules are evaluated first, a discount code from the
+ * {@code discounts} table is then applied to the remainder. The signed quote
+ * is bound to the calling customer; anonymous quotes are for display only.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartQuoteServiceImpl implements CartQuoteService {
+
+    private final ProductByIdCache productByIdCache;
+    private final DiscountCodeCache discountCodeCache;
+    private final DiscountRuleEngine discountRuleEngine;
+    private final QuoteTokenUtil quoteTokenUtil;
+    private final RedeemedQuoteRepository redeemedQuoteRepository;
+
+    @Value("${app.quote.ttl:PT15M}")
+    private Duration ttl;
+
+    @Override
+    public CartQuoteDto quote(CartQuoteRequestDto request) {
+        Map<Long, Integer> quantities = quantities(request);
+        Map<Long, ProductDto> products = productByIdCache.getAll(quantities.keySet());
+
+        List<CartQuote.Line> lines = new ArrayList<>(quantities.size());
+        List<CartQuoteLineDto> lineDtos = new ArrayList<>(quantities.size());
+        long subtotalCents = 0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            ProductDto product = products.get(entry.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "ProductID", String.valueOf(entry.getKey()));
+            }
+            long unitCents = CatalogSnapshot.toCents(product.getPrice());
+            long lineCents = Math.multiplyExact(unitCents, entry.getValue());
+            subtotalCents = Math.addExact(subtotalCents, lineCents);
+            lines.add(new CartQuote.Line(entry.getKey(), entry.getValue(), unitCents));
+            lineDtos.add(new CartQuoteLineDto(entry.getKey(), product.getName(), entry.getValue(),
+                    fromCents(unitCents), fromCents(lineCents)));
+        }
+
+        String code = request.discountCode() != null && !request.discountCode().isBlank()
+                ? request.discountCode().trim() : null;
+        DiscountRules.Evaluation promotions = discountRuleEngine.evaluate(lines, code);
+        long discountCents = promotions.discountCents();
+        // a plain discount code stacks after the promotions, on what is left of the subtotal;
+        // a code already redeemed by a promotion rule is not applied a second time
+        Optional<DiscountDto> discount = code == null || promotions.exclusive() || promotions.codeApplied()
+                ? Optional.empty() : discountCodeCache.get(code);
+        if (discount.isPresent()) {
+            discountCents += discountCents(subtotalCents - discountCents, discount.get());
+        }
+        String appliedCode = discount.map(DiscountDto::code).orElse(promotions.codeApplied() ? code : null);
+        long totalCents = subtotalCents - discountCents;
+        List<AppliedPromotionDto> applied = promotions.applied().stream()
+                .map(promotion -> new AppliedPromotionDto(promotion.ruleId(), promotion.name(),
+                        fromCents(promotion.discountCents())))
+                .toList();
+
+        Instant expiresAt = Instant.now().plus(ttl);
+        String token = quoteTokenUtil.sign(new CartQuote(currentCustomer(), lines, appliedCode,
+                discount.isEmpty() && appliedCode != null, discountCents, totalCents, expiresAt));
+        return new CartQuoteDto(lineDtos, fromCents(subtotalCents), appliedCode, applied,
+                fromCents(discountCents), fromCents(totalCents), token, expiresAt);
+    }
+
+    // a redeemed token that has expired can no longer be replayed, so its row is not needed anymore
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void purgeRedeemedQuotes() {
+        int purged = redeemedQuoteRepository.purgeRedeemedBefore(Instant.now().minus(ttl));
+        if (purged > 0) {
+            log.info("Purged {} expired redeemed quotes", purged);
+        }
+    }
+
+    private static String currentCustomer() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken ? null : authentication.getName();
+    }
+
+    // duplicate lines of the same product are merged, keeping first-seen order
+    private static Map<Long, Integer> quantities(CartQuoteRequestDto request) {
+        List<CartQuoteItemDto> items = request.items();
+        if (items == null || items.isEmpty() || items.size() > ApplicationConstants.CART_QUOTE_MAX_LINES) {
+            throw new IllegalArgumentException("A quote needs between 1 and "
+                    + ApplicationConstants.CART_QUOTE_MAX_LINES + " cart lines");
+        }
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartQuoteItemDto item : items) {
+            if (item.productId() == null || item.quantity() == null || item.quantity() <= 0) {
+                throw new IllegalArgumentException("Every cart line needs a product id and a positive quantity");
+            }
+            quantities.merge(item.productId(), item.quantity(), Math::addExact);
+        }
+        return quantities;
+    }
+
+    /**
+     * Same rules as DiscountService#calculateFinalPrice: a percentage of the
+     * subtotal rounded half up, or a fixed amount only when the subtotal covers it.
+     */
+    static long discountCents(long subtotalCents, DiscountDto discount) {
+        if (discount.type() == DiscountType.PERCENTAGE) {
+            long percent = Math.max(0, Math.min(100, discount.discount()));
+            return (subtotalCents * percent + 50) / 100;
+        }
+        if (discount.type() == DiscountType.FIXED) {
+            long amountCents = Math.multiplyExact((long) discount.discount(), 100L);
+            return amountCents >= 0 && subtotalCents >= amountCents ? amountCents : 0;
+        }
+        return 0;
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
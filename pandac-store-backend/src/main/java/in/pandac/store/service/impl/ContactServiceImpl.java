@@ -5,10 +5,10 @@ import in.pandac.store.dto.ContactRequestDto;
 import in.pandac.store.dto.ContactResponseDto;
 import in.pandac.store.entity.Contact;
 import in.pandac.store.exception.ResourceNotFoundException;
+import in.pandac.store.mapper.ContactMapper;
 import in.pandac.store.repository.ContactRepository;
 import in.pandac.store.service.ContactService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -19,6 +19,7 @@ import java.util.stream.Collectors;
 public class ContactServiceImpl implements ContactService {
 
     private final ContactRepository contactRepository;
+    private final ContactMapper contactMapper;
 
     @Override
     public boolean saveContact(ContactRequestDto contactRequestDto) {
@@ -55,8 +56,7 @@ public class ContactServiceImpl implements ContactService {
     }
 
     private Contact transformToEntity(ContactRequestDto contactRequestDto) {
-        Contact contact = new Contact();
-        BeanUtils.copyProperties(contactRequestDto, contact);
+        Contact contact = contactMapper.toEntity(contactRequestDto);
         contact.setStatus(ApplicationConstants.OPEN_MESSAGE);
         return contact;
     }
@@ -1,17 +1,17 @@
 package in.pandac.store.service.impl;
 
-import in.pandac.store.dto.AddressDto;
 import in.pandac.store.dto.CustomerDto;
 import in.pandac.store.dto.CreateCustomerRequestDto;
 import in.pandac.store.dto.UpdateCustomerRequestDto;
 import in.pandac.store.entity.Address;
 import in.pandac.store.entity.Customer;
-import in.pandac.store.entity.Role;
+import in.pandac.store.exception.ResourceInUseException;
+import in.pandac.store.mapper.CustomerMapper;
 import in.pandac.store.repository.CustomerRepository;
+import in.pandac.store.repository.OrderRepository;
 import in.pandac.store.repository.RoleRepository;
 import in.pandac.store.service.CustomerService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.BeanUtils;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -25,8 +25,10 @@ import java.util.stream.Collectors;
 public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final OrderRepository orderRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CustomerMapper customerMapper;
 
     @Override
     public CustomerDto createCustomer(CreateCustomerRequestDto createCustomerRequestDto) {
@@ -41,8 +43,7 @@ public class CustomerServiceImpl implements CustomerService {
             throw new IllegalArgumentException("Customer with email or mobile number already exists");
         }
         
-        Customer customer = new Customer();
-        BeanUtils.copyProperties(createCustomerRequestDto, customer);
+        Customer customer = customerMapper.toEntity(createCustomerRequestDto);
         customer.setPasswordHash(passwordEncoder.encode(createCustomerRequestDto.getPassword()));
         
         // Set default role
@@ -145,6 +146,10 @@ public class CustomerServiceImpl implements CustomerService {
         }
         
         if (customerRepository.existsById(customerId)) {
+            // a partitioned orders table has no foreign key to customers (V11)
+            if (orderRepository.existsByCustomerCustomerId(customerId)) {
+                throw new ResourceInUseException("Customer", "CustomerID", String.valueOf(customerId));
+            }
             customerRepository.deleteById(customerId);
             return true;
         }
@@ -175,24 +180,6 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     private CustomerDto convertToDto(Customer customer) {
-        CustomerDto customerDto = new CustomerDto();
-        BeanUtils.copyProperties(customer, customerDto);
-        
-        // Convert address if present
-        if (customer.getAddress() != null) {
-            AddressDto addressDto = new AddressDto();
-            BeanUtils.copyProperties(customer.getAddress(), addressDto);
-            customerDto.setAddress(addressDto);
-        }
-        
-        // Set role names only to avoid circular reference
-        if (customer.getRoles() != null) {
-            Set<String> roleNames = customer.getRoles().stream()
-                    .map(role -> role.getName())
-                    .collect(java.util.stream.Collectors.toSet());
-            customerDto.setRoleNames(roleNames);
-        }
-        
-        return customerDto;
+        return customerMapper.toDto(customer);
     }
 }
@@ -0,0 +1,141 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.catalog.DiscountCodeCache;
+import in.pandac.store.catalog.ProductByIdCache;
+import in.pandac.store.dto.DiscountRuleDto;
+import in.pandac.store.entity.DiscountRule;
+import in.pandac.store.event.DiscountRuleChangedEvent;
+import in.pandac.store.repository.DiscountRuleRepository;
+import in.pandac.store.service.DiscountRuleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class DiscountRuleServiceImpl implements DiscountRuleService {
+
+    private final DiscountRuleRepository discountRuleRepository;
+    private final ProductByIdCache productByIdCache;
+    private final DiscountCodeCache discountCodeCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<DiscountRuleDto> getRules() {
+        return discountRuleRepository.findAllWithProducts().stream().map(this::transformToDTO).toList();
+    }
+
+    @Transactional
+    @Override
+    public DiscountRuleDto createRule(DiscountRuleDto ruleDto) {
+        DiscountRule rule = new DiscountRule();
+        apply(ruleDto, rule);
+        DiscountRule savedRule = discountRuleRepository.save(rule);
+        eventPublisher.publishEvent(new DiscountRuleChangedEvent(savedRule.getRuleId()));
+        return transformToDTO(savedRule);
+    }
+
+    @Transactional
+    @Override
+    public Optional<DiscountRuleDto> updateRule(Long ruleId, DiscountRuleDto ruleDto) {
+        return discountRuleRepository.findById(ruleId)
+                .map(existingRule -> {
+                    apply(ruleDto, existingRule);
+                    DiscountRule updatedRule = discountRuleRepository.save(existingRule);
+                    eventPublisher.publishEvent(new DiscountRuleChangedEvent(ruleId));
+                    return transformToDTO(updatedRule);
+                });
+    }
+
+    @Transactional
+    @Override
+    public boolean deleteRule(Long ruleId) {
+        if (!discountRuleRepository.existsById(ruleId)) {
+            return false;
+        }
+        discountRuleRepository.deleteById(ruleId);
+        eventPublisher.publishEvent(new DiscountRuleChangedEvent(ruleId));
+        return true;
+    }
+
+    private void apply(DiscountRuleDto ruleDto, DiscountRule rule) {
+        validate(ruleDto);
+        rule.setName(ruleDto.name().trim());
+        rule.setCode(ruleDto.code() != null && !ruleDto.code().isBlank() ? ruleDto.code().trim() : null);
+        rule.setType(ruleDto.type());
+        rule.setPercent(ruleDto.percent());
+        rule.setAmount(ruleDto.amount());
+        rule.setBuyQuantity(ruleDto.buyQuantity());
+        rule.setGetQuantity(ruleDto.getQuantity());
+        rule.setMinCartValue(ruleDto.minCartValue());
+        rule.setPriority(ruleDto.priority() != null ? ruleDto.priority() : 0);
+        rule.setStackable(ruleDto.stackable() == null || ruleDto.stackable());
+        rule.setActive(ruleDto.active() == null || ruleDto.active());
+        rule.setStartsAt(ruleDto.startsAt());
+        rule.setEndsAt(ruleDto.endsAt());
+        rule.getProductIds().clear();
+        if (ruleDto.productIds() != null) {
+            rule.getProductIds().addAll(ruleDto.productIds());
+        }
+        rule.setCartWide(rule.getProductIds().isEmpty());
+    }
+
+    private void validate(DiscountRuleDto rule) {
+        if (rule == null || rule.name() == null || rule.name().isBlank() || rule.type() == null) {
+            throw new IllegalArgumentException("A discount rule needs a name and a type");
+        }
+        switch (rule.type()) {
+            case PERCENTAGE -> {
+                if (rule.percent() == null || rule.percent() <= 0 || rule.percent() > 100) {
+                    throw new IllegalArgumentException("A percentage rule needs a percent between 1 and 100");
+                }
+            }
+            case FIXED -> {
+                if (rule.amount() == null || rule.amount().signum() <= 0) {
+                    throw new IllegalArgumentException("A fixed rule needs a positive amount");
+                }
+            }
+            case BUY_X_GET_Y -> {
+                if (rule.buyQuantity() == null || rule.buyQuantity() <= 0
+                        || rule.getQuantity() == null || rule.getQuantity() <= 0) {
+                    throw new IllegalArgumentException("A buy-x-get-y rule needs positive buy and get quantities");
+                }
+            }
+        }
+        if (rule.minCartValue() != null && rule.minCartValue().compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Minimum cart value cannot be negative");
+        }
+        if (rule.startsAt() != null && rule.endsAt() != null && !rule.endsAt().isAfter(rule.startsAt())) {
+            throw new IllegalArgumentException("A discount rule must end after it starts");
+        }
+        boolean scoped = rule.productIds() != null && !rule.productIds().isEmpty();
+        if (rule.cartWide() != null && rule.cartWide() == scoped) {
+            throw new IllegalArgumentException("A discount rule is either cart-wide or scoped to products");
+        }
+        if (rule.code() != null && !rule.code().isBlank() && discountCodeCache.get(rule.code().trim()).isPresent()) {
+            throw new IllegalArgumentException("Code " + rule.code().trim() + " is already used by a discount");
+        }
+        if (scoped) {
+            Set<Long> productIds = new HashSet<>(rule.productIds());
+            if (productIds.contains(null)
+                    || productByIdCache.getAll(productIds).size() != productIds.size()) {
+                throw new IllegalArgumentException("A discount rule can only scope existing products");
+            }
+        }
+    }
+
+    private DiscountRuleDto transformToDTO(DiscountRule rule) {
+        return new DiscountRuleDto(rule.getRuleId(), rule.getName(), rule.getCode(), rule.getType(),
+                rule.getPercent(), rule.getAmount(), rule.getBuyQuantity(), rule.getGetQuantity(),
+                rule.getMinCartValue(), Set.copyOf(rule.getProductIds()), rule.getPriority(),
+                rule.isStackable(), rule.isActive(), rule.getStartsAt(), rule.getEndsAt(), rule.isCartWide());
+    }
+}
@@ -1,11 +1,14 @@
 package in.pandac.store.service.impl;
 
+import in.pandac.store.catalog.DiscountCodeCache;
 import in.pandac.store.dto.DiscountDto;
 import in.pandac.store.entity.Discount;
 import in.pandac.store.entity.DiscountType;
+import in.pandac.store.event.DiscountChangedEvent;
 import in.pandac.store.repository.DiscountRepository;
 import in.pandac.store.service.DiscountService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,10 +18,15 @@ import java.util.Optional;
 public class DiscountServiceImpl implements DiscountService {
 
     private final DiscountRepository discountRepository;
+    private final DiscountCodeCache discountCodeCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public DiscountServiceImpl(DiscountRepository discountRepository) {
+    public DiscountServiceImpl(DiscountRepository discountRepository, DiscountCodeCache discountCodeCache,
+                               ApplicationEventPublisher eventPublisher) {
         this.discountRepository = discountRepository;
+        this.discountCodeCache = discountCodeCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -37,7 +45,10 @@ public class DiscountServiceImpl implements DiscountService {
         discount.setType(discountDto.type());
         
         Discount savedDiscount = discountRepository.save(discount);
-        return new DiscountDto(savedDiscount.getCode(), savedDiscount.getDiscount(), savedDiscount.getType());
+        DiscountDto savedDiscountDto = new DiscountDto(savedDiscount.getCode(), savedDiscount.getDiscount(),
+                savedDiscount.getType());
+        eventPublisher.publishEvent(DiscountChangedEvent.created(savedDiscountDto));
+        return savedDiscountDto;
     }
 
     @Override
@@ -46,15 +57,12 @@ public class DiscountServiceImpl implements DiscountService {
             return Optional.empty();
         }
         
-        return discountRepository.findById(code)
-                .map(discount -> new DiscountDto(discount.getCode(), discount.getDiscount(), discount.getType()));
+        return discountCodeCache.get(code);
     }
 
     @Override
     public List<DiscountDto> allDiscounts() {
-        return discountRepository.findAll().stream()
-                .map(discount -> new DiscountDto(discount.getCode(), discount.getDiscount(), discount.getType()))
-                .toList();
+        return List.copyOf(discountCodeCache.all());
     }
 
     @Override
@@ -69,7 +77,10 @@ public class DiscountServiceImpl implements DiscountService {
                     existingDiscount.setType(discountDto.type());
                     
                     Discount updatedDiscount = discountRepository.save(existingDiscount);
-                    return new DiscountDto(updatedDiscount.getCode(), updatedDiscount.getDiscount(), updatedDiscount.getType());
+                    DiscountDto updatedDiscountDto = new DiscountDto(updatedDiscount.getCode(),
+                            updatedDiscount.getDiscount(), updatedDiscount.getType());
+                    eventPublisher.publishEvent(DiscountChangedEvent.updated(updatedDiscountDto));
+                    return updatedDiscountDto;
                 });
     }
 
@@ -81,6 +92,7 @@ public class DiscountServiceImpl implements DiscountService {
         
         if (discountRepository.existsById(code)) {
             discountRepository.deleteById(code);
+            eventPublisher.publishEvent(DiscountChangedEvent.deleted(code));
             return true;
         }
         return false;
@@ -91,17 +103,20 @@ public class DiscountServiceImpl implements DiscountService {
         if (discountCode == null || discountCode.isEmpty()) {
             return false;
         }
-        return discountRepository.findById(discountCode).isPresent();
+        return discountCodeCache.get(discountCode).isPresent();
     }
 
     @Override
     public double calculateFinalPrice(double originalPrice, DiscountDto discount) {
-        if (discount == null || originalPrice < 0) {
+        if (discount == null || originalPrice < 0 || discount.code() == null || discount.code().isEmpty()) {
             return originalPrice; // No discount applied
         }
-        if (!validateDiscount(discount.code())) {
+        // the stored definition decides the amount, not what the client sent along with the code
+        Optional<DiscountDto> stored = discountCodeCache.get(discount.code());
+        if (stored.isEmpty()) {
             return originalPrice; // Invalid discount code
         }
+        discount = stored.get();
 
         double discountAmount = 0.0;
         if (discount.type() == DiscountType.PERCENTAGE) {
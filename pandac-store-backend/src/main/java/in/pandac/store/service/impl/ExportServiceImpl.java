@@ -0,0 +1,226 @@
+package in.pandac.store.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.pandac.store.dto.ExportFormat;
+import in.pandac.store.entity.Product;
+import in.pandac.store.service.ExportService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streams whole tables to the client with constant memory: rows are read
+ * through a forward-only Hibernate scroll that MySQL Connector/J streams row
+ * by row, written straight to the response, and the persistence context is
+ * cleared every {@code fetchSize} rows. Streaming is switched on for the
+ * export statements only; every other query keeps the driver's default of
+ * buffering its result.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    // Connector/J streams a forward-only, read-only result set when its fetch size is Integer.MIN_VALUE
+    static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private static final List<String> PRODUCT_COLUMNS = List.of(
+            "productId", "name", "description", "price", "popularity", "imageUrl", "createdAt");
+    private static final List<String> ORDER_COLUMNS = List.of(
+            "orderId", "customerId", "orderStatus", "paymentStatus", "totalPrice", "discount",
+            "discountCode", "createdAt", "productId", "quantity", "price");
+    private static final List<String> CUSTOMER_COLUMNS = List.of(
+            "customerId", "name", "email", "mobileNumber", "street", "city", "state",
+            "postalCode", "country", "createdAt");
+
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Override
+    public void exportProducts(OutputStream out, ExportFormat format) {
+        export(out, format, PRODUCT_COLUMNS, "SELECT p FROM Product p ORDER BY p.id", Product.class,
+                product -> new Object[]{product.getId(), product.getName(), product.getDescription(),
+                        product.getPrice(), product.getPopularity(), product.getImageUrl(), product.getCreatedAt()});
+    }
+
+    @Override
+    public void exportOrders(OutputStream out, ExportFormat format) {
+        // scalar projection: one row per order item, no entity graph to hydrate
+        export(out, format, ORDER_COLUMNS,
+                "SELECT o.orderId, o.customer.customerId, o.orderStatus, o.paymentStatus, o.totalPrice, "
+                        + "o.discount, o.discountCode, o.createdAt, oi.product.id, oi.quantity, oi.price "
+                        + "FROM OrderItem oi JOIN oi.order o ORDER BY o.orderId, oi.orderItemId",
+                Object[].class, Function.identity());
+    }
+
+    @Override
+    public void exportCustomers(OutputStream out, ExportFormat format) {
+        export(out, format, CUSTOMER_COLUMNS,
+                "SELECT c.customerId, c.name, c.email, c.mobileNumber, a.street, a.city, a.state, "
+                        + "a.postalCode, a.country, c.createdAt "
+                        + "FROM Customer c LEFT JOIN c.address a ORDER BY c.customerId",
+                Object[].class, Function.identity());
+    }
+
+    private <T> void export(OutputStream out, ExportFormat format, List<String> columns, String hql,
+                            Class<T> resultType, Function<T, Object[]> toRow) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            try (RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+                 ScrollableResults<T> results = session.createSelectionQuery(hql, resultType)
+                         .setFetchSize(STREAMING_FETCH_SIZE)
+                         .setReadOnly(true)
+                         .setCacheMode(CacheMode.IGNORE)
+                         .scroll(ScrollMode.FORWARD_ONLY)) {
+                writer.header(columns);
+                long rows = 0;
+                while (results.next()) {
+                    writer.row(columns, toRow.apply(results.get()));
+                    if (++rows % fetchSize == 0) {
+                        session.clear();
+                        writer.flush();
+                    }
+                }
+                log.info("Exported {} rows as {}", rows, format);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Export aborted while writing the response", e);
+            }
+        });
+    }
+
+    private interface RowWriter extends AutoCloseable {
+        void header(List<String> columns) throws IOException;
+
+        void row(List<String> columns, Object[] values) throws IOException;
+
+        void flush() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * One JSON object per line, written with Jackson's streaming generator.
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.createGenerator(out, JsonEncoding.UTF8);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void header(List<String> columns) {
+            // NDJSON rows are self-describing
+        }
+
+        @Override
+        public void row(List<String> columns, Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                generator.writeFieldName(columns.get(i));
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // flush but leave the servlet stream for the container to close
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void header(List<String> columns) throws IOException {
+            writeLine(columns.toArray());
+        }
+
+        @Override
+        public void row(List<String> columns, Object[] values) throws IOException {
+            writeLine(values);
+        }
+
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writer.write(escape(values[i].toString()));
+                }
+            }
+            writer.write('\n');
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
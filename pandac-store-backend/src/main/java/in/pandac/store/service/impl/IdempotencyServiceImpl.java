@@ -0,0 +1,229 @@
+package in.pandac.store.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import in.pandac.store.entity.IdempotencyRecord;
+import in.pandac.store.exception.IdempotencyKeyException;
+import in.pandac.store.repository.IdempotencyRecordRepository;
+import in.pandac.store.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Two-level idempotency store. A bounded in-memory map of futures lets
+ * concurrent duplicates on this instance wait for the first execution and
+ * share its result; the {@code idempotency_keys} table makes the key
+ * visible to other instances and keeps responses across restarts.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Duration RETENTION = Duration.ofHours(24);
+    // a PENDING row is a lease: older than this, it belongs to a request that died or could not record its outcome
+    private static final Duration ABANDONED_AFTER = Duration.ofMinutes(5);
+    private static final long WAIT_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate ownTransaction;
+    private final Cache<String, CompletableFuture<StoredResponse>> responses = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(RETENTION)
+            .build();
+
+    private record StoredResponse(String requestHash, String body) {
+    }
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        // key bookkeeping must commit independently of the caller's transaction
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public <T> T execute(String scope, String idempotencyKey, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        // keys are per principal, so one client can never replay another client's response
+        String recordKey = sha256(scope + '\n' + currentPrincipal() + '\n' + idempotencyKey);
+        String requestHash = sha256(toJson(request));
+
+        while (true) {
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> inFlight = responses.asMap().putIfAbsent(recordKey, mine);
+            if (inFlight == null) {
+                return executeOnce(recordKey, requestHash, mine, responseType, action);
+            }
+            StoredResponse stored = await(inFlight);
+            if (stored != null) {
+                return replay(stored, requestHash, responseType);
+            }
+            // the first execution failed and released the key; try again as the owner
+        }
+    }
+
+    private <T> T executeOnce(String recordKey, String requestHash, CompletableFuture<StoredResponse> mine,
+                              Class<T> responseType, Supplier<T> action) {
+        try {
+            // a fresh key is inserted; an existing one is only taken over once its lease has run out
+            Boolean claimed = ownTransaction.execute(tx ->
+                    idempotencyRecordRepository.claim(recordKey, requestHash) > 0
+                            || idempotencyRecordRepository.takeOver(recordKey, requestHash,
+                            Instant.now().minus(ABANDONED_AFTER)) > 0);
+            if (!Boolean.TRUE.equals(claimed)) {
+                // another instance, or an earlier run, already owns the key
+                StoredResponse stored = awaitRecord(recordKey);
+                mine.complete(stored);
+                return replay(stored, requestHash, responseType);
+            }
+            T response;
+            try {
+                response = action.get();
+            } catch (RuntimeException e) {
+                ownTransaction.executeWithoutResult(tx -> idempotencyRecordRepository.deleteById(recordKey));
+                throw e;
+            }
+            StoredResponse stored = new StoredResponse(requestHash, toJson(response));
+            try {
+                ownTransaction.executeWithoutResult(tx -> idempotencyRecordRepository.complete(recordKey, stored.body()));
+            } catch (RuntimeException e) {
+                // the action already happened, so the caller gets its response; retries on this instance
+                // replay it from memory, other instances may claim the key once its lease has expired
+                log.error("Could not record the response for an idempotency key, its claim expires in {}",
+                        ABANDONED_AFTER, e);
+            }
+            mine.complete(stored);
+            return response;
+        } catch (RuntimeException e) {
+            responses.asMap().remove(recordKey, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the response of the first execution, or {@code null} if it failed
+     */
+    private StoredResponse await(CompletableFuture<StoredResponse> inFlight) {
+        try {
+            return inFlight.get(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return null;
+        } catch (TimeoutException e) {
+            throw stillRunning();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillRunning();
+        }
+    }
+
+    private StoredResponse awaitRecord(String recordKey) {
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<IdempotencyRecord> found = idempotencyRecordRepository.findById(recordKey);
+            if (found.isEmpty()) {
+                // the owner failed and released the key; let the caller retry from the top
+                throw new IdempotencyKeyException(HttpStatus.CONFLICT,
+                        "The original request with this Idempotency-Key failed; retry it");
+            }
+            IdempotencyRecord record = found.get();
+            if (IdempotencyRecord.STATUS_COMPLETED.equals(record.getStatus())) {
+                return new StoredResponse(record.getRequestHash(), record.getResponseBody());
+            }
+            if (record.getCreatedAt().isBefore(Instant.now().minus(ABANDONED_AFTER))) {
+                // the owner's lease ran out; a retry claims the key
+                throw new IdempotencyKeyException(HttpStatus.CONFLICT,
+                        "The original request with this Idempotency-Key was abandoned; retry it");
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw stillRunning();
+    }
+
+    private <T> T replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(stored.body(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is not readable", e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void purgeExpiredKeys() {
+        Instant now = Instant.now();
+        int purged = idempotencyRecordRepository.purge(now.minus(RETENTION), now.minus(ABANDONED_AFTER));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private static IdempotencyKeyException stillRunning() {
+        return new IdempotencyKeyException(HttpStatus.CONFLICT,
+                "A request with this Idempotency-Key is still being processed");
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Value cannot be serialized for idempotency", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.repository.ArchivedOrderRepository;
+import in.pandac.store.service.OrderArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps {@code orders} and {@code order_items} small: closed orders older than
+ * the retention are moved to the archive tables in chunks of {@code batchSize},
+ * one short transaction per chunk with a pause in between, so the nightly run
+ * never holds many row locks or saturates the database.
+ * <p>
+ * When the live tables are RANGE partitioned (V11), a separate daily job makes
+ * sure quarterly partitions exist well ahead of the current date; it runs
+ * whether or not archiving is enabled.
+ */
+@Slf4j
+@Service
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private static final List<String> CLOSED_STATUSES = List.of(
+            ApplicationConstants.ORDER_STATUS_CONFIRMED, ApplicationConstants.ORDER_STATUS_CANCELLED);
+    private static final List<String> PARTITIONED_TABLES = List.of("orders", "order_items");
+    // partitions are added until the last one ends at least this far in the future
+    private static final Duration PARTITION_LOOKAHEAD = Duration.ofDays(180);
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.order-archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.order-archive.retention:P180D}")
+    private Duration retention;
+
+    @Value("${app.order-archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.order-archive.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${app.order-archive.max-batches-per-run:1000}")
+    private int maxBatchesPerRun;
+
+    public OrderArchiveServiceImpl(ArchivedOrderRepository archivedOrderRepository, JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager) {
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${app.order-archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archiveClosedOrders();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.order-partitions.cron:0 0 3 * * *}")
+    public void scheduledPartitionMaintenance() {
+        try {
+            ensureFuturePartitions();
+        } catch (RuntimeException e) {
+            log.error("Adding future order partitions failed, will retry on the next run", e);
+        }
+    }
+
+    @Override
+    public int archiveClosedOrders() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            Instant cutoff = Instant.now().minus(retention);
+            int archived = 0;
+            int batches = 0;
+            for (String status : CLOSED_STATUSES) {
+                while (batches < maxBatchesPerRun) {
+                    int moved = transactionTemplate.execute(tx -> archiveChunk(status, cutoff));
+                    archived += moved;
+                    batches++;
+                    if (moved < batchSize) {
+                        break;
+                    }
+                    pause();
+                }
+            }
+            log.info("Archived {} closed orders created before {} in {} batches", archived, cutoff, batches);
+            return archived;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int archiveChunk(String status, Instant cutoff) {
+        List<Long> orderIds = archivedOrderRepository.lockArchivableOrderIds(status, cutoff, batchSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        archivedOrderRepository.copyOrderItems(orderIds);
+        archivedOrderRepository.copyOrders(orderIds, Instant.now());
+        // live order_items rows reference their order, so they go first
+        archivedOrderRepository.deleteOrderItems(orderIds);
+        return archivedOrderRepository.deleteOrders(orderIds);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Order archival interrupted", e);
+        }
+    }
+
+    /**
+     * Splits the empty p_future partition into the next quarters. Inserts must
+     * never reach p_future, or reorganizing it would have to copy rows.
+     */
+    private synchronized void ensureFuturePartitions() {
+        LocalDate horizon = LocalDate.now().plus(PARTITION_LOOKAHEAD);
+        for (String table : PARTITIONED_TABLES) {
+            List<LocalDate> bounds = jdbcTemplate.queryForList(
+                    "SELECT DATE(FROM_UNIXTIME(partition_description)) FROM information_schema.partitions "
+                            + "WHERE table_schema = DATABASE() AND table_name = ? "
+                            + "AND partition_description <> 'MAXVALUE' "
+                            + "ORDER BY partition_ordinal_position DESC LIMIT 1",
+                    LocalDate.class, table);
+            if (bounds.isEmpty()) {
+                // not partitioned
+                continue;
+            }
+            LocalDate lastBound = bounds.get(0);
+            while (lastBound.isBefore(horizon)) {
+                LocalDate nextBound = lastBound.plusMonths(3);
+                String partition = "p" + lastBound.getYear() + "q" + ((lastBound.getMonthValue() - 1) / 3 + 1);
+                jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION p_future INTO ("
+                        + "PARTITION " + partition + " VALUES LESS THAN (UNIX_TIMESTAMP('" + nextBound + " 00:00:00')), "
+                        + "PARTITION p_future VALUES LESS THAN MAXVALUE)");
+                log.info("Added partition {} to {}", partition, table);
+                lastBound = nextBound;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.catalog.DiscountCodeCache;
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.dto.OrderItemDto;
+import in.pandac.store.dto.OrderRequestDto;
+import in.pandac.store.entity.Customer;
+import in.pandac.store.entity.Order;
+import in.pandac.store.entity.OrderItem;
+import in.pandac.store.exception.InvalidQuoteException;
+import in.pandac.store.exception.ResourceNotFoundException;
+import in.pandac.store.inventory.InventoryLedger;
+import in.pandac.store.inventory.Reservation;
+import in.pandac.store.mapper.OrderMapper;
+import in.pandac.store.repository.ProductRepository;
+import in.pandac.store.repository.RedeemedQuoteRepository;
+import in.pandac.store.util.CartQuote;
+import in.pandac.store.util.QuoteTokenUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Validates order requests and turns them into {@link Order} entities; shared
+ * by synchronous order creation and the write-behind ingestion queue.
+ */
+@Component
+@RequiredArgsConstructor
+class OrderAssembler {
+
+    private final ProductRepository productRepository;
+    private final OrderMapper orderMapper;
+    private final InventoryLedger inventoryLedger;
+    private final QuoteTokenUtil quoteTokenUtil;
+    private final DiscountCodeCache discountCodeCache;
+    private final RedeemedQuoteRepository redeemedQuoteRepository;
+
+    /**
+     * Fails with {@link ResourceNotFoundException} if any product of the cart does not exist.
+     * Existence is checked against the database, never the product cache: a product deleted on
+     * another instance can stay cached here, and the order would then fail on the foreign key.
+     * A request carrying a quote token is priced from the token instead.
+     * Quoted prices hold for the lifetime of the token even if product prices or promotion
+     * rules change meanwhile; a discount code taken from the {@code discounts} table must
+     * still exist, so deleting a discount revokes the quotes that use it.
+     *
+     * @return the request to assemble; for quoted carts its prices and discount come from the quote
+     * @throws InvalidQuoteException if the quote token is invalid, expired, issued to another customer,
+     *                               does not match the cart or its discount code was deleted
+     */
+    OrderRequestDto validate(Customer customer, OrderRequestDto orderRequest) {
+        if (isQuoted(orderRequest)) {
+            return applyQuote(customer, orderRequest, quoteTokenUtil.verify(orderRequest.quoteToken()));
+        }
+        requireProducts(orderRequest.items().stream().map(OrderItemDto::productId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        return orderRequest;
+    }
+
+    // one IN-query over the primary key for the whole cart
+    private void requireProducts(Set<Long> productIds) {
+        Set<Long> existing = productRepository.findExistingIds(productIds);
+        productIds.stream().filter(productId -> !existing.contains(productId)).findFirst()
+                .ifPresent(productId -> {
+                    throw new ResourceNotFoundException("Product", "ProductID", String.valueOf(productId));
+                });
+    }
+
+    // the token only vouches for the products and quantities it was issued for
+    private OrderRequestDto applyQuote(Customer customer, OrderRequestDto orderRequest, CartQuote quote) {
+        if (quote.customer() == null || !quote.customer().equals(customer.getEmail())) {
+            throw new InvalidQuoteException("Quote was not issued to this customer, please re-price the cart");
+        }
+        Map<Long, CartQuote.Line> lines = quote.lines().stream()
+                .collect(Collectors.toMap(CartQuote.Line::productId, line -> line));
+        Map<Long, Integer> quoted = lines.values().stream()
+                .collect(Collectors.toMap(CartQuote.Line::productId, CartQuote.Line::quantity));
+        if (!quoted.equals(quantities(orderRequest.items()))) {
+            throw new InvalidQuoteException("Quote does not match the cart");
+        }
+        if (quote.discountCode() != null && !quote.promotionCode()
+                && discountCodeCache.get(quote.discountCode()).isEmpty()) {
+            throw new InvalidQuoteException("Discount code of the quote is no longer valid, please re-price the cart");
+        }
+        // the products may have been deleted after the quote was issued
+        requireProducts(lines.keySet());
+        List<OrderItemDto> items = orderRequest.items().stream()
+                .map(item -> new OrderItemDto(item.productId(), item.quantity(),
+                        BigDecimal.valueOf(lines.get(item.productId()).unitCents(), 2)))
+                .toList();
+        return new OrderRequestDto(BigDecimal.valueOf(quote.totalCents(), 2), orderRequest.paymentId(),
+                orderRequest.paymentStatus(), BigDecimal.valueOf(quote.discountCents(), 2), quote.discountCode(),
+                items, orderRequest.reservationId(), orderRequest.quoteToken());
+    }
+
+    /**
+     * Holds stock for the cart, taking over the customer's checkout reservation if the request carries one.
+     *
+     * @return the reservation to settle once the order is written, {@code null} if nothing is stock-tracked
+     */
+    Reservation reserveStock(Customer customer, OrderRequestDto orderRequest) {
+        return inventoryLedger.reserveOrRenew(customer.getCustomerId(), orderRequest.reservationId(),
+                quantities(orderRequest.items()));
+    }
+
+    static Map<Long, Integer> quantities(List<OrderItemDto> items) {
+        return items.stream().collect(Collectors.toMap(OrderItemDto::productId, OrderItemDto::quantity,
+                Integer::sum, LinkedHashMap::new));
+    }
+
+    private static boolean isQuoted(OrderRequestDto orderRequest) {
+        return orderRequest.quoteToken() != null && !orderRequest.quoteToken().isBlank();
+    }
+
+    /**
+     * Builds a new order for an already validated request. Must run inside a transaction,
+     * which also redeems the request's quote: a quote prices one order only.
+     *
+     * @throws InvalidQuoteException if the quote was already used for another order
+     */
+    Order assemble(Customer customer, OrderRequestDto orderRequest) {
+        if (isQuoted(orderRequest)
+                && !redeemedQuoteRepository.redeem(QuoteTokenUtil.fingerprint(orderRequest.quoteToken()))) {
+            throw new InvalidQuoteException("Quote was already used for an order, please re-price the cart");
+        }
+        // Create Order
+        Order order = orderMapper.toEntity(orderRequest);
+        order.setCustomer(customer);
+        order.setOrderStatus(ApplicationConstants.ORDER_STATUS_CREATED);
+        // Map OrderItems; existence is checked by validate, so a reference avoids loading the product row
+        List<OrderItem> orderItems = orderRequest.items().stream().map(item -> {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setProduct(productRepository.getReferenceById(item.productId()));
+            orderItem.setQuantity(item.quantity());
+            orderItem.setPrice(item.price());
+            return orderItem;
+        }).collect(Collectors.toList());
+        order.setOrderItems(orderItems);
+        return order;
+    }
+}
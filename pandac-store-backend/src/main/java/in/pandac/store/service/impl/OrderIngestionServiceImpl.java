@@ -0,0 +1,245 @@
+package in.pandac.store.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import in.pandac.store.dto.OrderIngestionState;
+import in.pandac.store.dto.OrderRequestDto;
+import in.pandac.store.dto.OrderTicketDto;
+import in.pandac.store.entity.Customer;
+import in.pandac.store.entity.Order;
+import in.pandac.store.event.OrderChangedEvent;
+import in.pandac.store.event.OrderOutboxEvent;
+import in.pandac.store.exception.OrderQueueFullException;
+import in.pandac.store.inventory.InventoryLedger;
+import in.pandac.store.inventory.Reservation;
+import in.pandac.store.repository.CustomerRepository;
+import in.pandac.store.repository.OrderOutboxRepository;
+import in.pandac.store.service.OrderIngestionService;
+import in.pandac.store.service.ProfileService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind order ingestion for traffic peaks. Requests are validated and
+ * queued in memory, and acknowledged at once with a provisional id. A single
+ * writer thread drains the queue and commits up to {@code maxBatch} orders per
+ * transaction, so one commit is paid for many orders. When the queue is full,
+ * callers get {@link OrderQueueFullException} (429) instead of piling up.
+ * <p>
+ * Queued orders live only in memory until written; the mode is off unless
+ * {@code app.order-ingestion.enabled} is set.
+ */
+@Slf4j
+@Service
+public class OrderIngestionServiceImpl implements OrderIngestionService {
+
+    private static final Duration TICKET_RETENTION = Duration.ofHours(1);
+
+    private final OrderAssembler orderAssembler;
+    private final ProfileService profileService;
+    private final CustomerRepository customerRepository;
+    private final InventoryLedger inventoryLedger;
+    private final EntityManager entityManager;
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final BlockingQueue<PendingOrder> queue;
+    private final Cache<String, Ticket> tickets = Caffeine.newBuilder()
+            .expireAfterWrite(TICKET_RETENTION)
+            .maximumSize(200_000)
+            .build();
+
+    private volatile boolean running = true;
+    private Thread writer;
+
+    private record PendingOrder(String provisionalId, Long customerId, String customerEmail,
+                                OrderRequestDto request, Reservation reservation) {
+    }
+
+    private record Ticket(String customerEmail, OrderTicketDto status) {
+    }
+
+    public OrderIngestionServiceImpl(OrderAssembler orderAssembler, ProfileService profileService,
+                                     CustomerRepository customerRepository, InventoryLedger inventoryLedger,
+                                     EntityManager entityManager,
+                                     OrderOutboxRepository orderOutboxRepository,
+                                     ApplicationEventPublisher eventPublisher,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.order-ingestion.enabled:false}") boolean enabled,
+                                     @Value("${app.order-ingestion.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${app.order-ingestion.max-batch:200}") int maxBatch) {
+        this.orderAssembler = orderAssembler;
+        this.profileService = profileService;
+        this.customerRepository = customerRepository;
+        this.inventoryLedger = inventoryLedger;
+        this.entityManager = entityManager;
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        writer = new Thread(this::drain, "order-ingestion-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public OrderTicketDto submit(OrderRequestDto orderRequest) {
+        Customer customer = profileService.getAuthenticatedCustomer();
+        orderRequest = orderAssembler.validate(customer, orderRequest);
+        // stock is held from acknowledgement until the writer commits or drops the order
+        Reservation reservation = orderAssembler.reserveStock(customer, orderRequest);
+        String provisionalId = UUID.randomUUID().toString();
+        OrderTicketDto queued = new OrderTicketDto(provisionalId, OrderIngestionState.QUEUED, null, null);
+        tickets.put(provisionalId, new Ticket(customer.getEmail(), queued));
+        if (!running || !queue.offer(new PendingOrder(provisionalId, customer.getCustomerId(),
+                customer.getEmail(), orderRequest, reservation))) {
+            tickets.invalidate(provisionalId);
+            if (reservation != null) {
+                inventoryLedger.release(reservation);
+            }
+            throw new OrderQueueFullException();
+        }
+        return queued;
+    }
+
+    @Override
+    public Optional<OrderTicketDto> getTicket(String provisionalId) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return Optional.ofNullable(tickets.getIfPresent(provisionalId))
+                .filter(ticket -> ticket.customerEmail().equals(email))
+                .map(Ticket::status);
+    }
+
+    private void drain() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // whatever piled up while the previous batch was committing goes into this one
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // shutdown: keep draining what is already queued
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Order ingestion writer failed on a batch of {} orders", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingOrder> batch) {
+        try {
+            List<Order> orders = transactionTemplate.execute(status -> persist(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                persisted(batch.get(i), orders.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                failed(batch.get(0), e);
+                return;
+            }
+            // one bad order must not sink the others: retry each on its own
+            log.warn("Group commit of {} orders failed, retrying individually", batch.size(), e);
+            for (PendingOrder pending : batch) {
+                writeBatch(List.of(pending));
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private List<Order> persist(List<PendingOrder> batch) {
+        List<Order> orders = new ArrayList<>(batch.size());
+        for (PendingOrder pending : batch) {
+            // auditing reads the current principal, so attribute each order to its customer
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(pending.customerEmail(), null, List.of()));
+            Order order = orderAssembler.assemble(
+                    customerRepository.getReferenceById(pending.customerId()), pending.request());
+            entityManager.persist(order);
+            orders.add(order);
+            if (pending.reservation() != null) {
+                // fails the commit if an expired reservation can no longer be covered
+                inventoryLedger.confirmOnCommit(pending.reservation());
+            }
+        }
+        entityManager.flush();
+        List<OrderOutboxEvent> outboxEvents = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            outboxEvents.add(OrderOutboxEvent.created(order.getOrderId(), order.getOrderStatus(),
+                    order.getTotalPrice(), OrderAssembler.quantities(batch.get(i).request().items())));
+        }
+        orderOutboxRepository.append(outboxEvents);
+        orders.forEach(order -> eventPublisher.publishEvent(OrderChangedEvent.created(order.getOrderId(),
+                order.getOrderStatus(), order.getTotalPrice())));
+        entityManager.clear();
+        return orders;
+    }
+
+    private void persisted(PendingOrder pending, Order order) {
+        tickets.put(pending.provisionalId(), new Ticket(pending.customerEmail(),
+                new OrderTicketDto(pending.provisionalId(), OrderIngestionState.PERSISTED, order.getOrderId(), null)));
+    }
+
+    private void failed(PendingOrder pending, RuntimeException e) {
+        if (pending.reservation() != null) {
+            inventoryLedger.release(pending.reservation());
+        }
+        String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        log.warn("Queued order {} could not be written: {}", pending.provisionalId(), reason);
+        tickets.put(pending.provisionalId(), new Ticket(pending.customerEmail(),
+                new OrderTicketDto(pending.provisionalId(), OrderIngestionState.FAILED, null, reason)));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            // lets the writer flush what was already acknowledged
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+}
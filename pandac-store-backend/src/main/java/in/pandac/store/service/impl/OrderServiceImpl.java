@@ -2,24 +2,47 @@ package in.pandac.store.service.impl;
 
 import in.pandac.store.constants.ApplicationConstants;
 import in.pandac.store.dto.OrderItemReponseDto;
+import in.pandac.store.dto.OrderPageDto;
 import in.pandac.store.dto.OrderRequestDto;
 import in.pandac.store.dto.OrderResponseDto;
+import in.pandac.store.dto.OrderStatusBulkRequestDto;
+import in.pandac.store.dto.OrderStatusBulkResultDto;
+import in.pandac.store.dto.OrderStatusOutcome;
+import in.pandac.store.dto.OrderStatusResultDto;
 import in.pandac.store.entity.Customer;
 import in.pandac.store.entity.Order;
-import in.pandac.store.entity.OrderItem;
-import in.pandac.store.entity.Product;
+import in.pandac.store.event.OrderChangedEvent;
+import in.pandac.store.event.OrderOutboxEvent;
+import in.pandac.store.exception.OrderStatusConflictException;
 import in.pandac.store.exception.ResourceNotFoundException;
+import in.pandac.store.inventory.InventoryLedger;
+import in.pandac.store.repository.ArchivedOrderRepository;
+import in.pandac.store.repository.OrderOutboxRepository;
 import in.pandac.store.repository.OrderRepository;
-import in.pandac.store.repository.ProductRepository;
+import in.pandac.store.repository.projection.OrderItemView;
+import in.pandac.store.repository.projection.OrderStatusView;
+import in.pandac.store.repository.projection.OrderSummaryView;
 import in.pandac.store.service.OrderService;
 import in.pandac.store.service.ProfileService;
+import in.pandac.store.util.OrderCursor;
+import in.pandac.store.util.OrderStatusTransitions;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,75 +50,256 @@ import java.util.stream.Collectors;
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final OrderAssembler orderAssembler;
+    private final InventoryLedger inventoryLedger;
     private final ProfileService profileService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
+    // One transaction so the order and all its items are flushed together as JDBC batches
+    @Transactional
     @Override
     public void createOrder(OrderRequestDto orderRequest) {
         Customer customer = profileService.getAuthenticatedCustomer();
-        // Create Order
-        Order order = new Order();
-        order.setCustomer(customer);
-        BeanUtils.copyProperties(orderRequest, order);
-        order.setOrderStatus(ApplicationConstants.ORDER_STATUS_CREATED);
-        // Map OrderItems
-        List<OrderItem> orderItems = orderRequest.items().stream().map(item -> {
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            Product product = productRepository.findById(item.productId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "ProductID",
-                            item.productId().toString()));
-            orderItem.setProduct(product);
-            orderItem.setQuantity(item.quantity());
-            orderItem.setPrice(item.price());
-            return orderItem;
-        }).collect(Collectors.toList());
-        order.setOrderItems(orderItems);
-        orderRepository.save(order);
-
+        orderRequest = orderAssembler.validate(customer, orderRequest);
+        // stock is taken from the in-memory ledger, never by locking product rows
+        inventoryLedger.settleWithTransaction(orderAssembler.reserveStock(customer, orderRequest));
+        Order order = orderAssembler.assemble(customer, orderRequest);
+        Order savedOrder = orderRepository.save(order);
+        orderOutboxRepository.append(List.of(OrderOutboxEvent.created(savedOrder.getOrderId(),
+                savedOrder.getOrderStatus(), savedOrder.getTotalPrice(),
+                OrderAssembler.quantities(orderRequest.items()))));
+        eventPublisher.publishEvent(OrderChangedEvent.created(savedOrder.getOrderId(),
+                savedOrder.getOrderStatus(), savedOrder.getTotalPrice()));
     }
 
+    // Both projections run in one read-only transaction so items always match their headers
+    @Transactional(readOnly = true)
     @Override
     public List<OrderResponseDto> getCustomerOrders() {
         Customer customer =profileService.getAuthenticatedCustomer();
-        List<Order> orders = orderRepository.findOrdersByCustomerWithNativeQuery(customer.getCustomerId());
-        return orders.stream().map(this::mapToOrderResponseDTO).collect(Collectors.toList());
+        return assembleOrders(orderRepository.findOrderSummariesByCustomer(customer.getCustomerId()),
+                orderRepository.findOrderItemsByCustomer(customer.getCustomerId()));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<OrderResponseDto> getAllPendingOrders() {
-        List<Order> orders = orderRepository.findOrdersByStatusWithNativeQuery(ApplicationConstants.ORDER_STATUS_CREATED);
-        return orders.stream().map(this::mapToOrderResponseDTO).collect(Collectors.toList());
+        String status = ApplicationConstants.ORDER_STATUS_CREATED;
+        return assembleOrders(orderRepository.findOrderSummariesByStatus(status),
+                orderRepository.findOrderItemsByStatus(status));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public OrderPageDto getCustomerOrderPage(String cursor, int size) {
+        Customer customer = profileService.getAuthenticatedCustomer();
+        OrderCursor after = decodeCursor(cursor);
+        Limit limit = pageLimit(size);
+        List<OrderSummaryView> rows = after == null
+                ? orderRepository.findCustomerOrderPage(customer.getCustomerId(), limit)
+                : orderRepository.findCustomerOrderPageAfter(customer.getCustomerId(),
+                        after.createdAt(), after.orderId(), limit);
+        return toPage(rows, limit.max() - 1, orderRepository::findOrderItemsByOrderIds);
+    }
+
+    // Orders moved out of the live tables by the archiver, same keyset as the live history
+    @Transactional(readOnly = true)
+    @Override
+    public OrderPageDto getArchivedOrderPage(String cursor, int size) {
+        Customer customer = profileService.getAuthenticatedCustomer();
+        OrderCursor after = decodeCursor(cursor);
+        Limit limit = pageLimit(size);
+        List<OrderSummaryView> rows = after == null
+                ? archivedOrderRepository.findCustomerOrderPage(customer.getCustomerId(), limit)
+                : archivedOrderRepository.findCustomerOrderPageAfter(customer.getCustomerId(),
+                        after.createdAt(), after.orderId(), limit);
+        return toPage(rows, limit.max() - 1, archivedOrderRepository::findOrderItemsByOrderIds);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public OrderPageDto getPendingOrderPage(String cursor, int size) {
+        String status = ApplicationConstants.ORDER_STATUS_CREATED;
+        OrderCursor after = decodeCursor(cursor);
+        Limit limit = pageLimit(size);
+        List<OrderSummaryView> rows = after == null
+                ? orderRepository.findStatusOrderPage(status, limit)
+                : orderRepository.findStatusOrderPageAfter(status, after.createdAt(), after.orderId(), limit);
+        return toPage(rows, limit.max() - 1, orderRepository::findOrderItemsByOrderIds);
+    }
+
+    private static OrderCursor decodeCursor(String cursor) {
+        return cursor != null && !cursor.isBlank() ? OrderCursor.decode(cursor) : null;
+    }
+
+    // One extra row tells whether another page exists without a COUNT query
+    private static Limit pageLimit(int size) {
+        return Limit.of(Math.max(1, Math.min(size, ApplicationConstants.ORDER_PAGE_MAX_SIZE)) + 1);
+    }
+
+    private OrderPageDto toPage(List<OrderSummaryView> rows, int pageSize,
+                                Function<List<Long>, List<OrderItemView>> itemLoader) {
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderSummaryView> page = hasMore ? rows.subList(0, pageSize) : rows;
+        if (page.isEmpty()) {
+            return new OrderPageDto(List.of(), null, false);
+        }
+        List<Long> orderIds = page.stream().map(OrderSummaryView::orderId).toList();
+        List<OrderResponseDto> orders = assembleOrders(page, itemLoader.apply(orderIds));
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummaryView last = page.get(page.size() - 1);
+            nextCursor = new OrderCursor(last.createdAt(), last.orderId()).encode();
+        }
+        return new OrderPageDto(orders, nextCursor, hasMore);
     }
 
+    @Transactional
     @Override
-    public void updateOrderStatus(Long orderId, String orderStatus) {
+    public void updateOrderStatus(Long orderId, String orderStatus, Long expectedVersion) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        orderRepository.updateOrderStatus(orderId,orderStatus,email);
+        int updated = orderRepository.transitionOrderStatus(orderId, orderStatus,
+                OrderStatusTransitions.sourcesOf(orderStatus), expectedVersion, Instant.now(), email);
+        if (updated == 0) {
+            // only the losing path pays for a read, to tell the caller what it lost against
+            OrderStatusView current = orderRepository.findOrderStatuses(List.of(orderId)).stream().findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Order", "OrderID", orderId.toString()));
+            throw new OrderStatusConflictException(orderId, orderStatus, current.orderStatus(), current.version());
+        }
+        orderOutboxRepository.append(List.of(OrderOutboxEvent.statusChanged(orderId, orderStatus)));
+        eventPublisher.publishEvent(OrderChangedEvent.statusChanged(orderId, orderStatus));
+    }
+
+    /**
+     * Moves many orders at once. Ids are processed in chunks, each in its own
+     * short transaction: a plain SELECT finds the orders still in the expected
+     * status and one conditional UPDATE ... IN moves them. If its count shows
+     * that a concurrent change got in between, the chunk is rolled back and
+     * redone with one conditional UPDATE per order, so every UPDATED outcome
+     * comes from this request's own write. All chunks share one audit timestamp.
+     */
+    @Override
+    public OrderStatusBulkResultDto updateOrderStatuses(OrderStatusBulkRequestDto request) {
+        String status = request.status();
+        String expectedStatus = request.expectedStatus() != null
+                ? request.expectedStatus() : ApplicationConstants.ORDER_STATUS_CREATED;
+        if (!OrderStatusTransitions.isAllowed(expectedStatus, status)) {
+            throw new IllegalArgumentException("Orders cannot move from " + expectedStatus + " to " + status);
+        }
+        List<Long> orderIds = new ArrayList<>(new LinkedHashSet<>(request.orderIds()));
+        orderIds.remove(null);
+        String updatedBy = SecurityContextHolder.getContext().getAuthentication().getName();
+        Instant updatedAt = Instant.now();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<OrderStatusResultDto> results = new ArrayList<>(orderIds.size());
+        for (int from = 0; from < orderIds.size(); from += ApplicationConstants.ORDER_STATUS_BULK_CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(from,
+                    Math.min(from + ApplicationConstants.ORDER_STATUS_BULK_CHUNK_SIZE, orderIds.size()));
+            List<OrderStatusResultDto> chunkResults = transactionTemplate.execute(tx -> {
+                List<OrderStatusResultDto> moved = updateChunk(chunk, status, expectedStatus, updatedAt, updatedBy);
+                if (moved == null) {
+                    tx.setRollbackOnly();
+                    return null;
+                }
+                return recordMoved(moved, status);
+            });
+            if (chunkResults == null) {
+                chunkResults = transactionTemplate.execute(tx -> recordMoved(
+                        updateChunkPerOrder(chunk, status, expectedStatus, updatedAt, updatedBy), status));
+            }
+            results.addAll(chunkResults);
+        }
+
+        int updated = 0;
+        for (OrderStatusResultDto result : results) {
+            if (result.outcome() == OrderStatusOutcome.UPDATED) {
+                updated++;
+                eventPublisher.publishEvent(OrderChangedEvent.statusChanged(result.orderId(), status));
+            }
+        }
+        return new OrderStatusBulkResultDto(orderIds.size(), updated, updatedAt, results);
+    }
+
+    /**
+     * @return the outcome of every id, or {@code null} if the UPDATE moved fewer
+     * orders than were eligible, in which case the caller must roll back
+     */
+    private List<OrderStatusResultDto> updateChunk(List<Long> chunk, String status, String expectedStatus,
+                                                   Instant updatedAt, String updatedBy) {
+        Map<Long, String> currentStatuses = orderRepository.findOrderStatuses(chunk).stream()
+                .collect(Collectors.toMap(OrderStatusView::orderId, OrderStatusView::orderStatus));
+        List<Long> eligible = chunk.stream()
+                .filter(orderId -> expectedStatus.equals(currentStatuses.get(orderId)))
+                .toList();
+        // every row the UPDATE counts is an eligible one it moved, so a full count attributes all of them
+        if (!eligible.isEmpty() && orderRepository.transitionOrderStatuses(eligible, status, expectedStatus,
+                updatedAt, updatedBy) != eligible.size()) {
+            return null;
+        }
+        return outcomes(chunk, Set.copyOf(eligible), currentStatuses, status);
+    }
+
+    // contended chunks only: the count of each single-row UPDATE says whether this request moved it
+    private List<OrderStatusResultDto> updateChunkPerOrder(List<Long> chunk, String status, String expectedStatus,
+                                                           Instant updatedAt, String updatedBy) {
+        Set<Long> moved = chunk.stream()
+                .filter(orderId -> orderRepository.transitionOrderStatus(orderId, status, List.of(expectedStatus),
+                        null, updatedAt, updatedBy) == 1)
+                .collect(Collectors.toSet());
+        List<Long> notMoved = chunk.stream().filter(orderId -> !moved.contains(orderId)).toList();
+        Map<Long, String> currentStatuses = notMoved.isEmpty() ? Map.of()
+                : orderRepository.findOrderStatuses(notMoved).stream()
+                .collect(Collectors.toMap(OrderStatusView::orderId, OrderStatusView::orderStatus));
+        return outcomes(chunk, moved, currentStatuses, status);
+    }
+
+    private static List<OrderStatusResultDto> outcomes(List<Long> chunk, Set<Long> moved,
+                                                       Map<Long, String> currentStatuses, String status) {
+        return chunk.stream().map(orderId -> {
+            if (moved.contains(orderId)) {
+                return new OrderStatusResultDto(orderId, OrderStatusOutcome.UPDATED, status);
+            }
+            String current = currentStatuses.get(orderId);
+            return new OrderStatusResultDto(orderId,
+                    current == null ? OrderStatusOutcome.NOT_FOUND : OrderStatusOutcome.CONFLICT, current);
+        }).toList();
+    }
+
+    // runs in the chunk's transaction, so the outbox rows move together with the orders
+    private List<OrderStatusResultDto> recordMoved(List<OrderStatusResultDto> results, String status) {
+        List<Long> movedIds = results.stream()
+                .filter(result -> result.outcome() == OrderStatusOutcome.UPDATED)
+                .map(OrderStatusResultDto::orderId)
+                .toList();
+        orderOutboxRepository.append(movedIds.stream()
+                .map(orderId -> OrderOutboxEvent.statusChanged(orderId, status))
+                .toList());
+        return results;
     }
 
     /**
-     * Map Order entity to OrderResponseDto
+     * Stitch the flat item rows onto their order headers, keeping header order
      */
-    private OrderResponseDto mapToOrderResponseDTO(Order order) {
-        // Map Order Items
-        List<OrderItemReponseDto> itemDTOs = order.getOrderItems().stream()
-                .map(this::mapToOrderItemResponseDTO)
+    private List<OrderResponseDto> assembleOrders(List<OrderSummaryView> orders, List<OrderItemView> items) {
+        Map<Long, List<OrderItemReponseDto>> itemsByOrder = items.stream()
+                .collect(Collectors.groupingBy(OrderItemView::orderId, Collectors.mapping(
+                        this::mapToOrderItemResponseDTO, Collectors.toList())));
+        return orders.stream().map(order -> new OrderResponseDto(order.orderId(), order.orderStatus(),
+                        order.totalPrice(), order.createdAt().toString(),
+                        itemsByOrder.getOrDefault(order.orderId(), List.of())))
                 .collect(Collectors.toList());
-        OrderResponseDto orderResponseDto = new OrderResponseDto(order.getOrderId()
-                , order.getOrderStatus(), order.getTotalPrice(), order.getCreatedAt().toString()
-                , itemDTOs);
-        return orderResponseDto;
     }
 
     /**
-     * Map OrderItem entity to OrderItemResponseDto
+     * Map an order item row to OrderItemResponseDto
      */
-    private OrderItemReponseDto mapToOrderItemResponseDTO(OrderItem orderItem) {
-        OrderItemReponseDto itemDTO = new OrderItemReponseDto(
-                orderItem.getProduct().getName(), orderItem.getQuantity(),
-                orderItem.getPrice(), orderItem.getProduct().getImageUrl());
-        return itemDTO;
+    private OrderItemReponseDto mapToOrderItemResponseDTO(OrderItemView orderItem) {
+        return new OrderItemReponseDto(orderItem.productName(), orderItem.quantity(),
+                orderItem.price(), orderItem.imageUrl());
     }
 }
@@ -2,24 +2,33 @@ package in.pandac.store.service.impl;
 
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.PaymentIntentCreateParams;
 import in.pandac.store.dto.PaymentIntentRequestDto;
 import in.pandac.store.dto.PaymentIntentResponseDto;
 import in.pandac.store.service.PaymentService;
+import in.pandac.store.service.ProfileService;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 @Service
+@RequiredArgsConstructor
 public class PaymentServiceImpl implements PaymentService {
 
+    private final ProfileService profileService;
 
     @Override
-    public PaymentIntentResponseDto createPaymentIntent(PaymentIntentRequestDto requestDto) {
+    public PaymentIntentResponseDto createPaymentIntent(PaymentIntentRequestDto requestDto, String idempotencyKey) {
         try {
             PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
                     .setAmount(requestDto.amount())
                     .setCurrency(requestDto.currency())
                     .addPaymentMethodType("card").build();
-            PaymentIntent paymentIntent = PaymentIntent.create(params);
+            // Stripe keys are account-wide, so bind the client's key to the caller
+            String stripeKey = idempotencyKey == null ? null
+                    : profileService.getAuthenticatedCustomer().getCustomerId() + ":" + idempotencyKey;
+            RequestOptions options = RequestOptions.builder().setIdempotencyKey(stripeKey).build();
+            PaymentIntent paymentIntent = PaymentIntent.create(params, options);
             return new PaymentIntentResponseDto(paymentIntent.getClientSecret());
         } catch (StripeException e) {
             throw new RuntimeException("Failed to create payment intent", e);
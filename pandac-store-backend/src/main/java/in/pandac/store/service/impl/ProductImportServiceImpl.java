@@ -0,0 +1,277 @@
+package in.pandac.store.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.dto.ProductImportErrorDto;
+import in.pandac.store.dto.ProductImportFormat;
+import in.pandac.store.dto.ProductImportResultDto;
+import in.pandac.store.entity.Product;
+import in.pandac.store.event.ProductChangedEvent;
+import in.pandac.store.service.ProductImportService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+    // Bounds the error report so a completely broken file cannot exhaust memory
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+    static final String REJECTED_BY_CONSTRAINT = "Rejected by database: the row violates a constraint";
+    static final String REJECTED_BY_DATABASE = "Rejected by database: the row could not be stored";
+
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.product-import.batch-size:500}")
+    private int batchSize;
+
+    private record PendingRow(long line, Product product) {
+    }
+
+    @Override
+    public ProductImportResultDto importProducts(InputStream input, ProductImportFormat format) {
+        ImportReport report = new ImportReport();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<PendingRow> chunk = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            Map<String, Integer> columns = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == ProductImportFormat.CSV && columns == null) {
+                    columns = readCsvHeader(line);
+                    continue;
+                }
+                report.totalRows++;
+                try {
+                    Product product = format == ProductImportFormat.CSV
+                            ? parseCsvRow(line, columns) : parseJsonRow(line);
+                    chunk.add(new PendingRow(lineNumber, product));
+                } catch (IllegalArgumentException e) {
+                    report.fail(lineNumber, e.getMessage());
+                }
+                if (chunk.size() >= batchSize) {
+                    persistChunk(chunk, transactionTemplate, report);
+                    chunk.clear();
+                }
+            }
+            persistChunk(chunk, transactionTemplate, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read product import stream", e);
+        } finally {
+            if (report.imported > 0) {
+                eventPublisher.publishEvent(ProductChangedEvent.reloaded());
+            }
+        }
+        log.info("Product import finished: {} rows, {} imported, {} failed",
+                report.totalRows, report.imported, report.failed);
+        return report.toDto();
+    }
+
+    /**
+     * Inserts one chunk in its own transaction. Hibernate groups the INSERTs
+     * into JDBC batches of {@code batchSize}; the persistence context is
+     * cleared afterwards so memory stays flat over the whole import. If the
+     * database rejects the chunk, its rows are retried one by one so only the
+     * offending rows are reported.
+     */
+    private void persistChunk(List<PendingRow> chunk, TransactionTemplate transactionTemplate,
+                              ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                for (PendingRow row : chunk) {
+                    entityManager.persist(row.product());
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            report.imported += chunk.size();
+        } catch (RuntimeException e) {
+            // ids handed out by the rolled-back attempt must not be reused, or persist sees detached rows
+            chunk.forEach(row -> row.product().setId(null));
+            if (chunk.size() > 1) {
+                // one bad row must not sink the others: retry each on its own
+                log.warn("Product import chunk of {} rows rolled back, retrying row by row", chunk.size(), e);
+                for (PendingRow row : chunk) {
+                    persistChunk(List.of(row), transactionTemplate, report);
+                }
+                return;
+            }
+            // the driver message names tables and constraints, so it only goes to the log
+            log.warn("Product import row on line {} rejected", chunk.get(0).line(), e);
+            report.fail(chunk.get(0).line(), e instanceof DataIntegrityViolationException
+                    ? REJECTED_BY_CONSTRAINT : REJECTED_BY_DATABASE);
+        }
+    }
+
+    private Map<String, Integer> readCsvHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsvLine(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "description", "price", "imageurl")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column '" + required + "'");
+            }
+        }
+        return columns;
+    }
+
+    private Product parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsvLine(line);
+        String popularity = column(values, columns, "popularity");
+        return toProduct(column(values, columns, "name"), column(values, columns, "description"),
+                parseNumber(column(values, columns, "price"), "price"),
+                popularity == null || popularity.isBlank() ? null : parseNumber(popularity, "popularity"),
+                column(values, columns, "imageurl"));
+    }
+
+    private Product parseJsonRow(String line) {
+        try {
+            ProductDto productDto = objectMapper.readValue(line, ProductDto.class);
+            return toProduct(productDto.getName(), productDto.getDescription(), productDto.getPrice(),
+                    productDto.getPopularity() == null ? null : BigDecimal.valueOf(productDto.getPopularity()),
+                    productDto.getImageUrl());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Product toProduct(String name, String description, BigDecimal price,
+                              BigDecimal popularity, String imageUrl) {
+        requireText(name, "name", 250);
+        requireText(description, "description", 500);
+        requireText(imageUrl, "imageUrl", 500);
+        if (price == null || price.signum() < 0 || price.compareTo(MAX_PRICE) > 0 || price.scale() > 2) {
+            throw new IllegalArgumentException("price must be between 0 and " + MAX_PRICE + " with at most 2 decimals");
+        }
+        int popularityValue;
+        try {
+            popularityValue = popularity == null ? 0 : popularity.intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("popularity must be a whole number");
+        }
+        if (popularityValue < 0) {
+            throw new IllegalArgumentException("popularity must not be negative");
+        }
+        Product product = new Product();
+        product.setName(name.trim());
+        product.setDescription(description.trim());
+        product.setPrice(price);
+        product.setPopularity(popularityValue);
+        product.setImageUrl(imageUrl.trim());
+        return product;
+    }
+
+    private static void requireText(String value, String field, int maxLength) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        if (value.trim().length() > maxLength) {
+            throw new IllegalArgumentException(field + " must be at most " + maxLength + " characters");
+        }
+    }
+
+    private static BigDecimal parseNumber(String value, String field) {
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException(field + " is not a number: '" + value + "'");
+        }
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= values.size() ? null : values.get(index);
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields with "" escapes.
+     * Quoted fields may contain commas but not line breaks.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static final class ImportReport {
+        private long totalRows;
+        private long imported;
+        private long failed;
+        private final List<ProductImportErrorDto> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportErrorDto(line, message));
+            }
+        }
+
+        ProductImportResultDto toDto() {
+            return new ProductImportResultDto(totalRows, imported, failed, List.copyOf(errors));
+        }
+    }
+}
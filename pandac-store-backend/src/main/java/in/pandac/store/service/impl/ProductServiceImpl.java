@@ -1,42 +1,141 @@
 package in.pandac.store.service.impl;
 
+import in.pandac.store.catalog.CatalogSnapshot;
+import in.pandac.store.catalog.CatalogSnapshotHolder;
+import in.pandac.store.catalog.ProductByIdCache;
+import in.pandac.store.catalog.ProductCatalogLoader;
+import in.pandac.store.catalog.ProductSearchIndex;
+import in.pandac.store.constants.ApplicationConstants;
 import in.pandac.store.dto.ProductDto;
+import in.pandac.store.dto.ProductPageDto;
+import in.pandac.store.dto.ProductSort;
 import in.pandac.store.entity.Product;
+import in.pandac.store.event.ProductChangedEvent;
 import in.pandac.store.exception.FileUploadException;
+import in.pandac.store.exception.ResourceInUseException;
+import in.pandac.store.mapper.ProductMapper;
+import in.pandac.store.repository.OrderRepository;
 import in.pandac.store.repository.ProductRepository;
 import in.pandac.store.service.GitService;
 import in.pandac.store.service.ProductService;
+import in.pandac.store.util.ProductCursor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.BeanUtils;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    // Upper bound of PRODUCTS.PRICE DECIMAL(10, 2), used when no max price filter is given
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
     private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
     private final GitService gitService;
-
-    @Cacheable("products")
+    private final ProductCatalogLoader productCatalogLoader;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogSnapshotHolder catalogSnapshotHolder;
+    private final ProductByIdCache productByIdCache;
+    private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // sync = true lets exactly one caller load a cold catalog while the others wait on it
+    @Cacheable(value = "products", sync = true)
     @Override
     public List<ProductDto> getProducts() {
-        return productRepository.findAll()
-                .stream().map(this::transformToDTO).collect(Collectors.toList());
+        return productCatalogLoader.loadCatalog();
+    }
+
+    // keyed by snapshot version: a page computed while the snapshot is being replaced is never served after it
+    @Cacheable(value = "productPages",
+            key = "{@catalogSnapshotHolder.version(), #sort, #cursor, #size, #minPrice, #maxPrice}")
+    @Override
+    public ProductPageDto getProductPage(ProductSort sort, String cursor, int size,
+                                         BigDecimal minPrice, BigDecimal maxPrice) {
+        int pageSize = Math.max(1, Math.min(size, ApplicationConstants.PRODUCT_PAGE_MAX_SIZE));
+        BigDecimal lower = minPrice != null ? minPrice : BigDecimal.ZERO;
+        BigDecimal upper = maxPrice != null ? maxPrice : MAX_PRICE;
+        ProductCursor after = cursor != null && !cursor.isBlank() ? ProductCursor.decode(cursor, sort) : null;
+
+        CatalogSnapshot snapshot = catalogSnapshotHolder.current();
+        if (snapshot != null) {
+            return snapshot.page(sort, after, pageSize, CatalogSnapshot.toCents(lower), CatalogSnapshot.toCents(upper));
+        }
+        return loadPageFromDatabase(sort, after, pageSize, lower, upper);
+    }
+
+    // Used until the first catalog snapshot has been built
+    private ProductPageDto loadPageFromDatabase(ProductSort sort, ProductCursor after, int pageSize,
+                                                BigDecimal lower, BigDecimal upper) {
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        Limit limit = Limit.of(pageSize + 1);
+        List<Product> rows = switch (sort) {
+            case POPULARITY -> productRepository.findPageByPopularity(
+                    after != null ? after.key().intValueExact() : Integer.MAX_VALUE,
+                    after != null ? after.id() : Long.MAX_VALUE, lower, upper, limit);
+            case PRICE -> productRepository.findPageByPrice(
+                    after != null ? after.key() : BigDecimal.ONE.negate(),
+                    after != null ? after.id() : 0L, lower, upper, limit);
+        };
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Product> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Product last = page.get(page.size() - 1);
+            BigDecimal key = sort == ProductSort.POPULARITY
+                    ? BigDecimal.valueOf(last.getPopularity()) : last.getPrice();
+            nextCursor = ProductCursor.of(sort, key, last.getId()).encode();
+        }
+        return new ProductPageDto(page.stream().map(this::transformToDTO).toList(), nextCursor, hasMore);
+    }
+
+    @Override
+    public Optional<ProductDto> getProductById(Long productId) {
+        if (productId == null) {
+            return Optional.empty();
+        }
+        return productByIdCache.get(productId);
+    }
+
+    @Override
+    public List<ProductDto> getProductsByIds(List<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return List.of();
+        }
+        // de-duplicate but keep the caller's order; unknown ids are skipped
+        LinkedHashSet<Long> uniqueIds = new LinkedHashSet<>(productIds);
+        uniqueIds.remove(null);
+        Map<Long, ProductDto> found = productByIdCache.getAll(uniqueIds);
+        return uniqueIds.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public List<ProductDto> searchProducts(String query, int limit) {
+        int maxResults = Math.max(1, Math.min(limit, ApplicationConstants.PRODUCT_SEARCH_MAX_LIMIT));
+        return productSearchIndex.search(query, maxResults);
     }
 
     @Override
     public ProductDto createProduct(ProductDto productDto, MultipartFile imageFile) {
-        Product product = new Product();
-        BeanUtils.copyProperties(productDto, product);
+        Product product = productMapper.toEntity(productDto);
 
         Product savedProduct = productRepository.save(product);
-        return transformToDTO(savedProduct);
+        ProductDto savedProductDto = transformToDTO(savedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.created(savedProductDto));
+        return savedProductDto;
     }
 
     @Override
@@ -57,9 +156,11 @@ public class ProductServiceImpl implements ProductService {
         Product existingProduct = productRepository.findById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
 
-        BeanUtils.copyProperties(productDto, existingProduct, "productId");
+        productMapper.updateEntity(productDto, existingProduct);
         Product updatedProduct = productRepository.save(existingProduct);
-        return transformToDTO(updatedProduct);
+        ProductDto updatedProductDto = transformToDTO(updatedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(updatedProductDto));
+        return updatedProductDto;
     }
 
     @Override
@@ -67,8 +168,12 @@ public class ProductServiceImpl implements ProductService {
         if (!productRepository.existsById(productId)) {
             throw new IllegalArgumentException("Product not found with id: " + productId);
         }
+        // a partitioned order_items has no foreign key to products (V11)
+        if (orderRepository.existsItemWithProduct(productId)) {
+            throw new ResourceInUseException("Product", "ProductID", String.valueOf(productId));
+        }
         productRepository.deleteById(productId);
-
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(productId));
     }
 
 
@@ -92,9 +197,6 @@ public class ProductServiceImpl implements ProductService {
 }
 
 private ProductDto transformToDTO(Product product) {
-    ProductDto productDto = new ProductDto();
-    BeanUtils.copyProperties(product, productDto);
-    productDto.setProductId(product.getId());
-    return productDto;
+    return productMapper.toDto(product);
 }
 }
@@ -1,14 +1,13 @@
 package in.pandac.store.service.impl;
 
-import in.pandac.store.dto.AddressDto;
 import in.pandac.store.dto.ProfileRequestDto;
 import in.pandac.store.dto.ProfileResponseDto;
 import in.pandac.store.entity.Address;
 import in.pandac.store.entity.Customer;
+import in.pandac.store.mapper.CustomerMapper;
 import in.pandac.store.repository.CustomerRepository;
 import in.pandac.store.service.ProfileService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.BeanUtils;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -19,6 +18,7 @@ import org.springframework.stereotype.Service;
 public class ProfileServiceImpl implements ProfileService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
 
     @Override
     public ProfileResponseDto getProfile() {
@@ -30,7 +30,7 @@ public class ProfileServiceImpl implements ProfileService {
     public ProfileResponseDto updateProfile(ProfileRequestDto profileRequestDto) {
         Customer customer = getAuthenticatedCustomer();
         boolean isEmailUpdated = !customer.getEmail().equals(profileRequestDto.getEmail().trim());
-        BeanUtils.copyProperties(profileRequestDto, customer);
+        customerMapper.updateFromProfile(profileRequestDto, customer);
         Address address = customer.getAddress();
         if (address == null) {
             address = new Address();
@@ -51,19 +51,15 @@ public class ProfileServiceImpl implements ProfileService {
     @Override
     public Customer getAuthenticatedCustomer() {
         Authentication authentication =SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
         String email = authentication.getName();
         return customerRepository.findByEmail(email).
                 orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
     private ProfileResponseDto mapCustomerToProfileResponseDto(Customer customer) {
-        ProfileResponseDto profileResponseDto = new ProfileResponseDto();
-        BeanUtils.copyProperties(customer, profileResponseDto);
-        if (customer.getAddress() != null) {
-            AddressDto addressDto = new AddressDto();
-            BeanUtils.copyProperties(customer.getAddress(), addressDto);
-            profileResponseDto.setAddress(addressDto);
-        }
-        return profileResponseDto;
+        return customerMapper.toProfileResponseDto(customer);
     }
 }
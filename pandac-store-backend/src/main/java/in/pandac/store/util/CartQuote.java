@@ -0,0 +1,18 @@
+package in.pandac.store.util;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * What a quote token vouches for; all amounts are in cents. {@code customer} is
+ * the email of the customer the quote was issued to, {@code null} for an
+ * anonymous quote, which cannot be used to place an order. {@code promotionCode}
+ * tells whether {@code discountCode} was redeemed by a promotion rule rather
+ * than taken from the {@code discounts} table.
+ */
+public record CartQuote(String customer, List<Line> lines, String discountCode, boolean promotionCode,
+                        long discountCents, long totalCents, Instant expiresAt) {
+
+    public record Line(long productId, int quantity, long unitCents) {
+    }
+}
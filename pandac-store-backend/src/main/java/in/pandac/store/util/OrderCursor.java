@@ -0,0 +1,38 @@
+package in.pandac.store.util;
+
+import in.pandac.store.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination over orders. Carries the
+ * (created_at, order_id) pair of the last order returned; order_id breaks
+ * ties between orders created in the same instant.
+ */
+public record OrderCursor(Instant createdAt, long orderId) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + orderId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new InvalidCursorException(token);
+            }
+            return new OrderCursor(Instant.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // covers bad Base64, malformed timestamps and NumberFormatException
+            throw new InvalidCursorException(token);
+        }
+    }
+}
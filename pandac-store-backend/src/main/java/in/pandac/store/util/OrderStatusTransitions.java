@@ -0,0 +1,40 @@
+package in.pandac.store.util;
+
+import in.pandac.store.constants.ApplicationConstants;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The order state machine: which statuses an order may move to from its current one.
+ * CANCELLED is terminal.
+ */
+public final class OrderStatusTransitions {
+
+    private static final Map<String, Set<String>> ALLOWED = Map.of(
+            ApplicationConstants.ORDER_STATUS_CREATED,
+            Set.of(ApplicationConstants.ORDER_STATUS_CONFIRMED, ApplicationConstants.ORDER_STATUS_CANCELLED),
+            ApplicationConstants.ORDER_STATUS_CONFIRMED,
+            Set.of(ApplicationConstants.ORDER_STATUS_CANCELLED),
+            ApplicationConstants.ORDER_STATUS_CANCELLED,
+            Set.of());
+
+    private OrderStatusTransitions() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    public static boolean isAllowed(String from, String to) {
+        return ALLOWED.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    /**
+     * @return every status from which {@code to} can be reached
+     */
+    public static Set<String> sourcesOf(String to) {
+        return ALLOWED.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(to))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,62 @@
+package in.pandac.store.util;
+
+import in.pandac.store.dto.ProductSort;
+import in.pandac.store.exception.InvalidCursorException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination over the product catalog.
+ * Encodes the sort order together with the (key, id) pair of the last row
+ * returned, so the next page can seek straight past it.
+ */
+public record ProductCursor(ProductSort sort, BigDecimal key, long id) {
+
+    private static final String SEPARATOR = "|";
+    // PRODUCTS.PRICE is DECIMAL(10, 2)
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    public static ProductCursor of(ProductSort sort, BigDecimal key, long id) {
+        return new ProductCursor(sort, key, id);
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + key.toPlainString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token, ProductSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new InvalidCursorException(token);
+            }
+            ProductSort sort = ProductSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new InvalidCursorException(token);
+            }
+            BigDecimal key = new BigDecimal(parts[1]);
+            if (!isValidKey(sort, key)) {
+                throw new InvalidCursorException(token);
+            }
+            return new ProductCursor(sort, key, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // covers bad Base64, unknown enum names and NumberFormatException
+            throw new InvalidCursorException(token);
+        }
+    }
+
+    // keys are read back as an int popularity or a cents price, so anything else is a tampered token
+    private static boolean isValidKey(ProductSort sort, BigDecimal key) {
+        return switch (sort) {
+            case POPULARITY -> key.stripTrailingZeros().scale() <= 0
+                    && key.compareTo(BigDecimal.valueOf(Integer.MIN_VALUE)) >= 0
+                    && key.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) <= 0;
+            case PRICE -> key.abs().compareTo(MAX_PRICE) <= 0 && key.stripTrailingZeros().scale() <= 2;
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package in.pandac.store.util;
+
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.exception.InvalidQuoteException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Signs and verifies cart quote tokens: compact JWS over the priced lines and
+ * totals. The key is derived from the JWT secret but differs from it, so a
+ * quote token can never pass as a login token or the other way round. Every
+ * token carries a random id, so two quotes of the same cart never share a
+ * {@link #fingerprint(String) fingerprint}.
+ */
+@Component
+public class QuoteTokenUtil {
+
+    private static final String SUBJECT = "Order Quote";
+
+    private final Environment env;
+    private volatile SecretKey key;
+
+    public QuoteTokenUtil(Environment env) {
+        this.env = env;
+    }
+
+    public String sign(CartQuote quote) {
+        List<List<Long>> lines = quote.lines().stream()
+                .map(line -> List.of(line.productId(), (long) line.quantity(), line.unitCents()))
+                .toList();
+        return Jwts.builder().issuer("PandaC Store").subject(SUBJECT)
+                .id(UUID.randomUUID().toString())
+                .claim("customer", quote.customer())
+                .claim("lines", lines)
+                .claim("code", quote.discountCode())
+                .claim("promotionCode", quote.promotionCode())
+                .claim("discountCents", quote.discountCents())
+                .claim("totalCents", quote.totalCents())
+                .expiration(Date.from(quote.expiresAt()))
+                .signWith(key()).compact();
+    }
+
+    /**
+     * @throws InvalidQuoteException if the token is malformed, tampered with or expired
+     */
+    public CartQuote verify(String token) {
+        Claims claims;
+        try {
+            claims = Jwts.parser().verifyWith(key()).requireSubject(SUBJECT).build()
+                    .parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidQuoteException("Quote is invalid or has expired, please re-price the cart");
+        }
+        List<?> rawLines = claims.get("lines", List.class);
+        List<CartQuote.Line> lines = rawLines.stream().map(raw -> {
+            List<?> line = (List<?>) raw;
+            return new CartQuote.Line(((Number) line.get(0)).longValue(), ((Number) line.get(1)).intValue(),
+                    ((Number) line.get(2)).longValue());
+        }).toList();
+        return new CartQuote(claims.get("customer", String.class), lines, claims.get("code", String.class),
+                Boolean.TRUE.equals(claims.get("promotionCode", Boolean.class)),
+                claims.get("discountCents", Number.class).longValue(),
+                claims.get("totalCents", Number.class).longValue(),
+                claims.getExpiration().toInstant());
+    }
+
+    /**
+     * @return SHA-256 over the token, hex encoded: the key under which a redeemed quote is recorded
+     */
+    public static String fingerprint(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private SecretKey key() {
+        SecretKey current = key;
+        if (current == null) {
+            String secret = env.getProperty(ApplicationConstants.JWT_SECRET_KEY);
+            if (secret == null || secret.trim().isEmpty()) {
+                throw new IllegalStateException("JWT_SECRET environment variable is required but not set");
+            }
+            try {
+                byte[] derived = MessageDigest.getInstance("SHA-256")
+                        .digest(("order-quote:" + secret).getBytes(StandardCharsets.UTF_8));
+                current = Keys.hmacShaKeyFor(derived);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+            key = current;
+        }
+        return current;
+    }
+}
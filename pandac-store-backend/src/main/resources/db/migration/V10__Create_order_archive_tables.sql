@@ -0,0 +1,38 @@
+-- Archive of closed orders, filled by OrderArchiveServiceImpl
+-- Same columns as the live tables plus archived_at. No foreign keys: archived history must
+-- survive later changes to customers and products, and rows are only ever inserted and read.
+
+CREATE TABLE orders_archive
+(
+    order_id       BIGINT         NOT NULL PRIMARY KEY,
+    customer_id    BIGINT         NOT NULL,
+    total_price    DECIMAL(10, 2) NOT NULL,
+    discount       DECIMAL(10, 2) DEFAULT 0 NOT NULL,
+    discount_code  VARCHAR(50),
+    payment_id     VARCHAR(200)   NOT NULL,
+    payment_status VARCHAR(50)    NOT NULL,
+    order_status   VARCHAR(50)    NOT NULL,
+    version        BIGINT         NOT NULL,
+    created_at     TIMESTAMP      NOT NULL,
+    created_by     VARCHAR(20)    NOT NULL,
+    updated_at     TIMESTAMP      DEFAULT NULL,
+    updated_by     VARCHAR(20)    DEFAULT NULL,
+    archived_at    TIMESTAMP      DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_orders_archive_customer_created ON orders_archive (customer_id, created_at);
+
+CREATE TABLE order_items_archive
+(
+    order_item_id BIGINT         NOT NULL PRIMARY KEY,
+    order_id      BIGINT         NOT NULL,
+    product_id    BIGINT         NOT NULL,
+    quantity      INT            NOT NULL,
+    price         DECIMAL(10, 2) NOT NULL,
+    created_at    TIMESTAMP      NOT NULL,
+    created_by    VARCHAR(20)    NOT NULL,
+    updated_at    TIMESTAMP      DEFAULT NULL,
+    updated_by    VARCHAR(20)    DEFAULT NULL
+);
+
+CREATE INDEX idx_order_items_archive_order ON order_items_archive (order_id);
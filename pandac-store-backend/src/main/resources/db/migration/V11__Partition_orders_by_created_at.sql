@@ -0,0 +1,50 @@
+-- Optional RANGE partitioning of orders and order_items by created_at
+-- Only applied when the flyway placeholder order_partitioning is 'true' while this migration runs
+-- (ORDER_PARTITIONING_ENABLED); otherwise every statement below is a no-op.
+-- Partitioned InnoDB tables cannot take part in foreign keys and every unique key must contain the
+-- partitioning column, so the conversion drops the order foreign keys and widens both primary keys
+-- with created_at. Partitions are quarterly; OrderArchiveServiceImpl splits p_future ahead of time
+-- so inserts never land in it.
+
+SET @partition_orders = ('${order_partitioning}' = 'true');
+
+SET @ddl = IF(@partition_orders,
+    'ALTER TABLE order_items DROP FOREIGN KEY order_items_ibfk_1, DROP FOREIGN KEY order_items_ibfk_2',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF(@partition_orders, 'ALTER TABLE orders DROP FOREIGN KEY orders_ibfk_1', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @partitions = CONCAT(
+    'PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (',
+    'PARTITION p_history VALUES LESS THAN (UNIX_TIMESTAMP(''2025-01-01 00:00:00'')), ',
+    'PARTITION p2025q1 VALUES LESS THAN (UNIX_TIMESTAMP(''2025-04-01 00:00:00'')), ',
+    'PARTITION p2025q2 VALUES LESS THAN (UNIX_TIMESTAMP(''2025-07-01 00:00:00'')), ',
+    'PARTITION p2025q3 VALUES LESS THAN (UNIX_TIMESTAMP(''2025-10-01 00:00:00'')), ',
+    'PARTITION p2025q4 VALUES LESS THAN (UNIX_TIMESTAMP(''2026-01-01 00:00:00'')), ',
+    'PARTITION p2026q1 VALUES LESS THAN (UNIX_TIMESTAMP(''2026-04-01 00:00:00'')), ',
+    'PARTITION p2026q2 VALUES LESS THAN (UNIX_TIMESTAMP(''2026-07-01 00:00:00'')), ',
+    'PARTITION p2026q3 VALUES LESS THAN (UNIX_TIMESTAMP(''2026-10-01 00:00:00'')), ',
+    'PARTITION p2026q4 VALUES LESS THAN (UNIX_TIMESTAMP(''2027-01-01 00:00:00'')), ',
+    'PARTITION p2027q1 VALUES LESS THAN (UNIX_TIMESTAMP(''2027-04-01 00:00:00'')), ',
+    'PARTITION p2027q2 VALUES LESS THAN (UNIX_TIMESTAMP(''2027-07-01 00:00:00'')), ',
+    'PARTITION p_future VALUES LESS THAN MAXVALUE)');
+
+SET @ddl = IF(@partition_orders,
+    CONCAT('ALTER TABLE orders DROP PRIMARY KEY, ADD PRIMARY KEY (order_id, created_at) ', @partitions),
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF(@partition_orders,
+    CONCAT('ALTER TABLE order_items DROP PRIMARY KEY, ADD PRIMARY KEY (order_item_id, created_at) ', @partitions),
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,19 @@
+-- Transactional outbox for order domain events, drained by OrderOutboxRelay
+-- AUTO_INCREMENT ids on purpose: writers of the same order are serialized by its row lock,
+-- so id order is commit order per order, which the relay relies on for in-order delivery.
+-- Delivered rows are deleted; rows that keep failing end up as FAILED for inspection.
+
+CREATE TABLE order_outbox
+(
+    id           BIGINT AUTO_INCREMENT PRIMARY KEY,
+    aggregate_id BIGINT      NOT NULL,
+    event_type   VARCHAR(30) NOT NULL,
+    payload      TEXT        NOT NULL,
+    status       VARCHAR(20) DEFAULT 'PENDING' NOT NULL,
+    attempts     INT         DEFAULT 0 NOT NULL,
+    last_error   VARCHAR(500),
+    available_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) NOT NULL,
+    created_at   TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) NOT NULL
+);
+
+CREATE INDEX idx_order_outbox_aggregate ON order_outbox (aggregate_id, id);
@@ -0,0 +1,36 @@
+-- Promotion rules evaluated for every cart quote, compiled into memory by DiscountRuleEngine
+-- A rule without products applies to the whole cart; a rule without a code applies automatically.
+-- Rules run in ascending priority; a non-stackable rule only applies when it is the sole rule that does.
+
+CREATE TABLE discount_rules
+(
+    rule_id        BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name           VARCHAR(100)                          NOT NULL,
+    code           VARCHAR(255)                          NULL,
+    type           VARCHAR(20)                           NOT NULL,
+    percent        INT                                   NULL,
+    amount         DECIMAL(10, 2)                        NULL,
+    buy_quantity   INT                                   NULL,
+    get_quantity   INT                                   NULL,
+    min_cart_value DECIMAL(10, 2)                        NULL,
+    priority       INT         DEFAULT 0                 NOT NULL,
+    stackable      BOOLEAN     DEFAULT TRUE              NOT NULL,
+    active         BOOLEAN     DEFAULT TRUE              NOT NULL,
+    starts_at      TIMESTAMP   DEFAULT NULL,
+    ends_at        TIMESTAMP   DEFAULT NULL,
+    created_at     TIMESTAMP   DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    created_by     VARCHAR(20)                           NOT NULL,
+    updated_at     TIMESTAMP   DEFAULT NULL,
+    updated_by     VARCHAR(20) DEFAULT NULL
+);
+
+CREATE TABLE discount_rule_products
+(
+    rule_id    BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    PRIMARY KEY (rule_id, product_id),
+    FOREIGN KEY (rule_id) REFERENCES discount_rules (rule_id) ON DELETE CASCADE,
+    FOREIGN KEY (product_id) REFERENCES products (product_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_discount_rule_products_product ON discount_rule_products (product_id);
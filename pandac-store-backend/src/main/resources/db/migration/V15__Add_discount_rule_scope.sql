@@ -0,0 +1,10 @@
+-- A rule's scope is stored explicitly: cart_wide rules apply to every line, the others only to the
+-- products in discount_rule_products. Deleting a product still removes it from every rule, but a
+-- scoped rule that loses its last product then applies to nothing instead of to the whole cart.
+-- Existing rules without products were created as cart-wide rules and are marked as such.
+
+ALTER TABLE discount_rules ADD COLUMN cart_wide BOOLEAN DEFAULT FALSE NOT NULL AFTER stackable;
+
+UPDATE discount_rules r
+SET r.cart_wide = TRUE
+WHERE NOT EXISTS (SELECT 1 FROM discount_rule_products p WHERE p.rule_id = r.rule_id);
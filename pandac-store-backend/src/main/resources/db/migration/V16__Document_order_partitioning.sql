@@ -0,0 +1,20 @@
+-- Notes on V11 (RANGE partitioning of orders/order_items), kept here because V11 is already applied
+-- and editing it would change its checksum. This migration changes no data.
+--
+-- Flyway reads the order_partitioning placeholder only when it first applies V11. Setting
+-- ORDER_PARTITIONING_ENABLED=true on a database where V11 already ran changes nothing: partition such
+-- a database by hand in a maintenance window, running V11's statements with @partition_orders set to
+-- true and the partition list extended so that no existing row falls into p_future.
+--
+-- On a partitioned database V11 has dropped all three order foreign keys:
+--   order_items_ibfk_1  order_items.order_id    -> orders
+--   order_items_ibfk_2  order_items.product_id  -> products
+--   orders_ibfk_1       orders.customer_id      -> customers
+-- The database no longer stops a product or customer that live orders still reference from being
+-- deleted; ProductServiceImpl and CustomerServiceImpl refuse those deletes instead. Order items are
+-- only written and removed together with their order.
+--
+-- OrderArchiveServiceImpl adds the next quarters' partitions ahead of time, at startup and on its own
+-- daily schedule (app.order-partitions.cron), whether or not archiving is enabled.
+
+DO 0;
@@ -0,0 +1,11 @@
+-- Cart quote tokens already used for an order, so one quote prices one order only
+-- token_hash is a SHA-256 over the token; the row is inserted in the order's transaction,
+-- so a rolled back order frees its quote again. Rows are purged once the token has expired.
+
+CREATE TABLE redeemed_quotes
+(
+    token_hash  CHAR(64)  NOT NULL PRIMARY KEY,
+    redeemed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_redeemed_quotes_redeemed ON redeemed_quotes (redeemed_at);
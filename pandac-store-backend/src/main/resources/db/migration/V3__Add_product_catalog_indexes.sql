@@ -0,0 +1,6 @@
+-- Supporting indexes for keyset pagination of the product catalog
+-- Each index matches the (sort column, product_id) seek predicate and ORDER BY used by ProductRepository
+
+CREATE INDEX idx_products_popularity_id ON products (popularity, product_id);
+
+CREATE INDEX idx_products_price_id ON products (price, product_id);
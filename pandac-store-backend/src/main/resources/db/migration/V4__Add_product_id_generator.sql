@@ -0,0 +1,12 @@
+-- Table-backed id generator for products
+-- Hibernate cannot batch inserts for IDENTITY ids, so Product now draws pooled ids (blocks of 50) from this table.
+-- The first block starts above the highest existing product id.
+
+CREATE TABLE id_generators
+(
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val      BIGINT       NOT NULL
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'products', COALESCE(MAX(product_id), 0) + 51 FROM products;
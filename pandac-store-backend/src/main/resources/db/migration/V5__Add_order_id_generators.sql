@@ -0,0 +1,8 @@
+-- Pooled table ids for orders and order items (see V4)
+-- With IDENTITY ids every order item was its own INSERT round trip; pooled ids let Hibernate batch them.
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'orders', COALESCE(MAX(order_id), 0) + 51 FROM orders;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'order_items', COALESCE(MAX(order_item_id), 0) + 51 FROM order_items;
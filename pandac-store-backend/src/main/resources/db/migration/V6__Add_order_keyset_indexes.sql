@@ -0,0 +1,6 @@
+-- Supporting indexes for keyset pagination of order history and the admin order queue
+-- InnoDB appends the primary key to secondary indexes, so each one covers the (created_at, order_id) seek and ORDER BY
+
+CREATE INDEX idx_orders_customer_created ON orders (customer_id, created_at);
+
+CREATE INDEX idx_orders_status_created ON orders (order_status, created_at);
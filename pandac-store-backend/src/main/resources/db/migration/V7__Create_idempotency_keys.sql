@@ -0,0 +1,14 @@
+-- Stored responses for requests sent with an Idempotency-Key header
+-- record_key is a SHA-256 over (scope, principal, key); request_hash detects a key reused for a different body.
+-- A PENDING row is the cross-instance claim on the key while the first request is still running.
+
+CREATE TABLE idempotency_keys
+(
+    record_key    CHAR(64)    NOT NULL PRIMARY KEY,
+    request_hash  CHAR(64)    NOT NULL,
+    status        VARCHAR(20) NOT NULL,
+    response_body MEDIUMTEXT,
+    created_at    TIMESTAMP   DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_created ON idempotency_keys (created_at);
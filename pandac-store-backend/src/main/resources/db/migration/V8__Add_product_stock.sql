@@ -0,0 +1,4 @@
+-- Per-product stock, owned by the in-memory InventoryLedger
+-- NULL means the product is not stock-tracked (every product before this migration), so nothing changes until an admin sets a figure.
+
+ALTER TABLE products ADD COLUMN stock INT NULL;
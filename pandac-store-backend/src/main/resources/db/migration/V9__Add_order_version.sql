@@ -0,0 +1,4 @@
+-- Optimistic-locking version for orders
+-- Every status transition is a single conditional UPDATE that also bumps the version.
+
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,88 @@
+package in.pandac.store.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.event.ProductChangedEvent;
+import in.pandac.store.service.ProductService;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogPayloadCacheTest {
+
+    private final ProductService productService = mock(ProductService.class);
+    private final CatalogPayloadCache payloadCache =
+            new CatalogPayloadCache(productService, new ObjectMapper().findAndRegisterModules());
+
+    @Test
+    void testCatalogIsRenderedOncePerVersion() throws IOException {
+        when(productService.getProducts()).thenReturn(List.of(product(1L, "9.99")));
+
+        CatalogPayloadCache.Payload first = payloadCache.get();
+        CatalogPayloadCache.Payload second = payloadCache.get();
+
+        assertSame(first, second);
+        verify(productService, times(1)).getProducts();
+        assertTrue(new String(first.json(), StandardCharsets.UTF_8).contains("\"productId\":1"));
+        assertArrayEquals(first.json(), gunzip(first.gzip()));
+        assertTrue(first.etag().matches("\"[0-9a-f]{32}\""));
+        assertEquals(first.etag().replace("\"", "") + "-gz", first.gzipEtag().replace("\"", ""));
+    }
+
+    @Test
+    void testProductChangeDropsThePayload() {
+        when(productService.getProducts()).thenReturn(List.of(product(1L, "9.99")), List.of(product(1L, "7.99")));
+        CatalogPayloadCache.Payload before = payloadCache.get();
+
+        payloadCache.onProductChanged(ProductChangedEvent.deleted(2L));
+        CatalogPayloadCache.Payload after = payloadCache.get();
+
+        assertNotEquals(before.etag(), after.etag());
+        assertTrue(after.version() > before.version());
+    }
+
+    @Test
+    void testRenderRacingAChangeIsNotPublished() {
+        // the catalog is read, then a product changes before the payload is published
+        when(productService.getProducts()).thenAnswer(invocation -> {
+            payloadCache.onProductChanged(ProductChangedEvent.deleted(2L));
+            return List.of(product(1L, "9.99"));
+        }).thenReturn(List.of(product(1L, "9.99")));
+
+        payloadCache.get();
+        payloadCache.get();
+        payloadCache.get();
+
+        // the raced render is served once but not kept; the next one is
+        verify(productService, times(2)).getProducts();
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static ProductDto product(Long id, String price) {
+        ProductDto product = new ProductDto();
+        product.setProductId(id);
+        product.setName("Product " + id);
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+}
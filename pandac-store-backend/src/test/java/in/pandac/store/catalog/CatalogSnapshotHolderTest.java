@@ -0,0 +1,43 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.dto.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotHolderTest {
+
+    @Test
+    void testPublishedSnapshotMovesThePageCacheToANewVersion() {
+        ProductCatalogLoader loader = mock(ProductCatalogLoader.class);
+        when(loader.loadCatalog()).thenReturn(List.of(product(1L)));
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("productPages");
+        CatalogSnapshotHolder holder = new CatalogSnapshotHolder(loader, cacheManager);
+        Cache pages = cacheManager.getCache("productPages");
+        pages.put("page answered from the database", "stale");
+
+        assertEquals(0, holder.version());
+        holder.init();
+
+        assertEquals(1, holder.version());
+        assertEquals(1, holder.current().size());
+        assertNull(pages.get("page answered from the database"));
+        holder.shutdown();
+    }
+
+    private static ProductDto product(Long id) {
+        ProductDto product = new ProductDto();
+        product.setProductId(id);
+        product.setPrice(new BigDecimal("9.99"));
+        product.setPopularity(3);
+        return product;
+    }
+}
@@ -0,0 +1,106 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.dto.ProductPageDto;
+import in.pandac.store.dto.ProductSort;
+import in.pandac.store.util.ProductCursor;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotTest {
+
+    private static final int PAGE_SIZE = 7;
+
+    private final List<ProductDto> catalog = catalog(1000);
+    private final CatalogSnapshot snapshot = CatalogSnapshot.of(1, catalog);
+
+    @Test
+    void testPopularityPagesWithoutPriceFilter() {
+        assertWalksAllMatches(ProductSort.POPULARITY, 0, Long.MAX_VALUE);
+    }
+
+    @Test
+    void testPopularityPagesWithWidePriceFilter() {
+        // most rows match: the popularity index is walked and rows outside the bounds skipped
+        assertWalksAllMatches(ProductSort.POPULARITY, 1_000, 9_000);
+    }
+
+    @Test
+    void testPopularityPagesWithNarrowPriceFilter() {
+        // a handful of rows match: they are read off the price index and ranked by popularity
+        assertWalksAllMatches(ProductSort.POPULARITY, 4_000, 4_150);
+        assertWalksAllMatches(ProductSort.POPULARITY, 4_321, 4_321);
+    }
+
+    @Test
+    void testPricePagesWithPriceFilter() {
+        assertWalksAllMatches(ProductSort.PRICE, 0, Long.MAX_VALUE);
+        assertWalksAllMatches(ProductSort.PRICE, 4_000, 4_150);
+    }
+
+    @Test
+    void testEmptyPriceRangeHasNoPage() {
+        for (ProductSort sort : ProductSort.values()) {
+            ProductPageDto page = snapshot.page(sort, null, PAGE_SIZE, 20_000, 30_000);
+            assertTrue(page.items().isEmpty());
+            assertFalse(page.hasMore());
+            assertNull(page.nextCursor());
+            assertTrue(snapshot.page(sort, null, PAGE_SIZE, 5_000, 4_000).items().isEmpty());
+        }
+    }
+
+    // following the cursors returns every matching product exactly once, in listing order
+    private void assertWalksAllMatches(ProductSort sort, long minCents, long maxCents) {
+        List<Long> expected = catalog.stream()
+                .filter(product -> inRange(product, minCents, maxCents))
+                .sorted(sort == ProductSort.POPULARITY
+                        ? Comparator.comparing(ProductDto::getPopularity).thenComparing(ProductDto::getProductId).reversed()
+                        : Comparator.comparing(ProductDto::getPrice).thenComparing(ProductDto::getProductId))
+                .map(ProductDto::getProductId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        ProductCursor after = null;
+        ProductPageDto page;
+        do {
+            page = snapshot.page(sort, after, PAGE_SIZE, minCents, maxCents);
+            page.items().forEach(product -> walked.add(product.getProductId()));
+            after = page.hasMore() ? ProductCursor.decode(page.nextCursor(), sort) : null;
+        } while (page.hasMore());
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, walked);
+    }
+
+    private static boolean inRange(ProductDto product, long minCents, long maxCents) {
+        long cents = CatalogSnapshot.toCents(product.getPrice());
+        return cents >= minCents && cents <= maxCents;
+    }
+
+    // few distinct popularities, so ties are broken by id on most pages
+    private static List<ProductDto> catalog(int size) {
+        Random random = new Random(42);
+        List<ProductDto> catalog = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            ProductDto product = new ProductDto();
+            product.setProductId(id);
+            product.setName("Product " + id);
+            product.setPrice(BigDecimal.valueOf(100 + random.nextInt(9_900), 2));
+            product.setPopularity(random.nextInt(20));
+            catalog.add(product);
+        }
+        // at least one product priced exactly 43.21
+        catalog.get(0).setPrice(new BigDecimal("43.21"));
+        return catalog;
+    }
+}
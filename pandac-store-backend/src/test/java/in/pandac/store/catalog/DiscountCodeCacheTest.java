@@ -0,0 +1,109 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.dto.DiscountDto;
+import in.pandac.store.entity.Discount;
+import in.pandac.store.entity.DiscountType;
+import in.pandac.store.event.DiscountChangedEvent;
+import in.pandac.store.repository.DiscountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DiscountCodeCacheTest {
+
+    private static final DiscountDto SAVE10 = new DiscountDto("SAVE10", 10, DiscountType.PERCENTAGE);
+
+    private final DiscountRepository discountRepository = mock(DiscountRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DiscountCodeCache cache = new DiscountCodeCache(discountRepository, meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        when(discountRepository.findAll()).thenReturn(List.of(discount("SAVE10", 10, DiscountType.PERCENTAGE)));
+        cache.init();
+    }
+
+    @Test
+    void testChangesPatchTheMapWithoutAReload() {
+        cache.onDiscountChanged(DiscountChangedEvent.created(new DiscountDto("Welcome5", 5, DiscountType.FIXED)));
+        cache.onDiscountChanged(DiscountChangedEvent.updated(new DiscountDto("SAVE10", 15, DiscountType.PERCENTAGE)));
+
+        // keys follow the case-insensitive collation of discounts.code
+        assertEquals(Optional.of(new DiscountDto("Welcome5", 5, DiscountType.FIXED)), cache.get("WELCOME5"));
+        assertEquals(15, cache.get("save10").orElseThrow().discount());
+
+        cache.onDiscountChanged(DiscountChangedEvent.deleted("save10"));
+
+        assertTrue(cache.get("SAVE10").isEmpty());
+        assertEquals(1, cache.all().size());
+    }
+
+    @Test
+    void testReloadRacingAChangeIsDiscarded() {
+        // the change commits while the reload is reading the table, so the rows it read miss the new code
+        when(discountRepository.findAll()).thenAnswer(invocation -> {
+            cache.onDiscountChanged(DiscountChangedEvent.created(new DiscountDto("FLASH", 30, DiscountType.PERCENTAGE)));
+            return List.of(discount("SAVE10", 10, DiscountType.PERCENTAGE));
+        });
+
+        cache.reconcile();
+
+        assertEquals(Optional.of(SAVE10), cache.get("SAVE10"));
+        assertTrue(cache.get("FLASH").isPresent());
+    }
+
+    @Test
+    void testReloadPicksUpChangesFromOtherInstances() {
+        when(discountRepository.findAll()).thenReturn(List.of(discount("SPRING", 20, DiscountType.PERCENTAGE)));
+
+        cache.reconcile();
+
+        assertTrue(cache.get("SAVE10").isEmpty());
+        assertTrue(cache.get("spring").isPresent());
+    }
+
+    @Test
+    void testLookupsAreCountedByOutcome() {
+        assertEquals(Optional.of(SAVE10), cache.get("save10"));
+        assertTrue(cache.get("GUESS1").isEmpty());
+        assertTrue(cache.get("GUESS2").isEmpty());
+
+        assertEquals(1, lookups("hit"));
+        assertEquals(2, lookups("miss"));
+        assertEquals(0, lookups("malformed"));
+        assertEquals(1, meterRegistry.get("discount.codes").gauge().value());
+    }
+
+    @Test
+    void testMalformedCodesAreRejectedWithoutALookup() {
+        assertTrue(cache.get(null).isEmpty());
+        assertTrue(cache.get("   ").isEmpty());
+        assertTrue(cache.get("X".repeat(256)).isEmpty());
+
+        assertEquals(3, lookups("malformed"));
+        assertEquals(0, lookups("miss"));
+        // the longest code the column can hold is still looked up
+        assertTrue(cache.get("X".repeat(255)).isEmpty());
+        assertEquals(1, lookups("miss"));
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("discount.code.lookups").tag("result", result).counter().count();
+    }
+
+    private static Discount discount(String code, int amount, DiscountType type) {
+        Discount discount = new Discount();
+        discount.setCode(code);
+        discount.setDiscount(amount);
+        discount.setType(type);
+        return discount;
+    }
+}
@@ -0,0 +1,97 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.entity.DiscountRule;
+import in.pandac.store.entity.DiscountRuleType;
+import in.pandac.store.util.CartQuote;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiscountRulesTest {
+
+    private static final Instant NOW = Instant.parse("2026-06-01T12:00:00Z");
+
+    @Test
+    void testOnlyRulesScopedToCartProductsApply() {
+        DiscountRules rules = DiscountRules.compile(List.of(
+                rule(1L, DiscountRuleType.PERCENTAGE, 10, null, Set.of(1L)),
+                rule(2L, DiscountRuleType.PERCENTAGE, 50, null, Set.of(2L))));
+
+        DiscountRules.Evaluation evaluation = rules.evaluate(List.of(line(1L, 2, 1000), line(3L, 1, 500)), null, NOW);
+
+        assertEquals(List.of(1L), evaluation.applied().stream().map(DiscountRules.Applied::ruleId).toList());
+        assertEquals(200, evaluation.discountCents());
+    }
+
+    @Test
+    void testBuyXGetYMakesTheCheapestUnitsFree() {
+        DiscountRule buyTwoGetOne = rule(1L, DiscountRuleType.BUY_X_GET_Y, 0, null, Set.of(1L, 2L));
+        buyTwoGetOne.setBuyQuantity(2);
+        buyTwoGetOne.setGetQuantity(1);
+        DiscountRules rules = DiscountRules.compile(List.of(buyTwoGetOne));
+
+        DiscountRules.Evaluation evaluation = rules.evaluate(List.of(line(1L, 4, 1000), line(2L, 2, 300)), null, NOW);
+
+        assertEquals(600, evaluation.discountCents());
+    }
+
+    @Test
+    void testNonStackableRuleOnlyAppliesOnItsOwn() {
+        DiscountRule exclusive = rule(1L, DiscountRuleType.FIXED, 0, null, Set.of());
+        exclusive.setAmount(new BigDecimal("5.00"));
+        exclusive.setStackable(false);
+        exclusive.setPriority(1);
+        DiscountRules rules = DiscountRules.compile(List.of(exclusive,
+                rule(2L, DiscountRuleType.PERCENTAGE, 10, null, Set.of())));
+
+        DiscountRules.Evaluation evaluation = rules.evaluate(List.of(line(1L, 1, 2000)), null, NOW);
+
+        assertEquals(List.of(2L), evaluation.applied().stream().map(DiscountRules.Applied::ruleId).toList());
+        assertEquals(200, evaluation.discountCents());
+    }
+
+    @Test
+    void testCodeAndMinimumCartValueGateARule() {
+        DiscountRule coded = rule(1L, DiscountRuleType.PERCENTAGE, 20, "SUMMER", Set.of());
+        coded.setMinCartValue(new BigDecimal("30.00"));
+        DiscountRules rules = DiscountRules.compile(List.of(coded));
+
+        assertTrue(rules.evaluate(List.of(line(1L, 4, 1000)), null, NOW).applied().isEmpty());
+        assertTrue(rules.evaluate(List.of(line(1L, 2, 1000)), "summer", NOW).applied().isEmpty());
+        DiscountRules.Evaluation evaluation = rules.evaluate(List.of(line(1L, 4, 1000)), "summer", NOW);
+        assertEquals(800, evaluation.discountCents());
+        assertTrue(evaluation.codeApplied());
+    }
+
+    @Test
+    void testScopedRuleWithoutProductsAppliesToNothing() {
+        // its only product was deleted, which removed the scope row but not the rule
+        DiscountRule orphaned = rule(1L, DiscountRuleType.PERCENTAGE, 50, null, Set.of());
+        orphaned.setCartWide(false);
+        DiscountRules rules = DiscountRules.compile(List.of(orphaned));
+
+        assertTrue(rules.evaluate(List.of(line(1L, 2, 1000)), null, NOW).applied().isEmpty());
+    }
+
+    private static DiscountRule rule(Long id, DiscountRuleType type, int percent, String code, Set<Long> productIds) {
+        DiscountRule rule = new DiscountRule();
+        rule.setRuleId(id);
+        rule.setName("Rule " + id);
+        rule.setType(type);
+        rule.setPercent(percent);
+        rule.setCode(code);
+        rule.getProductIds().addAll(productIds);
+        rule.setCartWide(productIds.isEmpty());
+        return rule;
+    }
+
+    private static CartQuote.Line line(long productId, int quantity, long unitCents) {
+        return new CartQuote.Line(productId, quantity, unitCents);
+    }
+}
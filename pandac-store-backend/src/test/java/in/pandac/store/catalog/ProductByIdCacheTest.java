@@ -0,0 +1,79 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.entity.Product;
+import in.pandac.store.event.ProductChangedEvent;
+import in.pandac.store.mapper.ProductMapper;
+import in.pandac.store.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductByIdCacheTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductMapper productMapper = mock(ProductMapper.class);
+    private final ProductByIdCache cache = new ProductByIdCache(productRepository, productMapper);
+
+    @BeforeEach
+    void setUp() {
+        when(productMapper.toDto(any())).thenAnswer(invocation -> dto(invocation.<Product>getArgument(0).getId(), "9.99"));
+    }
+
+    @Test
+    void testMissesOfAMultiGetShareOneQuery() {
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(1L), product(2L)));
+
+        Map<Long, ProductDto> found = cache.getAll(List.of(1L, 2L, 3L));
+
+        assertEquals(Set.of(1L, 2L), found.keySet());
+        verify(productRepository, times(1)).findAllById(any());
+        // now cached: no further query for them
+        assertEquals(Set.of(1L, 2L), cache.getAll(List.of(2L, 1L)).keySet());
+        assertTrue(cache.get(1L).isPresent());
+        verify(productRepository, times(1)).findAllById(any());
+        verify(productRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testChangeEventsKeepEntriesCoherent() {
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(1L), product(2L)));
+        cache.getAll(List.of(1L, 2L));
+
+        cache.onProductChanged(ProductChangedEvent.updated(dto(1L, "7.99")));
+        cache.onProductChanged(ProductChangedEvent.deleted(2L));
+
+        assertEquals(new BigDecimal("7.99"), cache.get(1L).orElseThrow().getPrice());
+        when(productRepository.findById(2L)).thenReturn(Optional.empty());
+        assertTrue(cache.get(2L).isEmpty());
+        verify(productRepository).findById(2L);
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+
+    private static ProductDto dto(Long id, String price) {
+        ProductDto product = new ProductDto();
+        product.setProductId(id);
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+}
@@ -0,0 +1,65 @@
+package in.pandac.store.catalog;
+
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        ProductCatalogLoader loader = mock(ProductCatalogLoader.class);
+        when(loader.loadCatalog()).thenReturn(List.of(
+                product(1L, "Spider Plant", "Arching striped leaves", 7),
+                product(2L, "String of Hearts", "A delicate trailing vine", 2),
+                product(3L, "Parlor Palm", "A classic indoor palm, safe near a spider", 5)));
+        searchIndex = new ProductSearchIndex(loader);
+        searchIndex.build();
+    }
+
+    @Test
+    void testPrefixMatchesWhileTyping() {
+        List<ProductDto> results = searchIndex.search("spi", 10);
+
+        assertEquals(List.of(1L, 3L), results.stream().map(ProductDto::getProductId).toList());
+    }
+
+    @Test
+    void testAllTokensMustMatch() {
+        List<ProductDto> results = searchIndex.search("palm indoor", 10);
+
+        assertEquals(1, results.size());
+        assertEquals(3L, results.get(0).getProductId());
+    }
+
+    @Test
+    void testIndexFollowsProductChanges() {
+        searchIndex.onProductChanged(ProductChangedEvent.deleted(1L));
+        searchIndex.onProductChanged(ProductChangedEvent.created(product(4L, "Money Tree", "Braided trunk", 5)));
+
+        assertEquals(List.of(3L), searchIndex.search("spider", 10).stream().map(ProductDto::getProductId).toList());
+        assertEquals(List.of(4L), searchIndex.search("mon", 10).stream().map(ProductDto::getProductId).toList());
+        assertTrue(searchIndex.search("unknown", 10).isEmpty());
+    }
+
+    private static ProductDto product(Long id, String name, String description, int popularity) {
+        ProductDto productDto = new ProductDto();
+        productDto.setProductId(id);
+        productDto.setName(name);
+        productDto.setDescription(description);
+        productDto.setPrice(BigDecimal.TEN);
+        productDto.setPopularity(popularity);
+        return productDto;
+    }
+}
@@ -2,6 +2,7 @@ package in.pandac.store.controller;
 
 import in.pandac.store.dto.DiscountDto;
 import in.pandac.store.entity.DiscountType;
+import in.pandac.store.service.CartQuoteService;
 import in.pandac.store.service.DiscountService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,9 @@ class DiscountControllerTest {
     @MockBean
     private DiscountService discountService;
 
+    @MockBean
+    private CartQuoteService cartQuoteService;
+
     @Test
     void testCreateDiscount() throws Exception {
         DiscountDto discountDto = new DiscountDto("TEST10", 10, DiscountType.PERCENTAGE);
@@ -99,4 +103,16 @@ class DiscountControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("true"));
     }
+
+    @Test
+    void testInvalidQuoteRequestReturnsBadRequestWithReason() throws Exception {
+        when(cartQuoteService.quote(any())).thenThrow(
+                new IllegalArgumentException("A quote needs between 1 and 100 cart lines"));
+
+        mockMvc.perform(post("/api/v1/discount/quote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage").value("A quote needs between 1 and 100 cart lines"));
+    }
 }
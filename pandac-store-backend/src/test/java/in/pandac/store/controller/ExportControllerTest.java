@@ -0,0 +1,45 @@
+package in.pandac.store.controller;
+
+import in.pandac.store.dto.ExportFormat;
+import in.pandac.store.service.ExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ExportControllerTest {
+
+    private final ExportService exportService = mock(ExportService.class);
+    private final ExportController exportController = new ExportController(exportService);
+
+    @Test
+    void testExportRunsWithItsOwnTimeout() throws Exception {
+        ReflectionTestUtils.setField(exportController, "timeoutMs", 600_000L);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("{\"productId\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportProducts(any(), eq(ExportFormat.NDJSON));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        WebAsyncTask<Void> task = exportController.exportProducts(ExportFormat.NDJSON, response);
+
+        assertEquals(600_000L, task.getTimeout());
+        assertEquals("application/x-ndjson", response.getContentType());
+        assertEquals("attachment; filename=\"products.ndjson\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        // nothing is read before the async task runs
+        verifyNoInteractions(exportService);
+        task.getCallable().call();
+        assertEquals("{\"productId\":1}\n", response.getContentAsString());
+    }
+}
@@ -0,0 +1,127 @@
+package in.pandac.store.controller;
+
+import in.pandac.store.catalog.CatalogPayloadCache;
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ProductController.class)
+class ProductControllerTest {
+
+    private static final byte[] JSON = "[{\"productId\":1}]".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] GZIP = {31, -117, 8, 0};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private CatalogPayloadCache catalogPayloadCache;
+
+    @BeforeEach
+    void setUp() {
+        when(catalogPayloadCache.get()).thenReturn(new CatalogPayloadCache.Payload(1, JSON, GZIP, "\"abc123\""));
+    }
+
+    @Test
+    void testGetProductsServesThePreRenderedCatalog() throws Exception {
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(JSON));
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void testGetProductsServesTheGzipCopyWithItsOwnEtag() throws Exception {
+        mockMvc.perform(get("/api/v1/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123-gz\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().bytes(GZIP));
+    }
+
+    @Test
+    void testGetProductById() throws Exception {
+        when(productService.getProductById(1L)).thenReturn(Optional.of(product(1L)));
+
+        mockMvc.perform(get("/api/v1/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId").value(1));
+        mockMvc.perform(get("/api/v1/products/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testBatchLookupKeepsTheServiceOrder() throws Exception {
+        when(productService.getProductsByIds(List.of(3L, 1L, 3L))).thenReturn(List.of(product(3L), product(1L)));
+
+        mockMvc.perform(post("/api/v1/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productIds\":[3,1,3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].productId").value(3))
+                .andExpect(jsonPath("$[1].productId").value(1));
+    }
+
+    @Test
+    void testBatchOverTheLimitIsRejected() throws Exception {
+        String ids = LongStream.rangeClosed(1, ApplicationConstants.PRODUCT_BATCH_MAX_SIZE + 1)
+                .mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        mockMvc.perform(post("/api/v1/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productIds\":[" + ids + "]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void testMatchingIfNoneMatchIsNotModified() throws Exception {
+        mockMvc.perform(get("/api/v1/products").header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(content().bytes(new byte[0]));
+
+        // the plain tag does not validate the gzip representation
+        mockMvc.perform(get("/api/v1/products")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andExpect(status().isOk());
+    }
+
+    private static ProductDto product(Long id) {
+        ProductDto product = new ProductDto();
+        product.setProductId(id);
+        product.setName("Product " + id);
+        return product;
+    }
+}
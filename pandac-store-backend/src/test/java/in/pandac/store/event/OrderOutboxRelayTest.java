@@ -0,0 +1,129 @@
+package in.pandac.store.event;
+
+import in.pandac.store.repository.OrderOutboxRepository;
+import in.pandac.store.repository.OrderOutboxRepository.OutboxRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the relay against a real transaction manager, so the savepoint around
+ * each event's listeners is exercised; the outbox table itself is mocked.
+ */
+class OrderOutboxRelayTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final OrderOutboxRepository outboxRepository = mock(OrderOutboxRepository.class);
+    private final AtomicBoolean failing = new AtomicBoolean(true);
+    private final List<Long> notified = new ArrayList<>();
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE order_projection (order_id BIGINT PRIMARY KEY, status VARCHAR(30))");
+        // the first listener writes through the relay's transaction, the second one may fail after it
+        OrderOutboxListener projection = event -> jdbcTemplate.update(
+                "INSERT INTO order_projection (order_id, status) VALUES (?, ?)", event.orderId(), event.orderStatus());
+        OrderOutboxListener notifier = event -> {
+            if (failing.get()) {
+                throw new IllegalStateException("notification service unavailable");
+            }
+            notified.add(event.orderId());
+        };
+        relay = new OrderOutboxRelay(outboxRepository, List.of(projection, notifier),
+                new DataSourceTransactionManager(database), BATCH_SIZE, 20);
+        when(outboxRepository.readPayload(any())).thenAnswer(invocation -> {
+            OutboxRow row = invocation.getArgument(0);
+            return OrderOutboxEvent.created(row.aggregateId(), "CREATED", new BigDecimal("19.99"), Map.of(1L, 1));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testFailingListenerRollsBackTheOtherListenersWriteAndTheEventIsRetried() {
+        OutboxRow row = new OutboxRow(1L, 42L, "{}", 0);
+        when(outboxRepository.claim(BATCH_SIZE)).thenReturn(List.of(row));
+
+        relay.poll();
+
+        assertEquals(0, projectedOrders());
+        verify(outboxRepository).markFailed(eq(1L), eq(1), eq("PENDING"), eq("notification service unavailable"),
+                eq(Duration.ofSeconds(2)));
+        verify(outboxRepository).delete(List.of());
+
+        // the retry delivers the event, and the projection is written exactly once
+        failing.set(false);
+        when(outboxRepository.claim(BATCH_SIZE)).thenReturn(List.of(new OutboxRow(1L, 42L, "{}", 1)));
+        relay.poll();
+
+        assertEquals(1, projectedOrders());
+        assertEquals(List.of(42L), notified);
+        verify(outboxRepository).delete(List.of(1L));
+    }
+
+    @Test
+    void testFailedEventHoldsBackTheLaterEventsOfItsOrderOnly() {
+        failing.set(false);
+        OrderOutboxListener failsForOrder42 = event -> {
+            if (event.orderId() == 42L) {
+                throw new IllegalStateException("order 42 cannot be projected");
+            }
+        };
+        relay = new OrderOutboxRelay(outboxRepository, List.of(failsForOrder42, event -> notified.add(event.orderId())),
+                new DataSourceTransactionManager(database), BATCH_SIZE, 20);
+        when(outboxRepository.claim(BATCH_SIZE)).thenReturn(List.of(
+                new OutboxRow(1L, 42L, "{}", 0), new OutboxRow(2L, 43L, "{}", 0), new OutboxRow(3L, 42L, "{}", 0)));
+
+        relay.poll();
+
+        assertEquals(List.of(43L), notified);
+        verify(outboxRepository).markFailed(eq(1L), eq(1), eq("PENDING"), anyString(), any());
+        verify(outboxRepository, never()).markFailed(eq(3L), anyInt(), anyString(), anyString(), any());
+        verify(outboxRepository).delete(List.of(2L));
+    }
+
+    @Test
+    void testEventIsGivenUpAfterTheLastAttempt() {
+        when(outboxRepository.claim(BATCH_SIZE)).thenReturn(List.of(new OutboxRow(1L, 42L, "{}", 9)));
+
+        relay.poll();
+
+        assertEquals(0, projectedOrders());
+        verify(outboxRepository).markFailed(1L, 10, "FAILED", "notification service unavailable", Duration.ZERO);
+    }
+
+    private int projectedOrders() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_projection", Integer.class);
+    }
+}
@@ -0,0 +1,247 @@
+package in.pandac.store.inventory;
+
+import in.pandac.store.exception.InsufficientStockException;
+import in.pandac.store.exception.ReservationLimitException;
+import in.pandac.store.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryLedgerTest {
+
+    private static final Long PRODUCT_ID = 1L;
+    private static final Long CUSTOMER_ID = 7L;
+    private static final Long OTHER_CUSTOMER_ID = 8L;
+    private static final int THREADS = 8;
+
+    private final StockTable stockTable = new StockTable();
+    private final TransactionStatus flushStatus = mock(TransactionStatus.class);
+    private final PlatformTransactionManager transactionManager = transactionManager(flushStatus);
+    private final InventoryLedger ledger = new InventoryLedger(stockTable, transactionManager,
+            Duration.ofMinutes(15), 10_000);
+
+    @Test
+    void testParallelReserveReleaseConfirmNeverOversells() throws Exception {
+        stockTable.stock.put(PRODUCT_ID, 100);
+        AtomicInteger confirmed = new AtomicInteger();
+
+        runInParallel(() -> {
+            for (int i = 0; i < 500; i++) {
+                int quantity = ThreadLocalRandom.current().nextInt(1, 4);
+                Reservation reservation;
+                try {
+                    reservation = ledger.reserve(CUSTOMER_ID, Map.of(PRODUCT_ID, quantity));
+                } catch (InsufficientStockException e) {
+                    continue;
+                }
+                if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                    ledger.confirm(reservation);
+                    confirmed.addAndGet(quantity);
+                } else {
+                    ledger.release(reservation);
+                }
+            }
+        });
+        ledger.flush();
+
+        assertTrue(confirmed.get() <= 100, "sold " + confirmed.get() + " of 100 units");
+        assertEquals(100 - confirmed.get(), stockTable.stock.get(PRODUCT_ID));
+        assertAvailable(100 - confirmed.get());
+    }
+
+    @Test
+    void testSetStockRacingReserveKeepsHeldUnits() throws Exception {
+        stockTable.stock.put(PRODUCT_ID, 1000);
+        List<Reservation> held = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch reserving = new CountDownLatch(THREADS - 1);
+
+        runInParallel(new Runnable() {
+            private final AtomicInteger workers = new AtomicInteger();
+
+            @Override
+            public void run() {
+                if (workers.getAndIncrement() == 0) {
+                    while (reserving.getCount() > 0) {
+                        ledger.setStock(PRODUCT_ID, ThreadLocalRandom.current().nextBoolean() ? 900 : 1000);
+                    }
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    held.add(ledger.reserve(CUSTOMER_ID, Map.of(PRODUCT_ID, 1)));
+                }
+                reserving.countDown();
+            }
+        });
+        ledger.setStock(PRODUCT_ID, 1000);
+
+        assertEquals(700, held.size());
+        assertAvailable(1000 - held.size());
+    }
+
+    @Test
+    void testSetStockOfUnknownProductIsRejected() {
+        assertThrows(ResourceNotFoundException.class, () -> ledger.setStock(42L, 10));
+    }
+
+    @Test
+    void testExpiredReservationIsNotConfirmedIntoOversell() {
+        stockTable.stock.put(PRODUCT_ID, 5);
+        Reservation expired = ledger.reserve(CUSTOMER_ID, Map.of(PRODUCT_ID, 3));
+        // the expiry sweep gives the units back and another customer takes them
+        ledger.release(expired);
+        ledger.reserve(OTHER_CUSTOMER_ID, Map.of(PRODUCT_ID, 4));
+
+        assertThrows(InsufficientStockException.class, () -> ledger.confirm(expired));
+        ledger.flush();
+
+        assertEquals(5, stockTable.stock.get(PRODUCT_ID));
+        assertAvailable(1);
+    }
+
+    @Test
+    void testExpiredReservationIsConfirmedWhenStockIsLeft() {
+        stockTable.stock.put(PRODUCT_ID, 5);
+        Reservation expired = ledger.reserve(CUSTOMER_ID, Map.of(PRODUCT_ID, 3));
+        ledger.release(expired);
+
+        ledger.confirm(expired);
+        ledger.flush();
+
+        assertEquals(2, stockTable.stock.get(PRODUCT_ID));
+        assertAvailable(2);
+    }
+
+    @Test
+    void testFailedFlushIsRolledBackAndRetriedInFull() {
+        stockTable.stock.put(PRODUCT_ID, 10);
+        ledger.confirm(ledger.reserve(CUSTOMER_ID, Map.of(PRODUCT_ID, 4)));
+        stockTable.failNextBatch = true;
+
+        ledger.flush();
+
+        verify(transactionManager).rollback(flushStatus);
+        assertEquals(10, stockTable.stock.get(PRODUCT_ID));
+        ledger.flush();
+        assertEquals(6, stockTable.stock.get(PRODUCT_ID));
+        assertAvailable(6);
+    }
+
+    @Test
+    void testReservationOnlyServesItsCustomer() {
+        stockTable.stock.put(PRODUCT_ID, 10);
+        Reservation reservation = ledger.reserve(CUSTOMER_ID, Map.of(PRODUCT_ID, 2));
+
+        assertFalse(ledger.release(OTHER_CUSTOMER_ID, reservation.id()));
+        Reservation other = ledger.reserveOrRenew(OTHER_CUSTOMER_ID, reservation.id(), Map.of(PRODUCT_ID, 2));
+
+        assertNotEquals(reservation.id(), other.id());
+        assertEquals(OTHER_CUSTOMER_ID, other.customerId());
+        assertTrue(ledger.release(CUSTOMER_ID, reservation.id()));
+        assertAvailable(8);
+    }
+
+    @Test
+    void testCustomerCannotHoldMoreThanTheLimit() {
+        stockTable.stock.put(PRODUCT_ID, 100);
+        InventoryLedger capped = new InventoryLedger(stockTable, transactionManager, Duration.ofMinutes(15), 5);
+        Reservation first = capped.reserve(CUSTOMER_ID, Map.of(PRODUCT_ID, 3));
+
+        assertThrows(ReservationLimitException.class, () -> capped.reserve(CUSTOMER_ID, Map.of(PRODUCT_ID, 3)));
+        assertNotNull(capped.reserve(OTHER_CUSTOMER_ID, Map.of(PRODUCT_ID, 5)));
+        capped.confirm(first);
+        assertNotNull(capped.reserve(CUSTOMER_ID, Map.of(PRODUCT_ID, 5)));
+    }
+
+    // the remaining units can be reserved in full, and not one more
+    private void assertAvailable(int units) {
+        if (units > 0) {
+            assertNotNull(ledger.reserve(CUSTOMER_ID, Map.of(PRODUCT_ID, units)));
+        }
+        assertThrows(InsufficientStockException.class, () -> ledger.reserve(CUSTOMER_ID, Map.of(PRODUCT_ID, 1)));
+    }
+
+    private static PlatformTransactionManager transactionManager(TransactionStatus status) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        return transactionManager;
+    }
+
+    private static void runInParallel(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Stands in for the {@code products.stock} column with the three statements the ledger issues.
+     */
+    private static final class StockTable extends JdbcTemplate {
+
+        final Map<Long, Integer> stock = new ConcurrentHashMap<>();
+        volatile boolean failNextBatch;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            Integer units = stock.get((Long) args[0]);
+            return units == null ? List.of() : List.of((T) units);
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            return stock.replace((Long) args[1], (Integer) args[0]) != null ? 1 : 0;
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (failNextBatch) {
+                failNextBatch = false;
+                throw new DataAccessResourceFailureException("connection lost");
+            }
+            int[] counts = new int[batchArgs.size()];
+            for (int i = 0; i < counts.length; i++) {
+                long sold = (long) batchArgs.get(i)[0];
+                stock.computeIfPresent((Long) batchArgs.get(i)[1], (id, units) -> units - (int) sold);
+                counts[i] = 1;
+            }
+            return counts;
+        }
+    }
+}
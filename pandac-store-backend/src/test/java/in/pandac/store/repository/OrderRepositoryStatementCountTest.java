@@ -0,0 +1,147 @@
+package in.pandac.store.repository;
+
+import in.pandac.store.config.AuditorAwareImpl;
+import in.pandac.store.entity.Customer;
+import in.pandac.store.entity.Order;
+import in.pandac.store.entity.OrderItem;
+import in.pandac.store.entity.Product;
+import in.pandac.store.repository.projection.OrderItemView;
+import in.pandac.store.repository.projection.OrderSummaryView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(AuditorAwareImpl.class)
+class OrderRepositoryStatementCountTest {
+
+    private static final String STATUS = "CREATED";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testOrderHistoryStatementCountDoesNotGrowWithOrders() {
+        Customer small = createCustomer("small@example.com");
+        Customer large = createCustomer("large@example.com");
+        List<Product> products = createProducts(5);
+        createOrders(small, products, 1, 1);
+        createOrders(large, products, 25, 5);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(statementsForHistory(small.getCustomerId()), statementsForHistory(large.getCustomerId()));
+        assertEquals(2, statementsForHistory(large.getCustomerId()));
+        assertEquals(125, orderRepository.findOrderItemsByCustomer(large.getCustomerId()).size());
+    }
+
+    @Test
+    void testPendingQueueStatementCountDoesNotGrowWithOrders() {
+        Customer customer = createCustomer("queue@example.com");
+        List<Product> products = createProducts(3);
+        createOrders(customer, products, 2, 1);
+        entityManager.flush();
+        entityManager.clear();
+        long fewOrders = statementsForPendingQueue();
+
+        createOrders(customer, products, 40, 3);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(fewOrders, statementsForPendingQueue());
+        assertEquals(2, fewOrders);
+    }
+
+    private long statementsForHistory(Long customerId) {
+        Statistics statistics = statistics();
+        statistics.clear();
+        List<OrderSummaryView> orders = orderRepository.findOrderSummariesByCustomer(customerId);
+        List<OrderItemView> items = orderRepository.findOrderItemsByCustomer(customerId);
+        touch(orders, items);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long statementsForPendingQueue() {
+        Statistics statistics = statistics();
+        statistics.clear();
+        List<OrderSummaryView> orders = orderRepository.findOrderSummariesByStatus(STATUS);
+        List<OrderItemView> items = orderRepository.findOrderItemsByStatus(STATUS);
+        touch(orders, items);
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Read every field the service maps, so any lazy loading would show up in the count
+    private static void touch(List<OrderSummaryView> orders, List<OrderItemView> items) {
+        orders.forEach(order -> order.createdAt().toString());
+        items.forEach(item -> item.productName().length());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Customer createCustomer(String email) {
+        Customer customer = new Customer();
+        customer.setName("Test Customer");
+        customer.setEmail(email);
+        customer.setMobileNumber("9876543210");
+        customer.setPasswordHash("hash");
+        entityManager.persist(customer);
+        return customer;
+    }
+
+    private List<Product> createProducts(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setDescription("Description " + i);
+            product.setPrice(new BigDecimal("9.99"));
+            product.setPopularity(i);
+            product.setImageUrl("/images/" + i + ".png");
+            entityManager.persist(product);
+            return product;
+        }).toList();
+    }
+
+    private void createOrders(Customer customer, List<Product> products, int orders, int itemsPerOrder) {
+        for (int i = 0; i < orders; i++) {
+            Order order = new Order();
+            order.setCustomer(customer);
+            order.setTotalPrice(new BigDecimal("9.99").multiply(BigDecimal.valueOf(itemsPerOrder)));
+            order.setPaymentId("pi_" + customer.getEmail() + "_" + i);
+            order.setPaymentStatus("succeeded");
+            order.setOrderStatus(STATUS);
+            for (int j = 0; j < itemsPerOrder; j++) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setProduct(products.get(j % products.size()));
+                item.setQuantity(1);
+                item.setPrice(new BigDecimal("9.99"));
+                order.getOrderItems().add(item);
+            }
+            entityManager.persist(order);
+        }
+    }
+}
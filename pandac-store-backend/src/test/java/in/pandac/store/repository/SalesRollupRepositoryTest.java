@@ -0,0 +1,87 @@
+package in.pandac.store.repository;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SalesRollupRepositoryTest {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final SalesRollupRepository salesRollupRepository = new SalesRollupRepository(jdbcTemplate);
+
+    @Test
+    void testPlacedOrdersAreUpsertedFromLiveAndArchivedOrders() {
+        salesRollupRepository.addPlacedOrders(List.of(42L));
+
+        List<String> statements = updates(3);
+        assertTrue(statements.get(0).startsWith("INSERT INTO sales_hourly"));
+        assertTrue(statements.get(1).startsWith("INSERT INTO sales_daily"));
+        assertTrue(statements.get(2).startsWith("INSERT INTO product_sales_daily"));
+        for (String statement : statements) {
+            // an order archived before its event was delivered must still be counted
+            assertTrue(statement.contains(" FROM orders_archive "), statement);
+            assertTrue(statement.contains("ON DUPLICATE KEY UPDATE"), statement);
+        }
+        assertTrue(statements.get(1).contains("SELECT DATE(created_at), COUNT(*), 0, SUM(total_price), 0"));
+    }
+
+    @Test
+    void testCancelledOrdersMoveToTheCancelledColumns() {
+        salesRollupRepository.addCancelledOrders(List.of(42L));
+
+        List<String> statements = updates(3);
+        assertTrue(statements.get(1).contains("SELECT DATE(created_at), 0, COUNT(*), 0, SUM(total_price)"));
+        assertTrue(statements.get(2).contains("0, SUM(quantity), 0, SUM(quantity * price)"));
+    }
+
+    @Test
+    void testNoOrdersNoStatements() {
+        salesRollupRepository.addPlacedOrders(List.of());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testRangeWithPendingOutboxEventsIsNotSettled() {
+        LocalDate day = LocalDate.of(2026, 3, 10);
+        when(jdbcTemplate.queryForObject(contains("order_outbox"), anyMap(), eq(Boolean.class))).thenReturn(true);
+
+        assertFalse(salesRollupRepository.lockSettledRange(day, day.plusDays(1)));
+        // the day's orders are locked before the outbox is read
+        verify(jdbcTemplate).queryForObject(contains("FOR SHARE"), eq(Map.of("from", day.atStartOfDay(),
+                "to", day.plusDays(1).atStartOfDay())), eq(Long.class));
+    }
+
+    @Test
+    void testRangeWithoutPendingOutboxEventsIsSettled() {
+        LocalDate day = LocalDate.of(2026, 3, 10);
+        when(jdbcTemplate.queryForObject(contains("order_outbox"), anyMap(), eq(Boolean.class))).thenReturn(false);
+
+        assertTrue(salesRollupRepository.lockSettledRange(day, day.plusDays(1)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> updates(int count) {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Map<String, ?>> params = ArgumentCaptor.forClass(Map.class);
+        verify(jdbcTemplate, times(count)).update(sql.capture(), params.capture());
+        params.getAllValues().forEach(value -> assertEquals(Map.of("orderIds", List.of(42L)), value));
+        return sql.getAllValues();
+    }
+}
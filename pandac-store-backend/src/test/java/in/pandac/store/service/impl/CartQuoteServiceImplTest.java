@@ -0,0 +1,197 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.catalog.DiscountCodeCache;
+import in.pandac.store.catalog.DiscountRuleEngine;
+import in.pandac.store.catalog.DiscountRules;
+import in.pandac.store.catalog.ProductByIdCache;
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.dto.AppliedPromotionDto;
+import in.pandac.store.dto.CartQuoteDto;
+import in.pandac.store.dto.CartQuoteItemDto;
+import in.pandac.store.dto.CartQuoteRequestDto;
+import in.pandac.store.dto.DiscountDto;
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.entity.DiscountRule;
+import in.pandac.store.entity.DiscountRuleType;
+import in.pandac.store.entity.DiscountType;
+import in.pandac.store.exception.ResourceNotFoundException;
+import in.pandac.store.repository.DiscountRuleRepository;
+import in.pandac.store.repository.RedeemedQuoteRepository;
+import in.pandac.store.util.CartQuote;
+import in.pandac.store.util.QuoteTokenUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CartQuoteServiceImplTest {
+
+    private static final DiscountRules.Evaluation NO_PROMOTIONS =
+            new DiscountRules.Evaluation(List.of(), 0, false, false);
+
+    private final ProductByIdCache productByIdCache = mock(ProductByIdCache.class);
+    private final DiscountCodeCache discountCodeCache = mock(DiscountCodeCache.class);
+    private final DiscountRuleEngine discountRuleEngine = mock(DiscountRuleEngine.class);
+    private final QuoteTokenUtil quoteTokenUtil = new QuoteTokenUtil(
+            new MockEnvironment().withProperty(ApplicationConstants.JWT_SECRET_KEY, "quote-test-secret"));
+    private final RedeemedQuoteRepository redeemedQuoteRepository = mock(RedeemedQuoteRepository.class);
+    private final CartQuoteServiceImpl cartQuoteService = new CartQuoteServiceImpl(productByIdCache,
+            discountCodeCache, discountRuleEngine, quoteTokenUtil, redeemedQuoteRepository);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cartQuoteService, "ttl", Duration.ofMinutes(15));
+        when(productByIdCache.getAll(any())).thenReturn(Map.of(
+                1L, product(1L, "19.99"), 2L, product(2L, "5.00")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testTotalsAndTokenAgree() {
+        when(discountRuleEngine.evaluate(anyList(), any())).thenReturn(NO_PROMOTIONS);
+        when(discountCodeCache.get("SAVE10")).thenReturn(
+                Optional.of(new DiscountDto("SAVE10", 10, DiscountType.PERCENTAGE)));
+
+        CartQuoteDto quote = cartQuoteService.quote(new CartQuoteRequestDto(List.of(
+                new CartQuoteItemDto(1L, 2), new CartQuoteItemDto(2L, 1), new CartQuoteItemDto(1L, 1)), "SAVE10"));
+
+        // duplicate lines are merged: 3 x 19.99 + 5.00
+        assertEquals(2, quote.lines().size());
+        assertEquals(new BigDecimal("64.97"), quote.subtotal());
+        // 10% of 64.97 is 6.497, rounded half up
+        assertEquals(new BigDecimal("6.50"), quote.discount());
+        assertEquals(new BigDecimal("58.47"), quote.total());
+        assertEquals("SAVE10", quote.discountCode());
+
+        CartQuote signed = quoteTokenUtil.verify(quote.quoteToken());
+        assertEquals(List.of(new CartQuote.Line(1L, 3, 1999), new CartQuote.Line(2L, 1, 500)), signed.lines());
+        assertEquals(650, signed.discountCents());
+        assertEquals(5847, signed.totalCents());
+        assertFalse(signed.promotionCode());
+        assertNull(signed.customer());
+    }
+
+    @Test
+    void testQuoteIsBoundToTheAuthenticatedCustomer() {
+        when(discountRuleEngine.evaluate(anyList(), any())).thenReturn(NO_PROMOTIONS);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("jane@example.com", null, List.of()));
+
+        CartQuoteDto quote = cartQuoteService.quote(new CartQuoteRequestDto(List.of(new CartQuoteItemDto(1L, 1)), null));
+
+        assertEquals("jane@example.com", quoteTokenUtil.verify(quote.quoteToken()).customer());
+    }
+
+    @Test
+    void testDiscountCodeAppliesToWhatPromotionsLeave() {
+        when(discountRuleEngine.evaluate(anyList(), any())).thenReturn(new DiscountRules.Evaluation(
+                List.of(new DiscountRules.Applied(7L, "Spring sale", 1000)), 1000, false, false));
+        when(discountCodeCache.get("SAVE10")).thenReturn(
+                Optional.of(new DiscountDto("SAVE10", 10, DiscountType.PERCENTAGE)));
+
+        CartQuoteDto quote = cartQuoteService.quote(new CartQuoteRequestDto(List.of(
+                new CartQuoteItemDto(2L, 10)), "SAVE10"));
+
+        // 50.00 - 10.00 promotion, then 10% of the remaining 40.00
+        assertEquals(new BigDecimal("14.00"), quote.discount());
+        assertEquals(new BigDecimal("36.00"), quote.total());
+        assertEquals(new BigDecimal("10.00"), quote.promotions().get(0).discount());
+    }
+
+    @Test
+    void testExclusivePromotionIgnoresTheDiscountCode() {
+        when(discountRuleEngine.evaluate(anyList(), any())).thenReturn(new DiscountRules.Evaluation(
+                List.of(new DiscountRules.Applied(7L, "Clearance", 500)), 500, false, true));
+
+        CartQuoteDto quote = cartQuoteService.quote(new CartQuoteRequestDto(List.of(
+                new CartQuoteItemDto(2L, 2)), "SAVE10"));
+
+        assertEquals(new BigDecimal("5.00"), quote.total());
+        assertNull(quote.discountCode());
+        verifyNoInteractions(discountCodeCache);
+    }
+
+    @Test
+    void testUnknownProductIsNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> cartQuoteService.quote(
+                new CartQuoteRequestDto(List.of(new CartQuoteItemDto(3L, 1)), null)));
+    }
+
+    @Test
+    void testPercentageDiscountRoundsHalfUpToTheCent() {
+        DiscountDto fifteenPercent = new DiscountDto("P15", 15, DiscountType.PERCENTAGE);
+        DiscountDto halfOff = new DiscountDto("P50", 50, DiscountType.PERCENTAGE);
+
+        assertEquals(151, CartQuoteServiceImpl.discountCents(1005, fifteenPercent));
+        assertEquals(150, CartQuoteServiceImpl.discountCents(1001, fifteenPercent));
+        assertEquals(502, CartQuoteServiceImpl.discountCents(1003, halfOff));
+        assertEquals(0, CartQuoteServiceImpl.discountCents(0, halfOff));
+    }
+
+    @Test
+    void testFixedDiscountNeedsTheSubtotalToCoverIt() {
+        DiscountDto tenOff = new DiscountDto("F10", 10, DiscountType.FIXED);
+
+        assertEquals(1000, CartQuoteServiceImpl.discountCents(1000, tenOff));
+        assertEquals(0, CartQuoteServiceImpl.discountCents(999, tenOff));
+    }
+
+    @Test
+    void testCodeOfAPromotionRuleIsNotAppliedAgainAsADiscount() {
+        DiscountRule rule = new DiscountRule();
+        rule.setRuleId(1L);
+        rule.setName("Spring");
+        rule.setCode("SPRING");
+        rule.setType(DiscountRuleType.PERCENTAGE);
+        rule.setPercent(20);
+        rule.setCartWide(true);
+        DiscountRuleRepository discountRuleRepository = mock(DiscountRuleRepository.class);
+        when(discountRuleRepository.findActiveWithProducts()).thenReturn(List.of(rule));
+        CartQuoteServiceImpl withRules = new CartQuoteServiceImpl(productByIdCache, discountCodeCache,
+                new DiscountRuleEngine(discountRuleRepository), quoteTokenUtil, redeemedQuoteRepository);
+        ReflectionTestUtils.setField(withRules, "ttl", Duration.ofMinutes(15));
+        when(discountCodeCache.get("SPRING")).thenReturn(
+                Optional.of(new DiscountDto("SPRING", 10, DiscountType.PERCENTAGE)));
+
+        CartQuoteDto quote = withRules.quote(new CartQuoteRequestDto(List.of(new CartQuoteItemDto(2L, 2)), "spring"));
+
+        // 20% of 10.00 from the rule only
+        assertEquals(new BigDecimal("2.00"), quote.discount());
+        assertEquals(new BigDecimal("8.00"), quote.total());
+        assertEquals(List.of(1L), quote.promotions().stream().map(AppliedPromotionDto::ruleId).toList());
+        assertTrue(quoteTokenUtil.verify(quote.quoteToken()).promotionCode());
+        verifyNoInteractions(discountCodeCache);
+    }
+
+    private static ProductDto product(Long productId, String price) {
+        ProductDto product = new ProductDto();
+        product.setProductId(productId);
+        product.setName("Product " + productId);
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+}
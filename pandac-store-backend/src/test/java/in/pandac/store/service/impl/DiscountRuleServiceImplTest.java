@@ -0,0 +1,118 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.catalog.DiscountCodeCache;
+import in.pandac.store.catalog.ProductByIdCache;
+import in.pandac.store.dto.DiscountDto;
+import in.pandac.store.dto.DiscountRuleDto;
+import in.pandac.store.dto.ProductDto;
+import in.pandac.store.entity.DiscountRule;
+import in.pandac.store.entity.DiscountRuleType;
+import in.pandac.store.entity.DiscountType;
+import in.pandac.store.event.DiscountRuleChangedEvent;
+import in.pandac.store.repository.DiscountRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DiscountRuleServiceImplTest {
+
+    private final DiscountRuleRepository discountRuleRepository = mock(DiscountRuleRepository.class);
+    private final ProductByIdCache productByIdCache = mock(ProductByIdCache.class);
+    private final DiscountCodeCache discountCodeCache = mock(DiscountCodeCache.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final DiscountRuleServiceImpl discountRuleService = new DiscountRuleServiceImpl(discountRuleRepository,
+            productByIdCache, discountCodeCache, eventPublisher);
+
+    @BeforeEach
+    void setUp() {
+        when(discountRuleRepository.save(any(DiscountRule.class))).thenAnswer(invocation -> {
+            DiscountRule rule = invocation.getArgument(0);
+            rule.setRuleId(1L);
+            return rule;
+        });
+        when(discountCodeCache.get(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void testRuleWithoutProductsIsStoredAsCartWide() {
+        DiscountRuleDto created = discountRuleService.createRule(percentage(null, Set.of(), null));
+
+        assertTrue(created.cartWide());
+        assertTrue(created.productIds().isEmpty());
+        verify(eventPublisher).publishEvent(new DiscountRuleChangedEvent(1L));
+    }
+
+    @Test
+    void testRuleWithProductsIsScoped() {
+        when(productByIdCache.getAll(any())).thenReturn(Map.of(5L, new ProductDto()));
+
+        DiscountRuleDto created = discountRuleService.createRule(percentage(null, Set.of(5L), null));
+
+        assertFalse(created.cartWide());
+        assertEquals(Set.of(5L), created.productIds());
+    }
+
+    @Test
+    void testScopeMustMatchTheProducts() {
+        assertThrows(IllegalArgumentException.class,
+                () -> discountRuleService.createRule(percentage(null, Set.of(), false)));
+        verify(discountRuleRepository, never()).save(any());
+    }
+
+    @Test
+    void testUnknownProductsAreRejected() {
+        when(productByIdCache.getAll(any())).thenReturn(Map.of());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> discountRuleService.createRule(percentage(null, Set.of(5L), null)));
+    }
+
+    @Test
+    void testCodeOfAnExistingDiscountIsRejected() {
+        when(discountCodeCache.get("SAVE10")).thenReturn(
+                Optional.of(new DiscountDto("SAVE10", 10, DiscountType.PERCENTAGE)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> discountRuleService.createRule(percentage("SAVE10", Set.of(), null)));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testRuleMustEndAfterItStarts() {
+        Instant now = Instant.now();
+        DiscountRuleDto backwards = new DiscountRuleDto(null, "Backwards", null, DiscountRuleType.FIXED, null,
+                new BigDecimal("5.00"), null, null, null, Set.of(), null, null, null, now, now, null);
+
+        assertThrows(IllegalArgumentException.class, () -> discountRuleService.createRule(backwards));
+    }
+
+    @Test
+    void testDeletingAnUnknownRuleReportsIt() {
+        when(discountRuleRepository.existsById(9L)).thenReturn(false);
+
+        assertFalse(discountRuleService.deleteRule(9L));
+        verify(discountRuleRepository, never()).deleteById(any());
+    }
+
+    private static DiscountRuleDto percentage(String code, Set<Long> productIds, Boolean cartWide) {
+        return new DiscountRuleDto(null, "Ten off", code, DiscountRuleType.PERCENTAGE, 10, null, null, null,
+                null, productIds, null, null, null, null, null, cartWide);
+    }
+}
@@ -0,0 +1,114 @@
+package in.pandac.store.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.pandac.store.dto.ExportFormat;
+import jakarta.persistence.EntityManager;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExportServiceImplTest {
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final Session session = mock(Session.class);
+    @SuppressWarnings("unchecked")
+    private final SelectionQuery<Object[]> query = mock(SelectionQuery.class, RETURNS_SELF);
+    private final ExportServiceImpl exportService = new ExportServiceImpl(entityManager,
+            transactionManager(), new ObjectMapper());
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportService, "fetchSize", 2);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.createSelectionQuery(anyString(), eq(Object[].class))).thenReturn(query);
+    }
+
+    @Test
+    void testCsvHasAHeaderAndEscapesValues() {
+        rows(new Object[]{1L, "Ann", "ann@example.com", "555", "1 Main St, Apt 2", "Pune", "MH", "411001",
+                "IN", null});
+
+        exportService.exportCustomers(out, ExportFormat.CSV);
+
+        assertEquals("""
+                customerId,name,email,mobileNumber,street,city,state,postalCode,country,createdAt
+                1,Ann,ann@example.com,555,"1 Main St, Apt 2",Pune,MH,411001,IN,
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testNdjsonWritesOneObjectPerRow() {
+        rows(order(1L, "19.99"), order(2L, "5.00"));
+
+        exportService.exportOrders(out, ExportFormat.NDJSON);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"orderId\":1,\"customerId\":7,\"orderStatus\":\"CREATED\",\"paymentStatus\":\"paid\","
+                + "\"totalPrice\":19.99,\"discount\":null,\"discountCode\":null,\"createdAt\":null,"
+                + "\"productId\":3,\"quantity\":1,\"price\":19.99}", lines[0]);
+    }
+
+    @Test
+    void testOnlyTheExportQueryIsStreamedAndTheContextIsClearedPerBatch() {
+        rows(order(1L, "1.00"), order(2L, "2.00"), order(3L, "3.00"), order(4L, "4.00"), order(5L, "5.00"));
+
+        exportService.exportOrders(out, ExportFormat.CSV);
+
+        verify(query).setFetchSize(ExportServiceImpl.STREAMING_FETCH_SIZE);
+        verify(query).scroll(ScrollMode.FORWARD_ONLY);
+        // after rows 2 and 4
+        verify(session, times(2)).clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rows(Object[]... rows) {
+        ScrollableResults<Object[]> results = mock(ScrollableResults.class);
+        List<Boolean> hasNext = new ArrayList<>();
+        for (int i = 1; i < rows.length; i++) {
+            hasNext.add(true);
+        }
+        hasNext.add(false);
+        when(results.next()).thenReturn(true, hasNext.toArray(Boolean[]::new));
+        if (rows.length > 1) {
+            when(results.get()).thenReturn(rows[0], List.of(rows).subList(1, rows.length).toArray(Object[][]::new));
+        } else {
+            when(results.get()).thenReturn(rows[0]);
+        }
+        when(query.scroll(any(ScrollMode.class))).thenReturn(results);
+    }
+
+    private static Object[] order(Long orderId, String price) {
+        return new Object[]{orderId, 7L, "CREATED", "paid", new BigDecimal(price), null, null, null, 3L, 1,
+                new BigDecimal(price)};
+    }
+
+    private static PlatformTransactionManager transactionManager() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        return transactionManager;
+    }
+}
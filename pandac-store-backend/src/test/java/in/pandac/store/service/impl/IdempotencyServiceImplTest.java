@@ -0,0 +1,165 @@
+package in.pandac.store.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.pandac.store.entity.IdempotencyRecord;
+import in.pandac.store.exception.IdempotencyKeyException;
+import in.pandac.store.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceImplTest {
+
+    private static final String SCOPE = "orders";
+    private static final String KEY = "key-1";
+
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyServiceImpl idempotencyService;
+
+    record Receipt(String id) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        idempotencyService = new IdempotencyServiceImpl(repository, objectMapper, transactionManager);
+    }
+
+    @Test
+    void testFirstClaimRunsTheActionAndStoresItsResponse() {
+        when(repository.claim(anyString(), anyString())).thenReturn(1);
+
+        Receipt receipt = execute("cart-1");
+
+        assertEquals(new Receipt("receipt-1"), receipt);
+        assertEquals(1, executions.get());
+        verify(repository).complete(anyString(), eq("{\"id\":\"receipt-1\"}"));
+        verify(repository, never()).takeOver(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testStoredResponseIsReplayed() {
+        when(repository.claim(anyString(), anyString())).thenReturn(1);
+
+        Receipt first = execute("cart-1");
+        Receipt second = execute("cart-1");
+
+        assertEquals(first, second);
+        assertEquals(1, executions.get());
+        verify(repository, times(1)).claim(anyString(), anyString());
+    }
+
+    @Test
+    void testSameKeyWithAnotherPayloadIsRejected() {
+        when(repository.claim(anyString(), anyString())).thenReturn(1);
+        execute("cart-1");
+
+        IdempotencyKeyException rejected = assertThrows(IdempotencyKeyException.class, () -> execute("cart-2"));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, rejected.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testConcurrentDuplicateOnThisInstanceWaitsForTheFirst() throws Exception {
+        when(repository.claim(anyString(), anyString())).thenReturn(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Receipt> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(SCOPE, KEY, "cart-1", Receipt.class, () -> {
+                    started.countDown();
+                    await(release);
+                    return new Receipt("receipt-" + executions.incrementAndGet());
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Receipt> duplicate = CompletableFuture.supplyAsync(() -> execute("cart-1"));
+        release.countDown();
+
+        assertEquals(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testDuplicateOfALiveClaimElsewhereReplaysItsResponse() throws Exception {
+        when(repository.claim(anyString(), anyString())).thenReturn(0);
+        when(repository.takeOver(anyString(), anyString(), any())).thenReturn(0);
+        String requestHash = sha256Of("cart-1");
+        when(repository.findById(anyString())).thenReturn(
+                Optional.of(record(IdempotencyRecord.STATUS_PENDING, requestHash, null)),
+                Optional.of(record(IdempotencyRecord.STATUS_COMPLETED, requestHash, "{\"id\":\"receipt-9\"}")));
+
+        Receipt receipt = execute("cart-1");
+
+        assertEquals(new Receipt("receipt-9"), receipt);
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void testExpiredLeaseIsTakenOver() {
+        when(repository.claim(anyString(), anyString())).thenReturn(0);
+        when(repository.takeOver(anyString(), anyString(), any())).thenReturn(1);
+
+        Receipt receipt = execute("cart-1");
+
+        assertEquals(new Receipt("receipt-1"), receipt);
+        assertEquals(1, executions.get());
+        verify(repository, never()).findById(anyString());
+    }
+
+    private Receipt execute(String request) {
+        return idempotencyService.execute(SCOPE, KEY, request, Receipt.class,
+                () -> new Receipt("receipt-" + executions.incrementAndGet()));
+    }
+
+    private static IdempotencyRecord record(String status, String requestHash, String body) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setStatus(status);
+        record.setRequestHash(requestHash);
+        record.setResponseBody(body);
+        record.setCreatedAt(Instant.now());
+        return record;
+    }
+
+    // the service hashes the JSON form of the request
+    private String sha256Of(String request) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.repository.ArchivedOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderArchiveServiceImplTest {
+
+    private final ArchivedOrderRepository archivedOrderRepository = mock(ArchivedOrderRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final OrderArchiveServiceImpl orderArchiveService =
+            new OrderArchiveServiceImpl(archivedOrderRepository, jdbcTemplate, transactionManager);
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        ReflectionTestUtils.setField(orderArchiveService, "retention", Duration.ofDays(180));
+        ReflectionTestUtils.setField(orderArchiveService, "batchSize", 2);
+        ReflectionTestUtils.setField(orderArchiveService, "pauseMs", 0L);
+        ReflectionTestUtils.setField(orderArchiveService, "maxBatchesPerRun", 1000);
+    }
+
+    @Test
+    void testClosedOrdersAreMovedChunkByChunk() {
+        String confirmed = ApplicationConstants.ORDER_STATUS_CONFIRMED;
+        when(archivedOrderRepository.lockArchivableOrderIds(eq(confirmed), any(), eq(2)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(archivedOrderRepository.lockArchivableOrderIds(eq(ApplicationConstants.ORDER_STATUS_CANCELLED),
+                any(), eq(2))).thenReturn(List.of());
+        when(archivedOrderRepository.deleteOrders(any())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).size());
+
+        assertEquals(3, orderArchiveService.archiveClosedOrders());
+
+        // one transaction per chunk: two confirmed chunks and one empty cancelled chunk
+        verify(transactionManager, times(3)).commit(any());
+        InOrder order = inOrder(archivedOrderRepository);
+        order.verify(archivedOrderRepository).copyOrderItems(List.of(1L, 2L));
+        order.verify(archivedOrderRepository).copyOrders(eq(List.of(1L, 2L)), any());
+        order.verify(archivedOrderRepository).deleteOrderItems(List.of(1L, 2L));
+        order.verify(archivedOrderRepository).deleteOrders(List.of(1L, 2L));
+        order.verify(archivedOrderRepository).copyOrderItems(List.of(3L));
+    }
+
+    @Test
+    void testRunStopsAfterTheBatchLimit() {
+        ReflectionTestUtils.setField(orderArchiveService, "maxBatchesPerRun", 3);
+        when(archivedOrderRepository.lockArchivableOrderIds(anyString(), any(), anyInt()))
+                .thenReturn(List.of(1L, 2L));
+        when(archivedOrderRepository.deleteOrders(any())).thenReturn(2);
+
+        assertEquals(6, orderArchiveService.archiveClosedOrders());
+        verify(archivedOrderRepository, never()).lockArchivableOrderIds(
+                eq(ApplicationConstants.ORDER_STATUS_CANCELLED), any(), anyInt());
+    }
+
+    @Test
+    void testPartitionsAreAddedUntilTheLookahead() {
+        // a month ahead: one more quarter still ends inside the 180 day lookahead, the next one past it
+        LocalDate lastBound = LocalDate.now().plusDays(30);
+        when(jdbcTemplate.queryForList(anyString(), eq(LocalDate.class), eq("orders")))
+                .thenReturn(List.of(lastBound));
+        when(jdbcTemplate.queryForList(anyString(), eq(LocalDate.class), eq("order_items")))
+                .thenReturn(List.of());
+
+        orderArchiveService.scheduledPartitionMaintenance();
+
+        ArgumentCaptor<String> ddl = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).execute(ddl.capture());
+        String quarter = "p" + lastBound.getYear() + "q" + ((lastBound.getMonthValue() - 1) / 3 + 1);
+        assertEquals("ALTER TABLE orders REORGANIZE PARTITION p_future INTO (PARTITION " + quarter
+                + " VALUES LESS THAN (UNIX_TIMESTAMP('" + lastBound.plusMonths(3) + " 00:00:00')), "
+                + "PARTITION p_future VALUES LESS THAN MAXVALUE)", ddl.getAllValues().get(0));
+        assertTrue(ddl.getAllValues().get(1).contains(lastBound.plusMonths(6) + " 00:00:00"));
+        // order_items is not partitioned
+        assertFalse(ddl.getAllValues().stream().anyMatch(statement -> statement.contains("order_items")));
+    }
+
+    @Test
+    void testPartitionsFarEnoughAheadAreLeftAlone() {
+        when(jdbcTemplate.queryForList(anyString(), eq(LocalDate.class), anyString()))
+                .thenReturn(List.of(LocalDate.now().plusDays(200)));
+
+        orderArchiveService.scheduledPartitionMaintenance();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
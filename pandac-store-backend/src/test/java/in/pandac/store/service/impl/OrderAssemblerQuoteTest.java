@@ -0,0 +1,165 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.catalog.DiscountCodeCache;
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.dto.DiscountDto;
+import in.pandac.store.dto.OrderItemDto;
+import in.pandac.store.dto.OrderRequestDto;
+import in.pandac.store.entity.Customer;
+import in.pandac.store.entity.DiscountType;
+import in.pandac.store.entity.Order;
+import in.pandac.store.exception.InvalidQuoteException;
+import in.pandac.store.exception.ResourceNotFoundException;
+import in.pandac.store.inventory.InventoryLedger;
+import in.pandac.store.mapper.OrderMapper;
+import in.pandac.store.repository.ProductRepository;
+import in.pandac.store.repository.RedeemedQuoteRepository;
+import in.pandac.store.util.CartQuote;
+import in.pandac.store.util.QuoteTokenUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Orders placed with a quote token are priced from the token, not from the client's prices,
+ * and only by the customer it was issued to, once.
+ */
+class OrderAssemblerQuoteTest {
+
+    private static final String CUSTOMER_EMAIL = "jane@example.com";
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final OrderMapper orderMapper = mock(OrderMapper.class);
+    private final DiscountCodeCache discountCodeCache = mock(DiscountCodeCache.class);
+    private final RedeemedQuoteRepository redeemedQuoteRepository = mock(RedeemedQuoteRepository.class);
+    private final QuoteTokenUtil quoteTokenUtil = new QuoteTokenUtil(
+            new MockEnvironment().withProperty(ApplicationConstants.JWT_SECRET_KEY, "quote-test-secret"));
+    private final OrderAssembler orderAssembler = new OrderAssembler(productRepository, orderMapper, mock(InventoryLedger.class), quoteTokenUtil, discountCodeCache, redeemedQuoteRepository);
+
+    private final Customer customer = customer(CUSTOMER_EMAIL);
+    private final String token = sign(CUSTOMER_EMAIL, false);
+
+    @BeforeEach
+    void setUp() {
+        when(discountCodeCache.get("SAVE10")).thenReturn(
+                Optional.of(new DiscountDto("SAVE10", 10, DiscountType.PERCENTAGE)));
+    }
+
+    @Test
+    void testQuotedPricesReplaceTheClientPrices() {
+        when(productRepository.findExistingIds(any())).thenReturn(Set.of(1L, 2L));
+
+        OrderRequestDto validated = orderAssembler.validate(customer, request(token,
+                new OrderItemDto(1L, 2, new BigDecimal("0.01")), new OrderItemDto(2L, 1, new BigDecimal("0.01"))));
+
+        assertEquals(new BigDecimal("40.48"), validated.totalPrice());
+        assertEquals(new BigDecimal("4.50"), validated.discount());
+        assertEquals("SAVE10", validated.discountCode());
+        assertEquals(List.of(new BigDecimal("19.99"), new BigDecimal("5.00")),
+                validated.items().stream().map(OrderItemDto::price).toList());
+    }
+
+    @Test
+    void testQuoteForAnotherCartIsRejected() {
+        assertThrows(InvalidQuoteException.class, () -> orderAssembler.validate(customer, request(token,
+                new OrderItemDto(1L, 3, null), new OrderItemDto(2L, 1, null))));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testProductDeletedAfterTheQuoteIsNotFound() {
+        when(productRepository.findExistingIds(any())).thenReturn(Set.of(1L));
+
+        assertThrows(ResourceNotFoundException.class, () -> orderAssembler.validate(customer, request(token,
+                new OrderItemDto(1L, 2, null), new OrderItemDto(2L, 1, null))));
+    }
+
+    @Test
+    void testQuoteOfAnotherCustomerIsRejected() {
+        assertThrows(InvalidQuoteException.class, () -> orderAssembler.validate(customer("john@example.com"),
+                request(token, new OrderItemDto(1L, 2, null), new OrderItemDto(2L, 1, null))));
+        assertThrows(InvalidQuoteException.class, () -> orderAssembler.validate(customer,
+                request(sign(null, false), new OrderItemDto(1L, 2, null), new OrderItemDto(2L, 1, null))));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testQuoteWithADeletedDiscountIsRejected() {
+        when(discountCodeCache.get("SAVE10")).thenReturn(Optional.empty());
+
+        assertThrows(InvalidQuoteException.class, () -> orderAssembler.validate(customer, request(token,
+                new OrderItemDto(1L, 2, null), new OrderItemDto(2L, 1, null))));
+    }
+
+    @Test
+    void testPromotionCodeIsNotLookedUpAsADiscount() {
+        when(productRepository.findExistingIds(any())).thenReturn(Set.of(1L, 2L));
+
+        OrderRequestDto validated = orderAssembler.validate(customer, request(sign(CUSTOMER_EMAIL, true),
+                new OrderItemDto(1L, 2, null), new OrderItemDto(2L, 1, null)));
+
+        assertEquals("SAVE10", validated.discountCode());
+        verifyNoInteractions(discountCodeCache);
+    }
+
+    @Test
+    void testQuoteIsRedeemedOnce() {
+        when(orderMapper.toEntity(any())).thenAnswer(invocation -> new Order());
+        when(redeemedQuoteRepository.redeem(QuoteTokenUtil.fingerprint(token))).thenReturn(true, false);
+        OrderRequestDto quoted = request(token, new OrderItemDto(1L, 2, null), new OrderItemDto(2L, 1, null));
+
+        assertNotNull(orderAssembler.assemble(customer, quoted));
+        assertThrows(InvalidQuoteException.class, () -> orderAssembler.assemble(customer, quoted));
+        verify(redeemedQuoteRepository, times(2)).redeem(QuoteTokenUtil.fingerprint(token));
+    }
+
+    @Test
+    void testUnquotedOrderRedeemsNothing() {
+        when(orderMapper.toEntity(any())).thenAnswer(invocation -> new Order());
+
+        orderAssembler.assemble(customer, request(null, new OrderItemDto(1L, 2, new BigDecimal("19.99"))));
+
+        verifyNoInteractions(redeemedQuoteRepository);
+    }
+
+    @Test
+    void testInvalidTokenIsRejected() {
+        assertThrows(InvalidQuoteException.class, () -> orderAssembler.validate(customer, request(token + "x",
+                new OrderItemDto(1L, 2, null), new OrderItemDto(2L, 1, null))));
+    }
+
+    private String sign(String customerEmail, boolean promotionCode) {
+        return quoteTokenUtil.sign(new CartQuote(customerEmail,
+                List.of(new CartQuote.Line(1L, 2, 1999), new CartQuote.Line(2L, 1, 500)),
+                "SAVE10", promotionCode, 450, 4048, Instant.now().plus(Duration.ofMinutes(15))));
+    }
+
+    private static Customer customer(String email) {
+        Customer customer = new Customer();
+        customer.setCustomerId(7L);
+        customer.setEmail(email);
+        return customer;
+    }
+
+    private static OrderRequestDto request(String quoteToken, OrderItemDto... items) {
+        return new OrderRequestDto(new BigDecimal("0.02"), "pi_quote", "succeeded", null, null,
+                List.of(items), null, quoteToken);
+    }
+}
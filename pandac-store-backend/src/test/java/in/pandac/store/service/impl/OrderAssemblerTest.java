@@ -0,0 +1,55 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.catalog.DiscountCodeCache;
+import in.pandac.store.dto.OrderItemDto;
+import in.pandac.store.dto.OrderRequestDto;
+import in.pandac.store.entity.Customer;
+import in.pandac.store.exception.ResourceNotFoundException;
+import in.pandac.store.inventory.InventoryLedger;
+import in.pandac.store.mapper.OrderMapper;
+import in.pandac.store.repository.ProductRepository;
+import in.pandac.store.repository.RedeemedQuoteRepository;
+import in.pandac.store.util.QuoteTokenUtil;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderAssemblerTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final OrderAssembler orderAssembler = new OrderAssembler(productRepository, mock(OrderMapper.class),
+            mock(InventoryLedger.class), mock(QuoteTokenUtil.class), mock(DiscountCodeCache.class),
+            mock(RedeemedQuoteRepository.class));
+
+    @Test
+    void testCartOfExistingProductsIsValidatedWithOneQuery() {
+        when(productRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(Set.of(1L, 2L));
+        OrderRequestDto request = request(new OrderItemDto(1L, 2, new BigDecimal("19.99")),
+                new OrderItemDto(2L, 1, new BigDecimal("5.00")), new OrderItemDto(1L, 1, new BigDecimal("19.99")));
+
+        assertSame(request, orderAssembler.validate(new Customer(), request));
+        verify(productRepository).findExistingIds(Set.of(1L, 2L));
+    }
+
+    @Test
+    void testDeletedProductIsNotFound() {
+        // deleted in the database, possibly still cached on this or another instance
+        when(productRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(Set.of(1L));
+
+        assertThrows(ResourceNotFoundException.class, () -> orderAssembler.validate(new Customer(),
+                request(new OrderItemDto(1L, 2, new BigDecimal("19.99")), new OrderItemDto(2L, 1, new BigDecimal("5.00")))));
+    }
+
+    private static OrderRequestDto request(OrderItemDto... items) {
+        return new OrderRequestDto(new BigDecimal("44.98"), "pi_cart", "succeeded", null, null,
+                List.of(items), null, null);
+    }
+}
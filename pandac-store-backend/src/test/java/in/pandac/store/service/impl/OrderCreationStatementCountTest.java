@@ -0,0 +1,129 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.catalog.DiscountCodeCache;
+import in.pandac.store.config.AuditorAwareImpl;
+import in.pandac.store.dto.OrderItemDto;
+import in.pandac.store.dto.OrderRequestDto;
+import in.pandac.store.entity.Customer;
+import in.pandac.store.entity.Product;
+import in.pandac.store.inventory.InventoryLedger;
+import in.pandac.store.mapper.OrderMapperImpl;
+import in.pandac.store.repository.OrderOutboxRepository;
+import in.pandac.store.repository.RedeemedQuoteRepository;
+import in.pandac.store.service.ProfileService;
+import in.pandac.store.util.QuoteTokenUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statement-count benchmark for order creation: the number of JDBC statements
+ * an order costs must not depend on how many lines the cart has.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({OrderServiceImpl.class, OrderAssembler.class, OrderMapperImpl.class, AuditorAwareImpl.class,
+        QuoteTokenUtil.class})
+class OrderCreationStatementCountTest {
+
+    // Cart sizes stay below one pooled id block (50) in total, so no id fetch falls inside a measurement
+    private static final List<Integer> CART_SIZES = List.of(1, 5, 10, 20);
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private ProfileService profileService;
+
+    // mocked so only the statements of the order itself are counted
+    @MockBean
+    private InventoryLedger inventoryLedger;
+
+    // outbox appends are plain JDBC and MySQL-specific; likewise left out of the count
+    @MockBean
+    private OrderOutboxRepository orderOutboxRepository;
+
+    // only quoted orders touch these, and the measured carts carry no quote
+    @MockBean
+    private DiscountCodeCache discountCodeCache;
+
+    @MockBean
+    private RedeemedQuoteRepository redeemedQuoteRepository;
+
+    @Test
+    void testStatementsPerOrderDoNotDependOnCartSize() {
+        Customer customer = new Customer();
+        customer.setName("Test Customer");
+        customer.setEmail("cart@example.com");
+        customer.setMobileNumber("9876543210");
+        customer.setPasswordHash("hash");
+        entityManager.persist(customer);
+        when(profileService.getAuthenticatedCustomer()).thenReturn(customer);
+        List<Product> products = IntStream.range(0, 20).mapToObj(this::createProduct).toList();
+        entityManager.flush();
+
+        // warm-up: loads the first id blocks
+        placeOrder(products, 1);
+
+        Map<Integer, Long> statementsByCartSize = new LinkedHashMap<>();
+        for (int cartSize : CART_SIZES) {
+            statementsByCartSize.put(cartSize, placeOrder(products, cartSize));
+        }
+
+        // one IN-query checking the products exist, one INSERT for the order and one JDBC batch for its items
+        statementsByCartSize.forEach((cartSize, statements) ->
+                assertEquals(3L, statements, "statements for a cart of " + cartSize + " lines"));
+    }
+
+    private long placeOrder(List<Product> products, int cartSize) {
+        List<OrderItemDto> items = products.subList(0, cartSize).stream()
+                .map(product -> new OrderItemDto(product.getId(), 1, product.getPrice()))
+                .toList();
+        BigDecimal total = products.get(0).getPrice().multiply(BigDecimal.valueOf(cartSize));
+        OrderRequestDto request = new OrderRequestDto(total, "pi_" + cartSize, "succeeded", null, null, items, null, null);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        orderService.createOrder(request);
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return statements;
+    }
+
+    private Product createProduct(int index) {
+        Product product = new Product();
+        product.setName("Product " + index);
+        product.setDescription("Description " + index);
+        product.setPrice(new BigDecimal("9.99"));
+        product.setPopularity(index);
+        product.setImageUrl("/images/" + index + ".png");
+        entityManager.persist(product);
+        return product;
+    }
+}
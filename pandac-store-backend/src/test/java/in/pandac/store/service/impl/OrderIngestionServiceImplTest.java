@@ -0,0 +1,179 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.dto.ErrorResponseDto;
+import in.pandac.store.dto.OrderIngestionState;
+import in.pandac.store.dto.OrderItemDto;
+import in.pandac.store.dto.OrderRequestDto;
+import in.pandac.store.dto.OrderTicketDto;
+import in.pandac.store.entity.Customer;
+import in.pandac.store.entity.Order;
+import in.pandac.store.exception.GlobalExceptionHandler;
+import in.pandac.store.exception.OrderQueueFullException;
+import in.pandac.store.inventory.InventoryLedger;
+import in.pandac.store.inventory.Reservation;
+import in.pandac.store.repository.CustomerRepository;
+import in.pandac.store.repository.OrderOutboxRepository;
+import in.pandac.store.service.ProfileService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderIngestionServiceImplTest {
+
+    private static final String CUSTOMER_EMAIL = "jane@example.com";
+
+    private final OrderAssembler orderAssembler = mock(OrderAssembler.class);
+    private final ProfileService profileService = mock(ProfileService.class);
+    private final InventoryLedger inventoryLedger = mock(InventoryLedger.class);
+    private final TransactionStatus transactionStatus = mock(TransactionStatus.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AtomicLong orderIds = new AtomicLong(100);
+    private OrderIngestionServiceImpl ingestionService;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer();
+        customer.setCustomerId(7L);
+        customer.setEmail(CUSTOMER_EMAIL);
+        when(profileService.getAuthenticatedCustomer()).thenReturn(customer);
+        when(orderAssembler.validate(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(orderAssembler.assemble(any(), any())).thenAnswer(invocation -> {
+            Order order = new Order();
+            order.setOrderId(orderIds.incrementAndGet());
+            return order;
+        });
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(CUSTOMER_EMAIL, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (ingestionService != null) {
+            ingestionService.shutdown();
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testFullQueueIsRejectedWithTooManyRequests() {
+        ingestionService = ingestionService(1);
+        Reservation reservation = new Reservation("r-2", 7L, Map.of(1L, 1), Instant.now().plusSeconds(900));
+        OrderRequestDto second = request("pi_2");
+        when(orderAssembler.reserveStock(any(), eq(second))).thenReturn(reservation);
+        ingestionService.submit(request("pi_1"));
+
+        OrderQueueFullException rejected = assertThrows(OrderQueueFullException.class,
+                () -> ingestionService.submit(second));
+
+        // the units held for the rejected order go straight back
+        verify(inventoryLedger).release(reservation);
+        ResponseEntity<ErrorResponseDto> response = new GlobalExceptionHandler().handleOrderQueueFullException(
+                rejected, new ServletWebRequest(new MockHttpServletRequest()));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testTicketMovesFromQueuedToPersisted() throws InterruptedException {
+        ingestionService = ingestionService(10);
+        OrderTicketDto queued = ingestionService.submit(request("pi_1"));
+
+        assertEquals(OrderIngestionState.QUEUED, queued.state());
+        assertEquals(OrderIngestionState.QUEUED,
+                ingestionService.getTicket(queued.provisionalId()).orElseThrow().state());
+        ingestionService.start();
+
+        OrderTicketDto persisted = awaitTerminal(queued.provisionalId());
+        assertEquals(OrderIngestionState.PERSISTED, persisted.state());
+        assertEquals(101L, persisted.orderId());
+        verify(transactionManager).commit(transactionStatus);
+    }
+
+    @Test
+    void testBadOrderInAGroupIsRetriedAlone() throws InterruptedException {
+        ingestionService = ingestionService(10);
+        OrderRequestDto bad = request("pi_bad");
+        when(orderAssembler.assemble(any(), eq(bad)))
+                .thenThrow(new DataIntegrityViolationException("order_items violates a constraint"));
+        OrderTicketDto first = ingestionService.submit(request("pi_1"));
+        OrderTicketDto failing = ingestionService.submit(bad);
+        OrderTicketDto third = ingestionService.submit(request("pi_3"));
+        // all three are queued before the writer starts, so they share one group commit
+        ingestionService.start();
+
+        assertEquals(OrderIngestionState.PERSISTED, awaitTerminal(first.provisionalId()).state());
+        assertEquals(OrderIngestionState.PERSISTED, awaitTerminal(third.provisionalId()).state());
+        OrderTicketDto failed = awaitTerminal(failing.provisionalId());
+        assertEquals(OrderIngestionState.FAILED, failed.state());
+        assertEquals("order_items violates a constraint", failed.message());
+
+        // the group is rolled back once, then each order gets its own transaction
+        verify(transactionManager, times(2)).rollback(transactionStatus);
+        verify(transactionManager, times(2)).commit(transactionStatus);
+        verify(orderAssembler, times(2)).assemble(any(), eq(bad));
+    }
+
+    @Test
+    void testTicketIsOnlyVisibleToItsCustomer() {
+        ingestionService = ingestionService(10);
+        OrderTicketDto queued = ingestionService.submit(request("pi_1"));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("john@example.com", null, List.of()));
+
+        assertTrue(ingestionService.getTicket(queued.provisionalId()).isEmpty());
+    }
+
+    private OrderIngestionServiceImpl ingestionService(int queueCapacity) {
+        return new OrderIngestionServiceImpl(orderAssembler, profileService, mock(CustomerRepository.class),
+                inventoryLedger, mock(EntityManager.class), mock(OrderOutboxRepository.class),
+                mock(ApplicationEventPublisher.class), transactionManager, true, queueCapacity, 50);
+    }
+
+    private OrderTicketDto awaitTerminal(String provisionalId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            OrderTicketDto ticket = ingestionService.getTicket(provisionalId).orElseThrow();
+            if (ticket.state() != OrderIngestionState.QUEUED) {
+                return ticket;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("ticket " + provisionalId + " is still queued");
+    }
+
+    private static OrderRequestDto request(String paymentId) {
+        return new OrderRequestDto(new BigDecimal("19.99"), paymentId, "succeeded", null, null,
+                List.of(new OrderItemDto(1L, 1, new BigDecimal("19.99"))), null, null);
+    }
+}
@@ -0,0 +1,125 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.dto.OrderPageDto;
+import in.pandac.store.entity.Customer;
+import in.pandac.store.exception.GlobalExceptionHandler;
+import in.pandac.store.exception.InvalidCursorException;
+import in.pandac.store.repository.OrderRepository;
+import in.pandac.store.repository.projection.OrderItemView;
+import in.pandac.store.repository.projection.OrderSummaryView;
+import in.pandac.store.service.ProfileService;
+import in.pandac.store.util.OrderCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Keyset pages over orders: one extra row decides whether a next cursor is issued,
+ * and the cursor seeks past the last order of the page.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderPageTest {
+
+    private static final Long CUSTOMER_ID = 7L;
+    private static final Instant NOW = Instant.parse("2026-10-01T10:00:00Z");
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProfileService profileService;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    @Test
+    void testCustomerHistoryIsPagedWithACursor() {
+        authenticate();
+        // orders 2 and 3 share a timestamp, so the cursor needs the order id to tell them apart
+        when(orderRepository.findCustomerOrderPage(CUSTOMER_ID, Limit.of(3))).thenReturn(
+                List.of(summary(4L, NOW), summary(3L, NOW.minusSeconds(60)), summary(2L, NOW.minusSeconds(60))));
+        when(orderRepository.findOrderItemsByOrderIds(List.of(4L, 3L))).thenReturn(
+                List.of(item(3L, "Panda sticker"), item(4L, "Panda mug")));
+
+        OrderPageDto first = orderService.getCustomerOrderPage(null, 2);
+
+        assertTrue(first.hasMore());
+        assertEquals(List.of(4L, 3L), first.items().stream().map(order -> order.orderId()).toList());
+        assertEquals("Panda mug", first.items().get(0).items().get(0).productName());
+        assertEquals(new OrderCursor(NOW.minusSeconds(60), 3L), OrderCursor.decode(first.nextCursor()));
+
+        when(orderRepository.findCustomerOrderPageAfter(CUSTOMER_ID, NOW.minusSeconds(60), 3L, Limit.of(3)))
+                .thenReturn(List.of(summary(2L, NOW.minusSeconds(60))));
+        when(orderRepository.findOrderItemsByOrderIds(List.of(2L))).thenReturn(List.of(item(2L, "Panda tote")));
+
+        OrderPageDto last = orderService.getCustomerOrderPage(first.nextCursor(), 2);
+
+        assertFalse(last.hasMore());
+        assertNull(last.nextCursor());
+        assertEquals(2L, last.items().get(0).orderId());
+    }
+
+    @Test
+    void testPageSizeIsClampedAndAnEmptyPageSkipsTheItemQuery() {
+        String status = ApplicationConstants.ORDER_STATUS_CREATED;
+        when(orderRepository.findStatusOrderPage(status, Limit.of(ApplicationConstants.ORDER_PAGE_MAX_SIZE + 1)))
+                .thenReturn(List.of());
+
+        OrderPageDto page = orderService.getPendingOrderPage("", 10_000);
+
+        assertEquals(List.of(), page.items());
+        assertFalse(page.hasMore());
+        assertNull(page.nextCursor());
+        verify(orderRepository, never()).findOrderItemsByOrderIds(anyCollection());
+    }
+
+    @Test
+    void testMalformedCursorIsABadRequest() {
+        authenticate();
+
+        InvalidCursorException rejected = assertThrows(InvalidCursorException.class,
+                () -> orderService.getCustomerOrderPage("not a cursor", 20));
+
+        verifyNoInteractions(orderRepository);
+        HttpStatus status = HttpStatus.valueOf(new GlobalExceptionHandler().handleInvalidCursorException(
+                rejected, new ServletWebRequest(new MockHttpServletRequest())).getStatusCode().value());
+        assertEquals(HttpStatus.BAD_REQUEST, status);
+    }
+
+    private void authenticate() {
+        Customer customer = new Customer();
+        customer.setCustomerId(CUSTOMER_ID);
+        when(profileService.getAuthenticatedCustomer()).thenReturn(customer);
+    }
+
+    private static OrderSummaryView summary(Long orderId, Instant createdAt) {
+        return new OrderSummaryView(orderId, ApplicationConstants.ORDER_STATUS_CREATED,
+                new BigDecimal("19.99"), createdAt);
+    }
+
+    private static OrderItemView item(Long orderId, String productName) {
+        return new OrderItemView(orderId, productName, 1, new BigDecimal("19.99"), null);
+    }
+}
@@ -0,0 +1,162 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.dto.OrderStatusBulkRequestDto;
+import in.pandac.store.dto.OrderStatusBulkResultDto;
+import in.pandac.store.dto.OrderStatusOutcome;
+import in.pandac.store.dto.OrderStatusResultDto;
+import in.pandac.store.event.OrderChangedEvent;
+import in.pandac.store.event.OrderOutboxEvent;
+import in.pandac.store.repository.OrderOutboxRepository;
+import in.pandac.store.repository.OrderRepository;
+import in.pandac.store.repository.projection.OrderStatusView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The bulk status change: one conditional UPDATE per chunk, and a per-order redo
+ * when a concurrent change makes its count come up short.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderStatusBulkTest {
+
+    private static final String ADMIN = "admin@pandac.in";
+    private static final String CREATED = ApplicationConstants.ORDER_STATUS_CREATED;
+    private static final String CONFIRMED = ApplicationConstants.ORDER_STATUS_CONFIRMED;
+    private static final String CANCELLED = ApplicationConstants.ORDER_STATUS_CANCELLED;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(ADMIN, null, "ROLE_ADMIN"));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testEveryIdGetsAnOutcome() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(orderRepository.findOrderStatuses(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new OrderStatusView(1L, CREATED, 0L), new OrderStatusView(2L, CANCELLED, 1L)));
+        when(orderRepository.transitionOrderStatuses(eq(List.of(1L)), eq(CONFIRMED), eq(CREATED), any(), eq(ADMIN)))
+                .thenReturn(1);
+
+        // duplicates and nulls are dropped before anything is read
+        OrderStatusBulkResultDto result = orderService.updateOrderStatuses(
+                new OrderStatusBulkRequestDto(Arrays.asList(1L, 2L, 3L, 2L, null), CONFIRMED, null));
+
+        assertEquals(3, result.requested());
+        assertEquals(1, result.updated());
+        assertEquals(List.of(
+                new OrderStatusResultDto(1L, OrderStatusOutcome.UPDATED, CONFIRMED),
+                new OrderStatusResultDto(2L, OrderStatusOutcome.CONFLICT, CANCELLED),
+                new OrderStatusResultDto(3L, OrderStatusOutcome.NOT_FOUND, null)), result.results());
+        verify(transactionManager).commit(transactionStatus);
+        assertEquals(List.of(1L), outboxOrderIds(1));
+        assertEquals(List.of(1L), publishedOrderIds(1));
+    }
+
+    @Test
+    void testShortUpdateCountIsRedoneOrderByOrder() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(orderRepository.findOrderStatuses(List.of(1L, 2L))).thenReturn(List.of(
+                new OrderStatusView(1L, CREATED, 0L), new OrderStatusView(2L, CREATED, 0L)));
+        // order 2 is cancelled between the read and the UPDATE
+        when(orderRepository.transitionOrderStatuses(eq(List.of(1L, 2L)), eq(CONFIRMED), eq(CREATED), any(),
+                eq(ADMIN))).thenReturn(1);
+        when(orderRepository.transitionOrderStatus(eq(1L), eq(CONFIRMED), eq(List.of(CREATED)), eq(null), any(),
+                eq(ADMIN))).thenReturn(1);
+        when(orderRepository.transitionOrderStatus(eq(2L), eq(CONFIRMED), eq(List.of(CREATED)), eq(null), any(),
+                eq(ADMIN))).thenReturn(0);
+        when(orderRepository.findOrderStatuses(List.of(2L))).thenReturn(
+                List.of(new OrderStatusView(2L, CANCELLED, 1L)));
+
+        OrderStatusBulkResultDto result = orderService.updateOrderStatuses(
+                new OrderStatusBulkRequestDto(List.of(1L, 2L), CONFIRMED, CREATED));
+
+        // the first attempt is thrown away, so its UPDATE cannot be credited to this request
+        verify(transactionStatus).setRollbackOnly();
+        assertEquals(1, result.updated());
+        assertEquals(List.of(
+                new OrderStatusResultDto(1L, OrderStatusOutcome.UPDATED, CONFIRMED),
+                new OrderStatusResultDto(2L, OrderStatusOutcome.CONFLICT, CANCELLED)), result.results());
+        assertEquals(List.of(1L), outboxOrderIds(1));
+        assertEquals(List.of(1L), publishedOrderIds(1));
+
+        // both attempts stamp the same audit time
+        ArgumentCaptor<Instant> chunkTime = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> orderTime = ArgumentCaptor.forClass(Instant.class);
+        verify(orderRepository).transitionOrderStatuses(any(), any(), any(), chunkTime.capture(), any());
+        verify(orderRepository, times(2)).transitionOrderStatus(any(), any(), any(), any(), orderTime.capture(),
+                any());
+        assertEquals(result.updatedAt(), chunkTime.getValue());
+        assertEquals(List.of(result.updatedAt(), result.updatedAt()), orderTime.getAllValues());
+    }
+
+    @Test
+    void testDisallowedTransitionIsRejectedBeforeAnyWrite() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateOrderStatuses(
+                new OrderStatusBulkRequestDto(List.of(1L), CONFIRMED, CANCELLED)));
+
+        verifyNoInteractions(orderRepository, orderOutboxRepository, eventPublisher, transactionManager);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> outboxOrderIds(int appends) {
+        ArgumentCaptor<List<OrderOutboxEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(orderOutboxRepository, times(appends)).append(events.capture());
+        return events.getAllValues().stream().flatMap(List::stream).map(OrderOutboxEvent::orderId).toList();
+    }
+
+    private List<Long> publishedOrderIds(int events) {
+        ArgumentCaptor<OrderChangedEvent> published = ArgumentCaptor.forClass(OrderChangedEvent.class);
+        verify(eventPublisher, times(events)).publishEvent(published.capture());
+        published.getAllValues().forEach(event -> assertEquals(CONFIRMED, event.orderStatus()));
+        return published.getAllValues().stream().map(OrderChangedEvent::orderId).toList();
+    }
+}
@@ -0,0 +1,115 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.exception.GlobalExceptionHandler;
+import in.pandac.store.exception.OrderStatusConflictException;
+import in.pandac.store.exception.ResourceNotFoundException;
+import in.pandac.store.repository.OrderOutboxRepository;
+import in.pandac.store.repository.OrderRepository;
+import in.pandac.store.repository.projection.OrderStatusView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The single-order status change: a lost conditional UPDATE becomes a 409 naming the
+ * order's current status and version.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderStatusConflictTest {
+
+    private static final Long ORDER_ID = 7L;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("admin@pandac.in", null, "ROLE_ADMIN"));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testStaleVersionIsReportedWithTheCurrentVersion() {
+        when(orderRepository.transitionOrderStatus(eq(ORDER_ID), eq(ApplicationConstants.ORDER_STATUS_CONFIRMED),
+                anyCollection(), eq(3L), any(), anyString())).thenReturn(0);
+        when(orderRepository.findOrderStatuses(List.of(ORDER_ID))).thenReturn(
+                List.of(new OrderStatusView(ORDER_ID, ApplicationConstants.ORDER_STATUS_CREATED, 4L)));
+
+        OrderStatusConflictException conflict = assertThrows(OrderStatusConflictException.class,
+                () -> orderService.updateOrderStatus(ORDER_ID, ApplicationConstants.ORDER_STATUS_CONFIRMED, 3L));
+
+        assertEquals(ApplicationConstants.ORDER_STATUS_CREATED, conflict.getCurrentStatus());
+        assertEquals(4L, conflict.getCurrentVersion());
+        verifyNoInteractions(orderOutboxRepository, eventPublisher);
+    }
+
+    @Test
+    void testDisallowedTransitionIsAConflict() {
+        when(orderRepository.transitionOrderStatus(eq(ORDER_ID), eq(ApplicationConstants.ORDER_STATUS_CONFIRMED),
+                anyCollection(), eq(null), any(), anyString())).thenReturn(0);
+        when(orderRepository.findOrderStatuses(List.of(ORDER_ID))).thenReturn(
+                List.of(new OrderStatusView(ORDER_ID, ApplicationConstants.ORDER_STATUS_CANCELLED, 2L)));
+
+        OrderStatusConflictException conflict = assertThrows(OrderStatusConflictException.class,
+                () -> orderService.updateOrderStatus(ORDER_ID, ApplicationConstants.ORDER_STATUS_CONFIRMED, null));
+
+        assertEquals(ApplicationConstants.ORDER_STATUS_CANCELLED, conflict.getCurrentStatus());
+    }
+
+    @Test
+    void testMissingOrderIsNotAConflict() {
+        when(orderRepository.transitionOrderStatus(eq(ORDER_ID), anyString(), anyCollection(), any(), any(),
+                anyString())).thenReturn(0);
+        when(orderRepository.findOrderStatuses(List.of(ORDER_ID))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> orderService.updateOrderStatus(ORDER_ID, ApplicationConstants.ORDER_STATUS_CANCELLED, 1L));
+    }
+
+    @Test
+    void testConflictIsAnsweredWith409() {
+        OrderStatusConflictException conflict = new OrderStatusConflictException(ORDER_ID,
+                ApplicationConstants.ORDER_STATUS_CONFIRMED, ApplicationConstants.ORDER_STATUS_CREATED, 4L);
+
+        HttpStatus status = HttpStatus.valueOf(new GlobalExceptionHandler().handleOrderStatusConflictException(
+                conflict, new ServletWebRequest(new MockHttpServletRequest())).getStatusCode().value());
+
+        assertEquals(HttpStatus.CONFLICT, status);
+    }
+}
@@ -0,0 +1,142 @@
+package in.pandac.store.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.pandac.store.dto.ProductImportErrorDto;
+import in.pandac.store.dto.ProductImportFormat;
+import in.pandac.store.dto.ProductImportResultDto;
+import in.pandac.store.entity.Product;
+import in.pandac.store.event.ProductChangedEvent;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductImportServiceImplTest {
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ProductImportServiceImpl productImportService = new ProductImportServiceImpl(entityManager,
+            transactionManager, new ObjectMapper(), eventPublisher);
+    // products of committed chunks only
+    private final List<String> stored = new ArrayList<>();
+    private final List<String> pending = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productImportService, "batchSize", 2);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            pending.clear();
+            return mock(TransactionStatus.class);
+        });
+        doAnswer(invocation -> {
+            stored.addAll(pending);
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            if (product.getName().startsWith("Duplicate")) {
+                throw new DataIntegrityViolationException(
+                        "Duplicate entry 'Duplicate' for key 'products.uk_products_name'");
+            }
+            pending.add(product.getName());
+            return null;
+        }).when(entityManager).persist(any(Product.class));
+    }
+
+    @Test
+    void testCsvRowsAreImportedAndInvalidRowsReported() {
+        ProductImportResultDto result = importCsv("""
+                name,description,price,image_url,popularity
+                Panda,"Plush, large",19.99,/p.png,5
+                Bamboo,Snack,-1,/b.png,
+                Tiger,Plush,12.50,/t.png,
+
+                Lion,Plush,abc,/l.png,1
+                """);
+
+        assertEquals(4, result.totalRows());
+        assertEquals(2, result.imported());
+        assertEquals(2, result.failed());
+        assertEquals(List.of(3L, 6L), result.errors().stream().map(ProductImportErrorDto::line).toList());
+        assertEquals(List.of("Panda", "Tiger"), stored);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.reloaded());
+    }
+
+    @Test
+    void testMalformedNdjsonLineIsReported() {
+        ProductImportResultDto result = productImportService.importProducts(stream("""
+                {"name":"Panda","description":"Plush","price":19.99,"imageUrl":"/p.png"}
+                {"name":"Broken"
+                """), ProductImportFormat.NDJSON);
+
+        assertEquals(1, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(2, result.errors().get(0).line());
+        assertEquals(List.of("Panda"), stored);
+    }
+
+    @Test
+    void testRowRejectedByDatabaseIsRetriedAloneWithAStableReason() {
+        ProductImportResultDto result = importCsv("""
+                name,description,price,image_url
+                Panda,Plush,19.99,/p.png
+                Duplicate,Plush,5.00,/d.png
+                Tiger,Plush,12.50,/t.png
+                """);
+
+        assertEquals(2, result.imported());
+        assertEquals(List.of(new ProductImportErrorDto(3,
+                ProductImportServiceImpl.REJECTED_BY_CONSTRAINT)), result.errors());
+        assertEquals(List.of("Panda", "Tiger"), stored);
+    }
+
+    @Test
+    void testCsvWithoutRequiredColumnIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> importCsv("""
+                name,price
+                Panda,19.99
+                """));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testPriceWithMoreThanTwoDecimalsIsRejected() {
+        ProductImportResultDto result = importCsv("""
+                name,description,price,image_url
+                Panda,Plush,%s,/p.png
+                """.formatted(new BigDecimal("1.999")));
+
+        assertEquals(0, result.imported());
+        assertEquals(1, result.failed());
+    }
+
+    private ProductImportResultDto importCsv(String csv) {
+        return productImportService.importProducts(stream(csv), ProductImportFormat.CSV);
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,66 @@
+package in.pandac.store.service.impl;
+
+import in.pandac.store.repository.SalesRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SalesReportServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    private final SalesRollupRepository salesRollupRepository = mock(SalesRollupRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SalesReportServiceImpl salesReportService =
+            new SalesReportServiceImpl(salesRollupRepository, transactionManager);
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(salesRollupRepository.lockSettledRange(any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void testEachDayIsRebuiltInItsOwnTransactionAfterTheLock() {
+        salesReportService.reconcile(DAY, DAY.plusDays(2));
+
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(3)).commit(any());
+        var order = inOrder(salesRollupRepository);
+        for (int i = 0; i < 3; i++) {
+            order.verify(salesRollupRepository).lockSettledRange(DAY.plusDays(i), DAY.plusDays(i + 1));
+            order.verify(salesRollupRepository).rebuild(DAY.plusDays(i), DAY.plusDays(i + 1));
+        }
+    }
+
+    @Test
+    void testDayWithUndeliveredOrderEventsIsLeftAlone() {
+        when(salesRollupRepository.lockSettledRange(DAY.plusDays(1), DAY.plusDays(2))).thenReturn(false);
+
+        salesReportService.reconcile(DAY, DAY.plusDays(2));
+
+        verify(salesRollupRepository).rebuild(DAY, DAY.plusDays(1));
+        verify(salesRollupRepository, never()).rebuild(DAY.plusDays(1), DAY.plusDays(2));
+        verify(salesRollupRepository).rebuild(DAY.plusDays(2), DAY.plusDays(3));
+    }
+
+    @Test
+    void testReversedOrTooLongRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> salesReportService.reconcile(DAY, DAY.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> salesReportService.reconcile(DAY, DAY.plusYears(2)));
+        verifyNoInteractions(salesRollupRepository);
+    }
+}
@@ -0,0 +1,46 @@
+package in.pandac.store.util;
+
+import in.pandac.store.constants.ApplicationConstants;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStatusTransitionsTest {
+
+    private static final String CREATED = ApplicationConstants.ORDER_STATUS_CREATED;
+    private static final String CONFIRMED = ApplicationConstants.ORDER_STATUS_CONFIRMED;
+    private static final String CANCELLED = ApplicationConstants.ORDER_STATUS_CANCELLED;
+
+    @Test
+    void testCreatedOrderCanBeConfirmedOrCancelled() {
+        assertTrue(OrderStatusTransitions.isAllowed(CREATED, CONFIRMED));
+        assertTrue(OrderStatusTransitions.isAllowed(CREATED, CANCELLED));
+        assertTrue(OrderStatusTransitions.isAllowed(CONFIRMED, CANCELLED));
+    }
+
+    @Test
+    void testCancelledIsTerminalAndConfirmedCannotGoBack() {
+        assertFalse(OrderStatusTransitions.isAllowed(CANCELLED, CONFIRMED));
+        assertFalse(OrderStatusTransitions.isAllowed(CANCELLED, CREATED));
+        assertFalse(OrderStatusTransitions.isAllowed(CONFIRMED, CREATED));
+        assertFalse(OrderStatusTransitions.isAllowed(CONFIRMED, CONFIRMED));
+    }
+
+    @Test
+    void testUnknownStatusesAllowNothing() {
+        assertFalse(OrderStatusTransitions.isAllowed("SHIPPED", CANCELLED));
+        assertFalse(OrderStatusTransitions.isAllowed(CREATED, "SHIPPED"));
+        assertEquals(Set.of(), OrderStatusTransitions.sourcesOf("SHIPPED"));
+    }
+
+    @Test
+    void testSourcesOfListEveryStatusThatCanReachTheTarget() {
+        assertEquals(Set.of(CREATED), OrderStatusTransitions.sourcesOf(CONFIRMED));
+        assertEquals(Set.of(CREATED, CONFIRMED), OrderStatusTransitions.sourcesOf(CANCELLED));
+        assertEquals(Set.of(), OrderStatusTransitions.sourcesOf(CREATED));
+    }
+}
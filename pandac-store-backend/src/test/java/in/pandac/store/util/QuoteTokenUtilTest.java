@@ -0,0 +1,84 @@
+package in.pandac.store.util;
+
+import in.pandac.store.constants.ApplicationConstants;
+import in.pandac.store.exception.InvalidQuoteException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuoteTokenUtilTest {
+
+    private final QuoteTokenUtil quoteTokenUtil = quoteTokenUtil("quote-test-secret");
+
+    @Test
+    void testSignedQuoteVerifiesToTheSameContent() {
+        CartQuote quote = quote(Instant.now().plus(Duration.ofMinutes(15)));
+
+        CartQuote verified = quoteTokenUtil.verify(quoteTokenUtil.sign(quote));
+
+        assertEquals("jane@example.com", verified.customer());
+        assertEquals(quote.lines(), verified.lines());
+        assertEquals("SAVE10", verified.discountCode());
+        assertEquals(450, verified.discountCents());
+        assertEquals(4048, verified.totalCents());
+    }
+
+    @Test
+    void testTwoQuotesOfTheSameCartHaveDistinctFingerprints() {
+        CartQuote quote = quote(Instant.now().plus(Duration.ofMinutes(15)));
+
+        assertNotEquals(QuoteTokenUtil.fingerprint(quoteTokenUtil.sign(quote)),
+                QuoteTokenUtil.fingerprint(quoteTokenUtil.sign(quote)));
+    }
+
+    @Test
+    void testTamperedTokenIsRejected() {
+        String[] parts = quoteTokenUtil.sign(quote(Instant.now().plus(Duration.ofMinutes(15)))).split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        assertTrue(payload.contains("\"totalCents\":4048"));
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                payload.replace("\"totalCents\":4048", "\"totalCents\":1").getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidQuoteException.class,
+                () -> quoteTokenUtil.verify(parts[0] + "." + tampered + "." + parts[2]));
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        String token = quoteTokenUtil.sign(quote(Instant.now().minus(Duration.ofMinutes(1))));
+
+        assertThrows(InvalidQuoteException.class, () -> quoteTokenUtil.verify(token));
+    }
+
+    @Test
+    void testTokenSignedWithAnotherKeyIsRejected() {
+        String token = quoteTokenUtil("another-secret").sign(quote(Instant.now().plus(Duration.ofMinutes(15))));
+
+        assertThrows(InvalidQuoteException.class, () -> quoteTokenUtil.verify(token));
+    }
+
+    @Test
+    void testMalformedTokenIsRejected() {
+        assertThrows(InvalidQuoteException.class, () -> quoteTokenUtil.verify("not-a-token"));
+    }
+
+    private static CartQuote quote(Instant expiresAt) {
+        return new CartQuote("jane@example.com",
+                List.of(new CartQuote.Line(1L, 2, 1999), new CartQuote.Line(2L, 1, 500)),
+                "SAVE10", false, 450, 4048, expiresAt);
+    }
+
+    private static QuoteTokenUtil quoteTokenUtil(String secret) {
+        return new QuoteTokenUtil(new MockEnvironment().withProperty(ApplicationConstants.JWT_SECRET_KEY, secret));
+    }
+}